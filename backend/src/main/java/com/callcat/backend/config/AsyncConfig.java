@@ -0,0 +1,25 @@
+package com.callcat.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for fanning out blocking I/O (DynamoDB queries, outbound HTTP) from a request.
+ *
+ * The I/O executor starts one virtual thread per task: the work is almost entirely waiting
+ * on the network, so there is no pool to size and a burst of requests cannot starve it.
+ * Limiting how many calls reach a downstream service is left to the caller.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String IO_EXECUTOR = "callcatIoExecutor";
+
+    @Bean(name = IO_EXECUTOR, destroyMethod = "close")
+    public ExecutorService callcatIoExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("callcat-io-", 0).factory());
+    }
+}
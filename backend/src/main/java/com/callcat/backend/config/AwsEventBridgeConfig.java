@@ -1,5 +1,7 @@
 package com.callcat.backend.config;
 
+import com.callcat.backend.util.Bulkhead;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
@@ -10,10 +12,11 @@ import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
 public class AwsEventBridgeConfig {
     
     @Bean
-    public EventBridgeClient eventBridgeClient() {
+    public EventBridgeClient eventBridgeClient(@Qualifier(BulkheadConfig.EVENTBRIDGE) Bulkhead bulkhead) {
         return EventBridgeClient.builder()
                 .region(Region.US_EAST_1)
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(new BulkheadExecutionInterceptor(bulkhead)))
                 .build();
     }
 }
\ No newline at end of file
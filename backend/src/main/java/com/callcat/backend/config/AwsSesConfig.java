@@ -1,5 +1,7 @@
 package com.callcat.backend.config;
 
+import com.callcat.backend.util.Bulkhead;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
@@ -10,10 +12,11 @@ import software.amazon.awssdk.services.ses.SesClient;
 public class AwsSesConfig {
     
     @Bean
-    public SesClient sesClient() {
+    public SesClient sesClient(@Qualifier(BulkheadConfig.SES) Bulkhead bulkhead) {
         return SesClient.builder()
                 .region(Region.US_EAST_1)  // SES is available in us-east-1, us-west-2, eu-west-1
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(new BulkheadExecutionInterceptor(bulkhead)))
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.callcat.backend.config;
+
+import com.callcat.backend.util.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * One {@link Bulkhead} per downstream service, so a slow dependency can only tie up the
+ * requests that need it.
+ *
+ * The AWS clients take theirs through {@link BulkheadExecutionInterceptor}, which covers every
+ * repository and service using them; RetellService and EmailService (Gmail SMTP) wrap their
+ * calls directly. Limits are set under callcat.bulkhead.&lt;name&gt;.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    public static final String DYNAMODB = "dynamodb";
+    public static final String EVENTBRIDGE = "eventbridge";
+    public static final String SES = "ses";
+    public static final String SMTP = "smtp";
+    public static final String RETELL = "retell";
+
+    @Bean(name = DYNAMODB)
+    public Bulkhead dynamoDbBulkhead(@Value("${callcat.bulkhead.dynamodb.max-concurrent:50}") int maxConcurrent,
+                                     @Value("${callcat.bulkhead.dynamodb.max-wait-ms:1000}") long maxWaitMs,
+                                     MeterRegistry meterRegistry) {
+        return new Bulkhead(DYNAMODB, maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean(name = EVENTBRIDGE)
+    public Bulkhead eventBridgeBulkhead(@Value("${callcat.bulkhead.eventbridge.max-concurrent:10}") int maxConcurrent,
+                                        @Value("${callcat.bulkhead.eventbridge.max-wait-ms:2000}") long maxWaitMs,
+                                        MeterRegistry meterRegistry) {
+        return new Bulkhead(EVENTBRIDGE, maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean(name = SES)
+    public Bulkhead sesBulkhead(@Value("${callcat.bulkhead.ses.max-concurrent:5}") int maxConcurrent,
+                                @Value("${callcat.bulkhead.ses.max-wait-ms:5000}") long maxWaitMs,
+                                MeterRegistry meterRegistry) {
+        return new Bulkhead(SES, maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean(name = SMTP)
+    public Bulkhead smtpBulkhead(@Value("${callcat.bulkhead.smtp.max-concurrent:3}") int maxConcurrent,
+                                 @Value("${callcat.bulkhead.smtp.max-wait-ms:5000}") long maxWaitMs,
+                                 MeterRegistry meterRegistry) {
+        return new Bulkhead(SMTP, maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+
+    @Bean(name = RETELL)
+    public Bulkhead retellBulkhead(@Value("${callcat.bulkhead.retell.max-concurrent:10}") int maxConcurrent,
+                                   @Value("${callcat.bulkhead.retell.max-wait-ms:2000}") long maxWaitMs,
+                                   MeterRegistry meterRegistry) {
+        return new Bulkhead(RETELL, maxConcurrent, Duration.ofMillis(maxWaitMs), meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.callcat.backend.config;
+
+import com.callcat.backend.util.Bulkhead;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs every request of an AWS SDK client inside a {@link Bulkhead}: the permit is taken
+ * before the request (and its retries) and returned once it succeeded or failed.
+ */
+public class BulkheadExecutionInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<AtomicBoolean> PERMIT_HELD = new ExecutionAttribute<>("CallcatBulkheadPermitHeld");
+
+    private final Bulkhead bulkhead;
+
+    public BulkheadExecutionInterceptor(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        bulkhead.acquire();
+        executionAttributes.putAttribute(PERMIT_HELD, new AtomicBoolean(true));
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        release(executionAttributes);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        release(executionAttributes);
+    }
+
+    // Both hooks can run for one request (an afterExecution interceptor failing), so release once
+    private void release(ExecutionAttributes executionAttributes) {
+        AtomicBoolean held = executionAttributes.getAttribute(PERMIT_HELD);
+        if (held != null && held.compareAndSet(true, false)) {
+            bulkhead.release();
+        }
+    }
+}
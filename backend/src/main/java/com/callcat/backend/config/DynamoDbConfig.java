@@ -1,5 +1,7 @@
 package com.callcat.backend.config;
 
+import com.callcat.backend.util.Bulkhead;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
@@ -11,10 +13,11 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 public class DynamoDbConfig {
 
     @Bean
-    public DynamoDbClient dynamoDbClient() {
+    public DynamoDbClient dynamoDbClient(@Qualifier(BulkheadConfig.DYNAMODB) Bulkhead bulkhead) {
         return DynamoDbClient.builder()
                 .region(Region.US_EAST_1)
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                .overrideConfiguration(o -> o.addExecutionInterceptor(new BulkheadExecutionInterceptor(bulkhead)))
                 .build();
     }
 
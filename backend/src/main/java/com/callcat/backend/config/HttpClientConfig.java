@@ -1,72 +1,32 @@
 package com.callcat.backend.config;
 
-import org.apache.hc.client5.http.config.ConnectionConfig;
-import org.apache.hc.client5.http.config.RequestConfig;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
-import org.apache.hc.core5.util.TimeValue;
-import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 /**
- * HTTP client configuration to prevent memory leaks by properly managing connection pools.
- * 
- * This configuration addresses the metaspace memory leak issue by:
- * 1. Reusing HTTP connections instead of creating new ones for each request
- * 2. Limiting the total number of connections to prevent resource exhaustion  
- * 3. Setting appropriate timeouts to prevent hanging connections
- * 4. Ensuring connections are properly closed and recycled
+ * HTTP client for outbound API calls (Retell).
+ *
+ * The JDK client negotiates HTTP/2 where the server offers it, so concurrent requests share one
+ * multiplexed connection instead of each holding a pooled one; it falls back to HTTP/1.1
+ * otherwise. Requests are sent asynchronously and their responses handled on the I/O executor's
+ * virtual threads. Per-request response timeouts are set by the caller.
  */
 @Configuration
 public class HttpClientConfig {
-    
-    @Bean
-    public PoolingHttpClientConnectionManager connectionManager() {
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-        
-        // Connection pool settings optimized for t3.micro (1GB RAM)
-        connectionManager.setMaxTotal(20); // Maximum total connections across all routes
-        connectionManager.setDefaultMaxPerRoute(10); // Maximum connections per route (e.g., to retell.ai)
-        
-        // Connection timeout settings
-        ConnectionConfig connectionConfig = ConnectionConfig.custom()
-            .setConnectTimeout(Timeout.ofSeconds(30)) // Connection establishment timeout
-            .setSocketTimeout(Timeout.ofSeconds(60))  // Socket read timeout
-            .setValidateAfterInactivity(TimeValue.ofSeconds(10)) // Validate connections after 10s idle
-            .build();
-        connectionManager.setDefaultConnectionConfig(connectionConfig);
-        
-        return connectionManager;
-    }
-    
-    @Bean
-    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
-        RequestConfig requestConfig = RequestConfig.custom()
-            .setConnectionRequestTimeout(Timeout.ofSeconds(30)) // Timeout when requesting connection from pool
-            .setResponseTimeout(Timeout.ofSeconds(60))           // Response timeout
-            .build();
-            
-        return HttpClients.custom()
-            .setConnectionManager(connectionManager)
-            .setDefaultRequestConfig(requestConfig)
-            .evictIdleConnections(TimeValue.ofMinutes(2)) // Close idle connections after 2 minutes
-            .evictExpiredConnections() // Automatically remove expired connections
-            .build();
-    }
-    
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
     @Bean
-    public HttpComponentsClientHttpRequestFactory httpRequestFactory(CloseableHttpClient httpClient) {
-        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        
-        // Additional request timeout settings
-        factory.setConnectTimeout(Duration.ofSeconds(30));
-        factory.setConnectionRequestTimeout(Duration.ofSeconds(30));
-        
-        return factory;
+    public HttpClient httpClient(@Qualifier(AsyncConfig.IO_EXECUTOR) Executor ioExecutor) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(ioExecutor)
+                .build();
     }
-}
\ No newline at end of file
+}
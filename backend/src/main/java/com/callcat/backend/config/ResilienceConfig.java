@@ -0,0 +1,41 @@
+package com.callcat.backend.config;
+
+import com.callcat.backend.util.CircuitBreaker;
+import com.callcat.backend.util.RetryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker and retry budget for the Retell API, next to its bulkhead in
+ * {@link BulkheadConfig}. RetellService checks the breaker on every request it sends and
+ * spends the budget on retries and hedged requests. Set under callcat.retell.circuit-breaker
+ * and callcat.retell.retry-budget.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker retellCircuitBreaker(
+            @Value("${callcat.retell.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${callcat.retell.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${callcat.retell.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${callcat.retell.circuit-breaker.open-ms:30000}") long openMs,
+            @Value("${callcat.retell.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+            MeterRegistry meterRegistry) {
+        return new CircuitBreaker(BulkheadConfig.RETELL, failureRateThreshold, windowSize, minimumCalls,
+                Duration.ofMillis(openMs), halfOpenCalls, meterRegistry);
+    }
+
+    @Bean
+    public RetryBudget retellRetryBudget(
+            @Value("${callcat.retell.retry-budget.ratio:0.2}") double ratio,
+            @Value("${callcat.retell.retry-budget.min-per-second:0.5}") double minPerSecond,
+            @Value("${callcat.retell.retry-budget.max-tokens:10}") int maxTokens,
+            MeterRegistry meterRegistry) {
+        return new RetryBudget(BulkheadConfig.RETELL, ratio, minPerSecond, maxTokens, meterRegistry);
+    }
+}
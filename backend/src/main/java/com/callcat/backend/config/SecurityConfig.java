@@ -1,6 +1,10 @@
 package com.callcat.backend.config;
 
+import com.callcat.backend.security.BoundedPasswordEncoder;
 import com.callcat.backend.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +22,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -27,6 +32,15 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
     
+    // Raising this only affects new hashes; existing ones are upgraded on the next successful login
+    @Value("${callcat.security.bcrypt.strength:12}")
+    private int bcryptStrength;
+    
+    @Value("${callcat.security.bcrypt.queue-capacity:16}")
+    private int bcryptQueueCapacity;
+    
+    @Value("${callcat.security.bcrypt.max-wait-ms:3000}")
+    private long bcryptMaxWaitMs;
     
     public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService) {
         this.jwtAuthFilter = jwtAuthFilter;
@@ -39,12 +53,15 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Re-dispatch of an already authorized request, e.g. when an event stream ends
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/webhooks/**").permitAll()
                         .requestMatchers("/api/calls/*/trigger").permitAll()
                         .requestMatchers("/api/calls/demo").permitAll()
                         .requestMatchers("/health").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers("/api/calls/summary/global").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -79,7 +96,13 @@ public class SecurityConfig {
     }
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        // One bcrypt at a time per CPU - more threads would only add contention
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(bcryptStrength),
+                Runtime.getRuntime().availableProcessors(),
+                bcryptQueueCapacity,
+                Duration.ofMillis(bcryptMaxWaitMs),
+                meterRegistry);
     }
 }
\ No newline at end of file
@@ -2,47 +2,88 @@ package com.callcat.backend.controller;
 
 import com.callcat.backend.dto.*;
 import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.mapper.CallMapper;
+import com.callcat.backend.service.CallBatchService;
+import com.callcat.backend.service.CallEventService;
 import com.callcat.backend.service.CallService;
 import com.callcat.backend.service.RetellService;
-import com.callcat.backend.service.UserService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/calls")
 public class CallController {
 
+    private static final Logger logger = LoggerFactory.getLogger(CallController.class);
+
     private final CallService callService;
+    private final CallBatchService callBatchService;
+    private final CallEventService callEventService;
     private final RetellService retellService;
-    private final UserService userService;
 
     @Value("${lambda.api.key}")
     private String expectedApiKey;
 
-    public CallController(CallService callService, RetellService retellService, UserService userService) {
+    public CallController(CallService callService, CallBatchService callBatchService, CallEventService callEventService,
+                          RetellService retellService) {
         this.callService = callService;
+        this.callBatchService = callBatchService;
+        this.callEventService = callEventService;
         this.retellService = retellService;
-        this.userService = userService;
     }
     
     @PostMapping
     public ResponseEntity<?> createCall(
             Authentication authentication,
             @Valid @RequestBody CallRequest request) {
-        try {
+        String email = authentication.getName();
+        CallResponse response = callService.createCall(email, request);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createCalls(
+            Authentication authentication,
+            @RequestBody BatchCallRequest request) {
+        String email = authentication.getName();
+        BatchCallResponse response = callBatchService.createCalls(email, request.getCalls());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public ResponseEntity<?> createCallsFromCsv(
+            Authentication authentication,
+            InputStream body) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
             String email = authentication.getName();
-            CallResponse response = callService.createCall(email, request);
+            List<CallRequest> requests = callBatchService.parseCsv(reader);
+            BatchCallResponse response = callBatchService.createCalls(email, requests);
             return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse("Could not read CSV upload", false));
         }
     }
     
@@ -50,31 +91,82 @@ public class CallController {
     public ResponseEntity<?> getCalls(
             Authentication authentication,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false, defaultValue = "20") Integer limit) {
-        try {
-            String email = authentication.getName();
-            
-            if (limit > 100) {
-                return ResponseEntity.badRequest().body(new ApiResponse("Limit cannot exceed 100", false));
-            }
-            
-            CallListResponse response = callService.getCalls(email, status, limit);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) List<String> fields) {
+        String email = authentication.getName();
+        
+        if (limit > 100) {
+            return ResponseEntity.badRequest().body(new ApiResponse("Limit cannot exceed 100", false));
         }
+        
+        CallListResponse response = callService.getCalls(email, status, limit, cursor, fields);
+        return ok(response, response.getETag()); // 304 instead if the client's If-None-Match matches
     }
     
+    @GetMapping("/all")
+    public ResponseEntity<?> getCallsByStatuses(
+            Authentication authentication,
+            @RequestParam(required = false, defaultValue = "SCHEDULED,COMPLETED,FAILED") List<String> statuses,
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false) String scheduledCursor,
+            @RequestParam(required = false) String completedCursor,
+            @RequestParam(required = false) String failedCursor,
+            @RequestParam(required = false) List<String> fields) {
+        String email = authentication.getName();
+
+        if (limit > 100) {
+            return ResponseEntity.badRequest().body(new ApiResponse("Limit cannot exceed 100", false));
+        }
+
+        Map<String, String> cursors = new HashMap<>();
+        cursors.put("SCHEDULED", scheduledCursor);
+        cursors.put("COMPLETED", completedCursor);
+        cursors.put("FAILED", failedCursor);
+
+        MultiStatusCallListResponse response = callService.getCallsByStatuses(email, statuses, limit, cursors, fields);
+        return ok(response, response.getETag());
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> getCallSummary(Authentication authentication) {
+        CallSummaryResponse response = callService.getCallSummary(authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Call counts across all users. Admin only (see SecurityConfig).
+     */
+    @GetMapping("/summary/global")
+    public ResponseEntity<?> getGlobalCallSummary() {
+        CallSummaryResponse response = callService.getGlobalCallSummary();
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Server-Sent Events stream of the user's call changes (call-status, transcript-ready, resync).
+     * The request thread is released as soon as the stream is opened.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCallEvents(
+            Authentication authentication,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return callEventService.subscribe(authentication.getName().toLowerCase(), lastEventId);
+    }
+
     @GetMapping("/{callId}")
     public ResponseEntity<?> getCall(
             Authentication authentication,
-            @PathVariable String callId) {
-        try {
-            CallResponse response = callService.getCall(callId);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+            @PathVariable String callId,
+            WebRequest webRequest) {
+        // Polls mostly find the call unchanged: answer those from the tag alone, before the full read
+        String eTag = callService.getCallETag(callId);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
+
+        CallResponse response = callService.getCall(callId);
+        return ok(response, eTag);
     }
     
     @PutMapping("/{callId}")
@@ -82,67 +174,105 @@ public class CallController {
             Authentication authentication,
             @PathVariable String callId,
             @Valid @RequestBody UpdateCallRequest request) {
-        try {
-            CallResponse response = callService.updateCall(callId, request);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        CallResponse response = callService.updateCall(callId, request);
+        return ResponseEntity.ok(response);
     }
     
     @DeleteMapping("/{callId}")
     public ResponseEntity<?> deleteCall(
             Authentication authentication,
             @PathVariable String callId) {
-        try {
-            callService.deleteCall(callId);
-            return ResponseEntity.ok(new ApiResponse("Call deleted successfully", true));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        callService.deleteCall(callId);
+        return ResponseEntity.ok(new ApiResponse("Call deleted successfully", true));
     }
     
+    /**
+     * Creates a call and dials it right away. The dial runs off the request thread; by default
+     * the response waits for Retell, while async=true answers 202 Accepted with the stored call
+     * at once and reports the outcome through its status (GET /api/calls/{callId} or the
+     * event stream).
+     */
     @PostMapping("/instant")
-    public ResponseEntity<?> createInstantCall(
+    public CompletableFuture<ResponseEntity<?>> createInstantCall(
             Authentication authentication,
-            @Valid @RequestBody CallRequest request) {
-        CallService.InstantCallResult result = null;
+            @Valid @RequestBody CallRequest request,
+            @RequestParam(defaultValue = "false") boolean async) {
+        CallService.InstantCallResult result = callService.createInstantCall(authentication.getName(), request);
+        CallRecord callRecord = result.getCallRecord();
+
+        if (async) {
+            // Stored first so the status can be read while Retell is dialing; RetellService
+            // then only adds the providerId, on its own copy so the response isn't read while
+            // it changes. Both later writes are updates, so a call deleted meanwhile stays deleted
+            callService.saveCallRecord(callRecord);
+            CallResponse accepted = result.toCallResponse();
+            CallRecord dialed = CallMapper.copy(callRecord);
+            retellService.makeStoredCallAsync(dialed, result.getSystemPrompt())
+                    .exceptionally(e -> {
+                        if (isFailedDial(e)) {
+                            markStoredCallAsFailed(dialed);
+                        }
+                        return null;
+                    });
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted));
+        }
+
+        // RetellService will save the record with providerId in one atomic write
+        return retellService.makeCallAsync(callRecord, result.getSystemPrompt())
+                .handle((response, e) -> {
+                    if (e == null) {
+                        return ResponseEntity.ok(result.toCallResponse());
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof ThrottledException throttled) {
+                        // Retell was never called and nothing was stored: 503, the client may retry
+                        throw throttled;
+                    }
+                    if (cause instanceof RetellService.CallNotSavedException) {
+                        // The phone is ringing, so the call must not be stored as failed or retried
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body(new ApiResponse(cause.getMessage(), false));
+                    }
+                    saveAsFailed(callRecord);
+                    return ResponseEntity.badRequest().body(new ApiResponse(cause.getMessage(), false));
+                });
+    }
+
+    /**
+     * Whether an instant call's dial failed, i.e. Retell did not place it. A call Retell placed
+     * but that could not be saved afterwards is still ringing and was logged by RetellService.
+     */
+    private static boolean isFailedDial(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return !(cause instanceof RetellService.CallNotSavedException);
+    }
+
+    /**
+     * Marks a stored instant call whose dial failed as FAILED, unless it was deleted meanwhile,
+     * and tells the user's event streams.
+     */
+    private void markStoredCallAsFailed(CallRecord failedCall) {
         try {
-            String email = authentication.getName();
-            result = callService.createInstantCall(email, request);
-
-            // Get user preferences to pass to Retell service
-            String systemPrompt = userService.getUserPreferences(email).getSystemPrompt();
-
-            // Immediately trigger the call using the already-loaded CallRecord
-            // RetellService will save the record with providerId in one atomic write
-            retellService.makeCall(result.getCallRecord(), systemPrompt);
-
-            return ResponseEntity.ok(result.toCallResponse());
-        } catch (IllegalArgumentException e) {
-            // Save the call record with FAILED status if it was created but Retell call failed
-            if (result != null) {
-                CallRecord failedCall = result.getCallRecord();
-                failedCall.setStatus("FAILED");
-                failedCall.setCompletedAt(System.currentTimeMillis());
-                failedCall.setDialSuccessful(false);
-                callService.saveCallRecord(failedCall);
-            }
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+            callService.markDialFailed(failedCall).ifPresentOrElse(callEventService::publishStatus,
+                    () -> logger.info("Instant call {} was deleted before its dial failed", failedCall.getCallId()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to mark instant call {} as failed: {}", failedCall.getCallId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stores an instant call whose dial failed as FAILED, and tells the user's event streams.
+     * Only for calls that were not stored before the dial.
+     */
+    private void saveAsFailed(CallRecord failedCall) {
+        try {
+            failedCall.setStatus("FAILED");
+            failedCall.setCompletedAt(System.currentTimeMillis());
+            failedCall.setDialSuccessful(false);
+            callService.saveCallRecord(failedCall);
+            callEventService.publishStatus(failedCall);
         } catch (RuntimeException e) {
-            // Save the call record with FAILED status if it was created but Retell call failed
-            if (result != null) {
-                CallRecord failedCall = result.getCallRecord();
-                failedCall.setStatus("FAILED");
-                failedCall.setCompletedAt(System.currentTimeMillis());
-                failedCall.setDialSuccessful(false);
-                callService.saveCallRecord(failedCall);
-            }
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+            logger.error("Failed to mark instant call {} as failed: {}", failedCall.getCallId(), e.getMessage());
         }
     }
     
@@ -150,65 +280,63 @@ public class CallController {
     public ResponseEntity<?> triggerCall(
             @PathVariable String callId,
             @RequestHeader(value = "X-API-Key", required = false) String apiKey) {
-        try {
-            if (!isValidApiKey(apiKey)) {
-                return ResponseEntity.status(401).body(new ApiResponse("Unauthorized", false));
-            }
-            
-            CallResponse call = callService.getCall(callId);
-            if (!"SCHEDULED".equals(call.getStatus())) {
-                return ResponseEntity.badRequest().body(new ApiResponse("Call is not scheduled", false));
-            }
-            
-            retellService.makeCall(callId);
-            return ResponseEntity.ok(new ApiResponse("Call triggered successfully", true));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+        if (!isValidApiKey(apiKey)) {
+            return ResponseEntity.status(401).body(new ApiResponse("Unauthorized", false));
         }
+        
+        CallResponse call = callService.getCall(callId);
+        if (!"SCHEDULED".equals(call.getStatus())) {
+            return ResponseEntity.badRequest().body(new ApiResponse("Call is not scheduled", false));
+        }
+        
+        retellService.makeCall(callId);
+        return ResponseEntity.ok(new ApiResponse("Call triggered successfully", true));
     }
     
+    private static ResponseEntity<?> ok(Object body, String eTag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(body);
+    }
+
     private boolean isValidApiKey(String providedKey) {
         return expectedApiKey != null && expectedApiKey.equals(providedKey);
     }
 
     @PostMapping("/demo")
     public ResponseEntity<?> createDemoCall(@RequestBody Map<String, String> request) {
-        try {
-            String phoneNumber = request.get("phoneNumber");
-            String prompt = request.get("prompt");
-
-            if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(new ApiResponse("Phone number is required", false));
-            }
-
-            // Normalize phone number to E.164 format
-            String normalizedPhone = normalizePhoneNumber(phoneNumber);
-
-            // Create temporary CallRecord (not saved to database - demo calls are ephemeral)
-            CallRecord tempRecord = new CallRecord();
-            tempRecord.setCallId(UUID.randomUUID().toString());
-            tempRecord.setPhoneNumber(normalizedPhone);
-            tempRecord.setCalleeName("Demo User");
-            tempRecord.setSubject("CallCat Demo");
-            
-            if (prompt != null && !prompt.trim().isEmpty()) {
-                tempRecord.setPrompt(prompt);
-            } else {
-                tempRecord.setPrompt("You are a sales representative for CallCat, a service that allows you to schedule and automate phone calls. It can be useful for routine calls, follow-ups, and other tasks. Be firm with sales, but friendly with the customer. Don't get off track.");
-            }
-            tempRecord.setAiLanguage("en");
-            tempRecord.setVoiceId("default");
-
-            // Call Retell API directly without saving to database
-            // No user account needed - demo calls are completely ephemeral
-            retellService.makeCall(tempRecord, null);
-
-            return ResponseEntity.ok(new ApiResponse("Demo call initiated successfully", true));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+        String phoneNumber = request.get("phoneNumber");
+        String prompt = request.get("prompt");
+
+        if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse("Phone number is required", false));
+        }
+
+        // Normalize phone number to E.164 format
+        String normalizedPhone = normalizePhoneNumber(phoneNumber);
+
+        // Create temporary CallRecord (not saved to database - demo calls are ephemeral)
+        CallRecord tempRecord = new CallRecord();
+        tempRecord.setCallId(UUID.randomUUID().toString());
+        tempRecord.setPhoneNumber(normalizedPhone);
+        tempRecord.setCalleeName("Demo User");
+        tempRecord.setSubject("CallCat Demo");
+        
+        if (prompt != null && !prompt.trim().isEmpty()) {
+            tempRecord.setPrompt(prompt);
+        } else {
+            tempRecord.setPrompt("You are a sales representative for CallCat, a service that allows you to schedule and automate phone calls. It can be useful for routine calls, follow-ups, and other tasks. Be firm with sales, but friendly with the customer. Don't get off track.");
         }
+        tempRecord.setAiLanguage("en");
+        tempRecord.setVoiceId("default");
+
+        // Call Retell API directly without saving to database
+        // No user account needed - demo calls are completely ephemeral
+        retellService.makeCall(tempRecord, null);
+
+        return ResponseEntity.ok(new ApiResponse("Demo call initiated successfully", true));
     }
 
     private String normalizePhoneNumber(String phone) {
@@ -1,8 +1,8 @@
 package com.callcat.backend.controller;
 
-import com.callcat.backend.dto.ApiResponse;
 import com.callcat.backend.dto.TranscriptResponse;
 import com.callcat.backend.service.TranscriptService;
+import com.callcat.backend.util.ETags;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -21,12 +21,10 @@ public class TranscriptController {
     public ResponseEntity<?> getTranscript(
             Authentication authentication,
             @PathVariable String providerId) {
-        try {
-            TranscriptResponse response = transcriptService.getTranscriptByProviderId(providerId);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        TranscriptResponse response = transcriptService.getTranscriptByProviderId(providerId);
+        // Live transcripts are polled; unchanged text is answered with 304 and no body
+        String eTag = ETags.weak(response.getProviderId(), response.getTranscriptText());
+        return ResponseEntity.ok().eTag(eTag).body(response);
     }
     
 }
\ No newline at end of file
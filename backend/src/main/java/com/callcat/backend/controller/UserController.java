@@ -19,63 +19,43 @@ public class UserController {
     
     @GetMapping("/profile")
     public ResponseEntity<?> getUserProfile(Authentication authentication) {
-        try {
-            String email = authentication.getName();
-            UserResponse response = userService.getUserProfile(email);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        String email = authentication.getName();
+        UserResponse response = userService.getUserProfile(email);
+        return ResponseEntity.ok(response);
     }
     
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(
             Authentication authentication, 
             @Valid @RequestBody UpdateProfileRequest request) {
-        try {
-            String email = authentication.getName();
-            UserResponse response = userService.updateProfile(email, request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        String email = authentication.getName();
+        UserResponse response = userService.updateProfile(email, request);
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/change-password")
     public ResponseEntity<?> changePassword(
             Authentication authentication,
             @Valid @RequestBody ChangePasswordRequest request) {
-        try {
-            String email = authentication.getName();
-            userService.changePassword(email, request.getCurrentPassword(), request.getNewPassword());
-            return ResponseEntity.ok(new ApiResponse("Password changed successfully", true));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        String email = authentication.getName();
+        userService.changePassword(email, request.getCurrentPassword(), request.getNewPassword());
+        return ResponseEntity.ok(new ApiResponse("Password changed successfully", true));
     }
     
     @GetMapping("/preferences")
     public ResponseEntity<?> getUserPreferences(Authentication authentication) {
-        try {
-            String email = authentication.getName();
-            UserPreferencesResponse response = userService.getUserPreferences(email);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        String email = authentication.getName();
+        UserPreferencesResponse response = userService.getUserPreferences(email);
+        return ResponseEntity.ok(response);
     }
     
     @PutMapping("/preferences")
     public ResponseEntity<?> updateUserPreferences(
             Authentication authentication,
             @Valid @RequestBody UpdatePreferencesRequest request) {
-        try {
-            String email = authentication.getName();
-            UserPreferencesResponse response = userService.updateUserPreferences(email, request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
-        }
+        String email = authentication.getName();
+        UserPreferencesResponse response = userService.updateUserPreferences(email, request);
+        return ResponseEntity.ok(response);
     }
     
 }
\ No newline at end of file
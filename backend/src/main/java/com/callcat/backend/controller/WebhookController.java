@@ -1,15 +1,19 @@
 package com.callcat.backend.controller;
 
+import com.callcat.backend.service.CallEventService;
 import com.callcat.backend.service.CallService;
 import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.repository.CallRecordUpdate;
 import com.callcat.backend.service.LiveTranscriptService;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/webhooks")
 public class WebhookController {
@@ -18,12 +22,13 @@ public class WebhookController {
 
     private final CallService callService;
     private final LiveTranscriptService liveTranscriptService;
-    private final ObjectMapper objectMapper;
+    private final CallEventService callEventService;
 
-    public WebhookController(CallService callService, LiveTranscriptService liveTranscriptService, ObjectMapper objectMapper) {
+    public WebhookController(CallService callService, LiveTranscriptService liveTranscriptService,
+                             CallEventService callEventService) {
         this.callService = callService;
         this.liveTranscriptService = liveTranscriptService;
-        this.objectMapper = objectMapper;
+        this.callEventService = callEventService;
     }
 
     @PostMapping("/retell")
@@ -63,6 +68,8 @@ public class WebhookController {
 
             return ResponseEntity.noContent().build();
 
+        } catch (ThrottledException e) {
+            throw e; // 503 with Retry-After, so Retell redelivers instead of the change being lost
         } catch (Exception e) {
             logger.error("Error processing Retell webhook", e);
             return ResponseEntity.noContent().build(); // Still return 204 to avoid retries
@@ -74,16 +81,25 @@ public class WebhookController {
 
         try {
             CallRecord callRecord = callService.findCallByProviderId(providerId);
-            callRecord.setDialSuccessful(true);
-            callRecord.setRetellCallData(objectMapper.writeValueAsString(callInfo));
-            
-            callService.saveCallRecord(callRecord);
+            // A late call_started must not undo a call_ended that was processed first
+            CallRecordUpdate update = CallRecordUpdate.of(callRecord)
+                    .dialSuccessful(true)
+                    .ifStatus("SCHEDULED");
+
+            Optional<CallRecord> updated = callService.updateCallRecord(update, callInfo);
+            if (updated.isEmpty()) {
+                logger.info("Skipping call_started for callId={}: call already ended", callRecord.getCallId());
+                return;
+            }
+            callEventService.publishStatus(updated.get());
             
             // Live transcript polling temporarily disabled (Retell doesn't provide transcript data until CALL_ANALYZED)
             // liveTranscriptService.startPolling(providerId);
             
             logger.info("✅ CALL STARTED: callId={} | providerId={} | dialSuccess=true", 
                        callRecord.getCallId(), providerId);
+        } catch (ThrottledException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to update call status for provider ID {}", providerId, e);
         }
@@ -95,17 +111,26 @@ public class WebhookController {
 
         try {
             CallRecord callRecord = callService.findCallByProviderId(providerId);
-            callRecord.setStatus("COMPLETED");
-            callRecord.setCompletedAt(endTimestamp);
-            callRecord.setRetellCallData(objectMapper.writeValueAsString(callInfo));
-            
-            callService.saveCallRecord(callRecord);
+            // A late call_ended must not replace the analyzed payload
+            CallRecordUpdate update = CallRecordUpdate.of(callRecord)
+                    .status("COMPLETED")
+                    .completedAt(endTimestamp)
+                    .ifNotAnalyzed();
+
+            Optional<CallRecord> updated = callService.updateCallRecord(update, callInfo);
+            if (updated.isEmpty()) {
+                logger.info("Skipping call_ended for callId={}: call already analyzed", callRecord.getCallId());
+                return;
+            }
+            callEventService.publishStatus(updated.get());
             
             // Live transcript polling temporarily disabled (Retell doesn't provide transcript data until CALL_ANALYZED)
             // liveTranscriptService.stopPolling(providerId);
             
             logger.info("🏁 CALL ENDED: callId={} | providerId={} | status=COMPLETED | endTime={}", 
                        callRecord.getCallId(), providerId, endTimestamp);
+        } catch (ThrottledException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to process call end for provider ID {}", providerId, e);
         }
@@ -116,12 +141,19 @@ public class WebhookController {
 
         try {
             CallRecord callRecord = callService.findCallByProviderId(providerId);
-            callRecord.setCallAnalyzed(true);
-            callRecord.setRetellCallData(objectMapper.writeValueAsString(callInfo));
-            
-            callService.saveCallRecord(callRecord);
+            CallRecordUpdate update = CallRecordUpdate.of(callRecord)
+                    .callAnalyzed(true);
+
+            Optional<CallRecord> updated = callService.updateCallRecord(update, callInfo);
+            if (updated.isEmpty()) {
+                logger.warn("Call {} disappeared before call_analyzed could be stored", callRecord.getCallId());
+                return;
+            }
+            callEventService.publishTranscriptReady(updated.get());
             logger.info("📊 CALL ANALYZED: callId={} | providerId={} | analyzed=true", 
                        callRecord.getCallId(), providerId);
+        } catch (ThrottledException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to process call analysis for provider ID {}", providerId, e);
         }
@@ -0,0 +1,22 @@
+package com.callcat.backend.dto;
+
+import java.util.List;
+
+public class BatchCallRequest {
+
+    private List<CallRequest> calls; // Validated row by row, so one bad call doesn't reject the batch
+
+    public BatchCallRequest() {}
+
+    public BatchCallRequest(List<CallRequest> calls) {
+        this.calls = calls;
+    }
+
+    public List<CallRequest> getCalls() {
+        return calls;
+    }
+
+    public void setCalls(List<CallRequest> calls) {
+        this.calls = calls;
+    }
+}
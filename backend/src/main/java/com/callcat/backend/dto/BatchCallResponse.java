@@ -0,0 +1,42 @@
+package com.callcat.backend.dto;
+
+import java.util.List;
+
+public class BatchCallResponse {
+
+    private int created;
+    private int failed;
+    private List<BatchCallResult> results;
+
+    public BatchCallResponse() {}
+
+    public BatchCallResponse(List<BatchCallResult> results) {
+        this.results = results;
+        this.created = (int) results.stream().filter(BatchCallResult::isSuccess).count();
+        this.failed = results.size() - created;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchCallResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchCallResult> results) {
+        this.results = results;
+    }
+}
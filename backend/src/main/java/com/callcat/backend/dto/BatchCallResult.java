@@ -0,0 +1,56 @@
+package com.callcat.backend.dto;
+
+public class BatchCallResult {
+
+    private int row; // 1-based position in the request (CSV: data row, header excluded)
+    private boolean success;
+    private String callId;
+    private Boolean scheduled; // Whether the schedule trigger was registered; null for calls without scheduledFor
+    private String error;
+
+    public BatchCallResult() {}
+
+    public BatchCallResult(int row) {
+        this.row = row;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getCallId() {
+        return callId;
+    }
+
+    public void setCallId(String callId) {
+        this.callId = callId;
+    }
+
+    public Boolean getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(Boolean scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
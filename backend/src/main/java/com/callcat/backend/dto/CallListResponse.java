@@ -1,10 +1,14 @@
 package com.callcat.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 public class CallListResponse {
     
     private List<CallResponse> calls;
+    private String nextCursor; // Pass back as ?cursor= to get the next page; null on the last page
+    private String eTag; // Sent as the ETag header, not in the body
 
     public CallListResponse() {}
 
@@ -12,6 +16,11 @@ public class CallListResponse {
         this.calls = calls;
     }
 
+    public CallListResponse(List<CallResponse> calls, String nextCursor) {
+        this.calls = calls;
+        this.nextCursor = nextCursor;
+    }
+
     public List<CallResponse> getCalls() {
         return calls;
     }
@@ -19,4 +28,21 @@ public class CallListResponse {
     public void setCalls(List<CallResponse> calls) {
         this.calls = calls;
     }
-}
\ No newline at end of file
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @JsonIgnore
+    public String getETag() {
+        return eTag;
+    }
+
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+}
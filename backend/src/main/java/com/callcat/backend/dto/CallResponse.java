@@ -18,6 +18,7 @@ public class CallResponse {
     private Long completedAt;
     private Boolean dialSuccessful;
     private Boolean callAnalyzed;
+    private Integer durationSec;
     private String retellCallData;
 
     public CallResponse() {}
@@ -136,6 +137,14 @@ public class CallResponse {
         this.completedAt = completedAt;
     }
 
+    public Integer getDurationSec() {
+        return durationSec;
+    }
+
+    public void setDurationSec(Integer durationSec) {
+        this.durationSec = durationSec;
+    }
+
     public Boolean getDialSuccessful() {
         return dialSuccessful;
     }
@@ -0,0 +1,44 @@
+package com.callcat.backend.dto;
+
+public class CallSummaryResponse {
+
+    private long scheduled;
+    private long completed;
+    private long failed;
+
+    public CallSummaryResponse() {}
+
+    public CallSummaryResponse(long scheduled, long completed, long failed) {
+        this.scheduled = scheduled;
+        this.completed = completed;
+        this.failed = failed;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(long scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getTotal() {
+        return scheduled + completed + failed;
+    }
+}
@@ -0,0 +1,45 @@
+package com.callcat.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Map;
+
+public class MultiStatusCallListResponse {
+
+    private List<CallResponse> calls;
+    private Map<String, String> nextCursors; // Status -> cursor for that status' next page; null once a status is exhausted
+    private String eTag; // Sent as the ETag header, not in the body
+
+    public MultiStatusCallListResponse() {}
+
+    public MultiStatusCallListResponse(List<CallResponse> calls, Map<String, String> nextCursors) {
+        this.calls = calls;
+        this.nextCursors = nextCursors;
+    }
+
+    public List<CallResponse> getCalls() {
+        return calls;
+    }
+
+    public void setCalls(List<CallResponse> calls) {
+        this.calls = calls;
+    }
+
+    public Map<String, String> getNextCursors() {
+        return nextCursors;
+    }
+
+    public void setNextCursors(Map<String, String> nextCursors) {
+        this.nextCursors = nextCursors;
+    }
+
+    @JsonIgnore
+    public String getETag() {
+        return eTag;
+    }
+
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+}
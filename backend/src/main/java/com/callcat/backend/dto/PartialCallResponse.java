@@ -0,0 +1,13 @@
+package com.callcat.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A call with only the fields the client asked for (?fields=...). Fields that were not
+ * selected, or are empty, are left out of the JSON instead of being sent as null.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PartialCallResponse extends CallResponse {
+
+    public PartialCallResponse() {}
+}
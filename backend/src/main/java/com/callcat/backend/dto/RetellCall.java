@@ -0,0 +1,10 @@
+package com.callcat.backend.dto;
+
+/**
+ * A call object returned by the Retell API: the fields the backend reads from it, next to the
+ * response body exactly as received (UTF-8 JSON), which is what gets stored.
+ *
+ * @param durationMs null until the call has ended
+ */
+public record RetellCall(String callId, Long durationMs, byte[] json) {
+}
@@ -3,26 +3,39 @@ package com.callcat.backend.entity;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+
+import java.time.LocalDate;
 
 @DynamoDbBean
 public class BlacklistedToken {
-    private String token;
-    private Long expiresAt; // TTL attribute - DynamoDB will auto-delete when this timestamp is reached
+    private String tokenId; // jti claim of the revoked token (the full JWT for tokens issued without one)
+    private Long expiresAt; // TTL attribute - the revoked token's own expiry, DynamoDB auto-deletes the entry then
+    private Long revokedAt; // Epoch seconds - lets other instances pick up new revocations incrementally
 
     public BlacklistedToken() {}
 
-    public BlacklistedToken(String token, Long expiresAt) {
-        this.token = token;
+    public BlacklistedToken(String tokenId, Long expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public BlacklistedToken(String tokenId, Long expiresAt, Long revokedAt) {
+        this.tokenId = tokenId;
         this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
     }
 
+    // Attribute keeps its original name - it is the table's partition key
     @DynamoDbPartitionKey
-    public String getToken() {
-        return token;
+    @DynamoDbAttribute("token")
+    public String getTokenId() {
+        return tokenId;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
     }
 
     @DynamoDbAttribute("expiresAt")
@@ -33,4 +46,31 @@ public class BlacklistedToken {
     public void setExpiresAt(Long expiresAt) {
         this.expiresAt = expiresAt;
     }
-}
\ No newline at end of file
+
+    @DynamoDbAttribute("revokedAt")
+    @DynamoDbSecondarySortKey(indexNames = "byRevokedDay")
+    public Long getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Long revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    /**
+     * UTC day of the revocation (yyyy-MM-dd), the byRevokedDay partition key. Bucketing by day
+     * lets other instances Query just the revocations made since their last refresh.
+     */
+    @DynamoDbSecondaryPartitionKey(indexNames = "byRevokedDay")
+    public String getRevokedDay() {
+        return revokedAt != null ? revokedDay(revokedAt) : null;
+    }
+
+    public void setRevokedDay(String revokedDay) {
+        // No-op setter required by DynamoDB Enhanced Client
+    }
+
+    public static String revokedDay(long epochSeconds) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochSeconds, 86_400L)).toString();
+    }
+}
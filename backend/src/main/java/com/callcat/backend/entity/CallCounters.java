@@ -0,0 +1,64 @@
+package com.callcat.backend.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+/**
+ * Number of calls per status for one user (id = the user's email), or one part of the
+ * global counts (id = GLOBAL for the seeded base, GLOBAL#n for a shard).
+ * Kept up to date by CallRecordRepository with atomic ADDs on every status change, so the
+ * dashboard summary is a single GetItem however many calls the user has.
+ */
+@DynamoDbBean
+public class CallCounters {
+    private String id;
+    private Long scheduled;
+    private Long completed;
+    private Long failed;
+
+    // Set once the counts have been initialised from the user's existing calls
+    private Boolean seeded;
+
+    public CallCounters() {}
+
+    @DynamoDbPartitionKey
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(Long scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public Long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Long completed) {
+        this.completed = completed;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Long failed) {
+        this.failed = failed;
+    }
+
+    public Boolean getSeeded() {
+        return seeded;
+    }
+
+    public void setSeeded(Boolean seeded) {
+        this.seeded = seeded;
+    }
+}
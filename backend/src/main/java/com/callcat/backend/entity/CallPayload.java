@@ -0,0 +1,51 @@
+package com.callcat.backend.entity;
+
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+/**
+ * Raw Retell call JSON for a call, kept out of CallRecord so call items stay small.
+ * Stored deflate-compressed (see CompressionUtils) and only read for the call detail view.
+ */
+@DynamoDbBean
+public class CallPayload {
+    private String callId; // Our internal call ID (partition key)
+    private byte[] data;   // Deflate-compressed UTF-8 JSON
+    private Integer rawSize; // Uncompressed size in bytes, for monitoring
+    private Long updatedAt;
+
+    public CallPayload() {}
+
+    @DynamoDbPartitionKey
+    public String getCallId() {
+        return callId;
+    }
+
+    public void setCallId(String callId) {
+        this.callId = callId;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    public Integer getRawSize() {
+        return rawSize;
+    }
+
+    public void setRawSize(Integer rawSize) {
+        this.rawSize = rawSize;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
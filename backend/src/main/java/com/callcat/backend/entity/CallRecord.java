@@ -31,10 +31,16 @@ public class CallRecord {
     // Post-call fields
     private Long completedAt;
     private Boolean callAnalyzed;
+    private Integer durationSec; // Taken from the Retell payload so list views don't need it
 
-    // Retell-specific data storage (as JSON string for DynamoDB compatibility)
+    // Retell-specific data storage (as JSON string for DynamoDB compatibility).
+    // Only set on items written before payloads moved to the callcat-call-payloads table.
     private String retellCallData;
 
+    // Incremented by every write in CallRecordRepository (save, saveAll, update, replace), for
+    // optimistic concurrency checks. Null on items stored before versioning and not written since.
+    private Long version;
+
     public CallRecord() {}
 
     @DynamoDbPartitionKey
@@ -189,6 +195,14 @@ public class CallRecord {
         this.completedAt = completedAt;
     }
 
+    public Integer getDurationSec() {
+        return durationSec;
+    }
+
+    public void setDurationSec(Integer durationSec) {
+        this.durationSec = durationSec;
+    }
+
     public String getRetellCallData() {
         return retellCallData;
     }
@@ -197,6 +211,14 @@ public class CallRecord {
         this.retellCallData = retellCallData;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Single elegant GSI partition key for status-based queries
     @DynamoDbSecondaryPartitionKey(indexNames = "byUserStatus")
     public String getUserStatus() {
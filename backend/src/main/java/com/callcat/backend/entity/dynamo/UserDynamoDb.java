@@ -18,6 +18,7 @@ public class UserDynamoDb {
     private Long resetTokenExpires;
     private String createdAt;
     private String updatedAt;
+    private Long tokenVersion; // Bumped to invalidate every token issued before (password change, deactivation)
     
     public UserDynamoDb() {}
     
@@ -103,6 +104,14 @@ public class UserDynamoDb {
         this.updatedAt = updatedAt;
     }
     
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
     public String getFullName() {
         return firstName + " " + lastName;
     }
@@ -1,11 +1,19 @@
 package com.callcat.backend.exception;
 
 import com.callcat.backend.dto.ApiResponse;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+/**
+ * Turns exceptions thrown by controllers into responses, so controllers don't catch them
+ * themselves. The most specific handler wins: a ThrottledException is answered with its own
+ * status and Retry-After, any other failure of a request with 400 and its message.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -14,4 +22,19 @@ public class GlobalExceptionHandler {
         String message = e.getBindingResult().getAllErrors().get(0).getDefaultMessage();
         return ResponseEntity.badRequest().body(new ApiResponse(message, false));
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<ApiResponse> handleThrottledException(ThrottledException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ApiResponse(e.getMessage(), false));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ApiResponse> handleRuntimeException(RuntimeException e) {
+        if (e instanceof ErrorResponse || e instanceof NestedRuntimeException) {
+            throw e; // Spring MVC's own exceptions (unreadable body, upload too large, ...) keep their status
+        }
+        return ResponseEntity.badRequest().body(new ApiResponse(e.getMessage(), false));
+    }
+}
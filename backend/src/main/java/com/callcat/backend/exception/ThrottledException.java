@@ -0,0 +1,28 @@
+package com.callcat.backend.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is turned away because a bounded resource is saturated or a client
+ * exceeded its rate. Handled by {@link GlobalExceptionHandler}, which answers with the given
+ * status (429 or 503) and a Retry-After header instead of the usual 400.
+ */
+public class ThrottledException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public ThrottledException(String message, HttpStatus status, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
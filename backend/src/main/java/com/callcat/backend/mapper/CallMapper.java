@@ -0,0 +1,146 @@
+package com.callcat.backend.mapper;
+
+import com.callcat.backend.dto.CallRequest;
+import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.dto.UpdateCallRequest;
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.repository.CallRecordUpdate;
+
+/**
+ * Conversions between CallRecord and the call DTOs, written out field by field.
+ *
+ * These run for every call in every list response, so they avoid BeanUtils, which
+ * introspects both classes and invokes accessors reflectively on each copy (see
+ * CallMappingBenchmark). When adding a field to CallRecord or a call DTO, add it here as well.
+ */
+public final class CallMapper {
+
+    private CallMapper() {}
+
+    public static CallResponse toResponse(CallRecord callRecord) {
+        return toResponse(callRecord, new CallResponse());
+    }
+
+    /**
+     * Fills the given response (e.g. a PartialCallResponse) from the record.
+     */
+    public static <T extends CallResponse> T toResponse(CallRecord callRecord, T response) {
+        response.setCallId(callRecord.getCallId());
+        response.setCalleeName(callRecord.getCalleeName());
+        response.setPhoneNumber(callRecord.getPhoneNumber());
+        response.setCallerNumber(callRecord.getCallerNumber());
+        response.setSubject(callRecord.getSubject());
+        response.setPrompt(callRecord.getPrompt());
+        response.setStatus(callRecord.getStatus());
+        response.setScheduledFor(callRecord.getScheduledFor());
+        response.setProviderId(callRecord.getProviderId());
+        response.setAiLanguage(callRecord.getAiLanguage());
+        response.setVoiceId(callRecord.getVoiceId());
+        response.setCreatedAt(callRecord.getCreatedAt());
+        response.setUpdatedAt(callRecord.getUpdatedAt());
+        response.setCompletedAt(callRecord.getCompletedAt());
+        response.setDialSuccessful(callRecord.getDialSuccessful());
+        response.setCallAnalyzed(callRecord.getCallAnalyzed());
+        response.setDurationSec(callRecord.getDurationSec());
+        response.setRetellCallData(callRecord.getRetellCallData());
+        return response;
+    }
+
+    /**
+     * A copy of the record, for handing to code that changes it while the original is still read.
+     */
+    public static CallRecord copy(CallRecord callRecord) {
+        CallRecord copy = new CallRecord();
+        copy.setUserId(callRecord.getUserId());
+        copy.setCallId(callRecord.getCallId());
+        copy.setCalleeName(callRecord.getCalleeName());
+        copy.setPhoneNumber(callRecord.getPhoneNumber());
+        copy.setCallerNumber(callRecord.getCallerNumber());
+        copy.setSubject(callRecord.getSubject());
+        copy.setPrompt(callRecord.getPrompt());
+        copy.setStatus(callRecord.getStatus());
+        copy.setScheduledFor(callRecord.getScheduledFor()); // before the sort key, which it resets
+        copy.setSk(callRecord.getSk());
+        copy.setAiLanguage(callRecord.getAiLanguage());
+        copy.setVoiceId(callRecord.getVoiceId());
+        copy.setCreatedAt(callRecord.getCreatedAt());
+        copy.setUpdatedAt(callRecord.getUpdatedAt());
+        copy.setProviderId(callRecord.getProviderId());
+        copy.setDialSuccessful(callRecord.getDialSuccessful());
+        copy.setCompletedAt(callRecord.getCompletedAt());
+        copy.setCallAnalyzed(callRecord.getCallAnalyzed());
+        copy.setDurationSec(callRecord.getDurationSec());
+        copy.setRetellCallData(callRecord.getRetellCallData());
+        copy.setVersion(callRecord.getVersion());
+        return copy;
+    }
+
+    /**
+     * A new, unsaved record with the request's fields; IDs, status and timestamps are left to the caller.
+     */
+    public static CallRecord toRecord(CallRequest request) {
+        CallRecord callRecord = new CallRecord();
+        callRecord.setCalleeName(request.getCalleeName());
+        callRecord.setPhoneNumber(request.getPhoneNumber());
+        callRecord.setSubject(request.getSubject());
+        callRecord.setPrompt(request.getPrompt());
+        callRecord.setScheduledFor(request.getScheduledFor());
+        callRecord.setAiLanguage(request.getAiLanguage());
+        callRecord.setVoiceId(request.getVoiceId());
+        return callRecord;
+    }
+
+    /**
+     * Applies the fields present (non-null) in the update to the record.
+     */
+    public static void applyUpdate(UpdateCallRequest request, CallRecord callRecord) {
+        if (request.getCalleeName() != null) {
+            callRecord.setCalleeName(request.getCalleeName());
+        }
+        if (request.getPhoneNumber() != null) {
+            callRecord.setPhoneNumber(request.getPhoneNumber());
+        }
+        if (request.getSubject() != null) {
+            callRecord.setSubject(request.getSubject());
+        }
+        if (request.getPrompt() != null) {
+            callRecord.setPrompt(request.getPrompt());
+        }
+        if (request.getScheduledFor() != null) {
+            callRecord.setScheduledFor(request.getScheduledFor());
+        }
+        if (request.getAiLanguage() != null) {
+            callRecord.setAiLanguage(request.getAiLanguage());
+        }
+        if (request.getVoiceId() != null) {
+            callRecord.setVoiceId(request.getVoiceId());
+        }
+    }
+
+    /**
+     * An update of the stored record that writes only the fields present (non-null) in the request.
+     * scheduledFor is left out: it is part of the sort key, see CallRecordRepository.replace.
+     */
+    public static CallRecordUpdate toUpdate(UpdateCallRequest request, CallRecord callRecord) {
+        CallRecordUpdate update = CallRecordUpdate.of(callRecord);
+        if (request.getCalleeName() != null) {
+            update.calleeName(request.getCalleeName());
+        }
+        if (request.getPhoneNumber() != null) {
+            update.phoneNumber(request.getPhoneNumber());
+        }
+        if (request.getSubject() != null) {
+            update.subject(request.getSubject());
+        }
+        if (request.getPrompt() != null) {
+            update.prompt(request.getPrompt());
+        }
+        if (request.getAiLanguage() != null) {
+            update.aiLanguage(request.getAiLanguage());
+        }
+        if (request.getVoiceId() != null) {
+            update.voiceId(request.getVoiceId());
+        }
+        return update;
+    }
+}
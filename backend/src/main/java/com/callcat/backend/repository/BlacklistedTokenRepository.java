@@ -3,27 +3,88 @@ package com.callcat.backend.repository;
 import com.callcat.backend.entity.BlacklistedToken;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Repository
 public class BlacklistedTokenRepository {
 
+    private static final long SECONDS_PER_DAY = 86_400L;
+
     private final DynamoDbTable<BlacklistedToken> table;
+    private final DynamoDbIndex<BlacklistedToken> byRevokedDayIndex;
 
     public BlacklistedTokenRepository(DynamoDbEnhancedClient dynamoDb) {
         this.table = dynamoDb.table("callcat-blacklist", TableSchema.fromBean(BlacklistedToken.class));
+        this.byRevokedDayIndex = table.index("byRevokedDay");
     }
 
     public void save(BlacklistedToken token) {
         table.putItem(token);
     }
 
-    public boolean exists(String token) {
+    public boolean exists(String tokenId) {
         BlacklistedToken result = table.getItem(Key.builder()
-                .partitionValue(token)
+                .partitionValue(tokenId)
                 .build());
         return result != null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Periodic full reload: scans the whole table for revocations that have not expired yet.
+     * The filter does not reduce what the scan reads, so this costs the size of the table;
+     * TTL keeps the table down to live revocations. Use {@link #findRevokedSince} for
+     * frequent refreshes.
+     */
+    public List<BlacklistedToken> scanAllActiveRevocations(long nowEpochSeconds) {
+        ScanEnhancedRequest scanRequest = ScanEnhancedRequest.builder()
+                .filterExpression(notExpired(nowEpochSeconds))
+                .build();
+
+        return table.scan(scanRequest)
+                .items()
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Revocations made at or after the given time that have not expired yet. Queries the
+     * byRevokedDay index, one day bucket per UTC day in the range (usually just today),
+     * starting at revokedSince, so only the new entries are read.
+     */
+    public List<BlacklistedToken> findRevokedSince(long revokedSince, long nowEpochSeconds) {
+        List<BlacklistedToken> revoked = new ArrayList<>();
+        long lastDay = Math.floorDiv(nowEpochSeconds, SECONDS_PER_DAY);
+        for (long day = Math.floorDiv(revokedSince, SECONDS_PER_DAY); day <= lastDay; day++) {
+            QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                    .queryConditional(QueryConditional.sortGreaterThanOrEqualTo(Key.builder()
+                            .partitionValue(BlacklistedToken.revokedDay(day * SECONDS_PER_DAY))
+                            .sortValue(revokedSince)
+                            .build()))
+                    .filterExpression(notExpired(nowEpochSeconds))
+                    .build();
+
+            byRevokedDayIndex.query(request).forEach(page -> revoked.addAll(page.items()));
+        }
+        return revoked;
+    }
+
+    private static Expression notExpired(long nowEpochSeconds) {
+        return Expression.builder()
+                .expression("#expiresAt > :now")
+                .putExpressionName("#expiresAt", "expiresAt")
+                .putExpressionValue(":now", AttributeValue.builder().n(String.valueOf(nowEpochSeconds)).build())
+                .build();
+    }
+}
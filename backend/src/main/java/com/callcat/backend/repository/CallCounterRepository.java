@@ -0,0 +1,229 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-user and global call counts by status. Counts are changed with UpdateItem ADD, which is
+ * atomic, so concurrent webhooks and schedulers never lose each other's increments.
+ *
+ * Every call write touches the global counts, so they are spread over GLOBAL_SHARDS items
+ * (GLOBAL#0..GLOBAL#n-1) picked at random per write instead of one hot key, plus a GLOBAL
+ * base item written once by the seed. Reading them sums all of those items.
+ */
+@Repository
+public class CallCounterRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallCounterRepository.class);
+
+    private static final String TABLE_NAME = "callcat-call-counters";
+    private static final TableSchema<CallCounters> SCHEMA = TableSchema.fromBean(CallCounters.class);
+
+    public static final String GLOBAL_ID = "GLOBAL"; // User IDs are emails, so this cannot clash
+    static final int GLOBAL_SHARDS = 16;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbTable<CallCounters> table;
+
+    public CallCounterRepository(DynamoDbEnhancedClient dynamoDb, DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.table = dynamoDb.table(TABLE_NAME, SCHEMA);
+    }
+
+    public Optional<CallCounters> findById(String id) {
+        return Optional.ofNullable(table.getItem(Key.builder().partitionValue(id).build()));
+    }
+
+    /**
+     * Like findById, but with a strongly consistent read, so it sees every increment made
+     * before it. Used to read the counts a seed is conditioned on.
+     */
+    public Optional<CallCounters> findLatestById(String id) {
+        return Optional.ofNullable(table.getItem(GetItemEnhancedRequest.builder()
+                .key(Key.builder().partitionValue(id).build())
+                .consistentRead(true)
+                .build()));
+    }
+
+    /**
+     * Moves one call of the user from one status to another. Either side may be null, for a
+     * call that was just created or deleted.
+     */
+    public void recordTransition(String userId, String fromStatus, String toStatus) {
+        if (userId == null || (fromStatus == null ? toStatus == null : fromStatus.equals(toStatus))) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        if (fromStatus != null) {
+            deltas.merge(fromStatus, -1L, Long::sum);
+        }
+        if (toStatus != null) {
+            deltas.merge(toStatus, 1L, Long::sum);
+        }
+        add(userId, deltas);
+    }
+
+    /**
+     * Global counts: the GLOBAL base item plus every shard, read in one BatchGetItem. seeded is
+     * taken from the base item; the result is null-free (missing counts are 0).
+     */
+    public CallCounters findGlobal() {
+        List<Map<String, AttributeValue>> keys = new ArrayList<>(GLOBAL_SHARDS + 1);
+        keys.add(keyOf(GLOBAL_ID));
+        for (int shard = 0; shard < GLOBAL_SHARDS; shard++) {
+            keys.add(keyOf(globalShardId(shard)));
+        }
+
+        CallCounters total = new CallCounters();
+        total.setId(GLOBAL_ID);
+        total.setScheduled(0L);
+        total.setCompleted(0L);
+        total.setFailed(0L);
+        Map<String, KeysAndAttributes> request = Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(keys).build());
+        while (!request.isEmpty()) {
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(request)
+                    .build());
+            for (Map<String, AttributeValue> item : response.responses().getOrDefault(TABLE_NAME, List.of())) {
+                CallCounters counters = SCHEMA.mapToItem(item);
+                total.setScheduled(total.getScheduled() + valueOf(counters.getScheduled()));
+                total.setCompleted(total.getCompleted() + valueOf(counters.getCompleted()));
+                total.setFailed(total.getFailed() + valueOf(counters.getFailed()));
+                if (GLOBAL_ID.equals(counters.getId())) {
+                    total.setSeeded(counters.getSeeded());
+                }
+            }
+            request = response.hasUnprocessedKeys() ? response.unprocessedKeys() : Map.of();
+        }
+        return total;
+    }
+
+    /**
+     * Adds the given number of calls per status (negative to subtract) to the user's counts
+     * and to one randomly picked global shard.
+     *
+     * Counting is best effort: a failed counter write is logged and does not fail the call
+     * write that caused it, since the call itself is already stored.
+     */
+    public void add(String userId, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> adds = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        deltas.forEach((status, delta) -> {
+            String attribute = attributeOf(status);
+            names.put("#" + attribute, attribute);
+            values.put(":" + attribute, AttributeValue.builder().n(delta.toString()).build());
+            adds.add("#" + attribute + " :" + attribute);
+        });
+        String updateExpression = "ADD " + String.join(", ", adds);
+
+        String globalShardId = globalShardId(ThreadLocalRandom.current().nextInt(GLOBAL_SHARDS));
+        for (String id : List.of(userId, globalShardId)) {
+            try {
+                dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(TABLE_NAME)
+                        .key(keyOf(id))
+                        .updateExpression(updateExpression)
+                        .expressionAttributeNames(names)
+                        .expressionAttributeValues(values)
+                        .build());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to update call counters {} by {}: {}", id, deltas, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sets the counts from a full count of the user's calls, unless that has already been done.
+     * The count must have been taken after {@code before} was read with findLatestById (null if
+     * there was no item): increments recorded before that read are included in the count and
+     * are overwritten, while any recorded since may have been missed by the count, so then
+     * nothing is written.
+     *
+     * @return the counters after seeding, or empty if they were seeded or changed since
+     *         {@code before} was read (read them again, and count again if still unseeded)
+     */
+    public Optional<CallCounters> seed(String id, CallCounters before, long scheduled, long completed, long failed) {
+        Map<String, String> names = new HashMap<>(Map.of(
+                "#scheduled", "scheduled",
+                "#completed", "completed",
+                "#failed", "failed",
+                "#seeded", "seeded"));
+        Map<String, AttributeValue> values = new HashMap<>(Map.of(
+                ":scheduled", AttributeValue.builder().n(Long.toString(scheduled)).build(),
+                ":completed", AttributeValue.builder().n(Long.toString(completed)).build(),
+                ":failed", AttributeValue.builder().n(Long.toString(failed)).build(),
+                ":seeded", AttributeValue.builder().bool(true).build()));
+        List<String> conditions = new ArrayList<>(List.of("attribute_not_exists(#seeded)"));
+        unchanged(conditions, values, "scheduled", before != null ? before.getScheduled() : null);
+        unchanged(conditions, values, "completed", before != null ? before.getCompleted() : null);
+        unchanged(conditions, values, "failed", before != null ? before.getFailed() : null);
+
+        try {
+            Map<String, AttributeValue> item = dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .key(keyOf(id))
+                    .updateExpression("SET #scheduled = :scheduled, #completed = :completed, #failed = :failed, #seeded = :seeded")
+                    .conditionExpression(String.join(" AND ", conditions))
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .returnValues(ReturnValue.ALL_NEW)
+                    .build()).attributes();
+            return Optional.of(SCHEMA.mapToItem(item));
+        } catch (ConditionalCheckFailedException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void unchanged(List<String> conditions, Map<String, AttributeValue> values, String attribute, Long value) {
+        if (value == null) {
+            conditions.add("attribute_not_exists(#" + attribute + ")");
+        } else {
+            values.put(":before_" + attribute, AttributeValue.builder().n(value.toString()).build());
+            conditions.add("#" + attribute + " = :before_" + attribute);
+        }
+    }
+
+    private static String globalShardId(int shard) {
+        return GLOBAL_ID + "#" + shard;
+    }
+
+    private static long valueOf(Long count) {
+        return count != null ? count : 0;
+    }
+
+    private static Map<String, AttributeValue> keyOf(String id) {
+        return Map.of("id", AttributeValue.builder().s(id).build());
+    }
+
+    private static String attributeOf(String status) {
+        return status.toLowerCase(Locale.ROOT); // SCHEDULED -> scheduled
+    }
+}
@@ -0,0 +1,64 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Remembers the base-table key (userId, sk) of recently written or read calls by callId, so
+ * CallRecordRepository can read them with a strongly consistent GetItem instead of querying the
+ * eventually consistent byCallId index.
+ *
+ * A callId's key only changes when the call is rescheduled, so entries may live long. An entry
+ * made stale by another instance is harmless: the GetItem finds nothing, the entry is dropped and
+ * the lookup falls back to the index.
+ */
+@Component
+public class CallKeyResolver {
+
+    private static final int MAX_CACHED_KEYS = 10000;
+
+    private final BoundedTtlCache<String, CallKey> cache = new BoundedTtlCache<>(MAX_CACHED_KEYS);
+
+    // 0 disables caching
+    @Value("${callcat.cache.call-keys.ttl-seconds:3600}")
+    private long cacheTtlSeconds = 3600;
+
+    public CallKeyResolver(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("callcat.cache.hits", cache, BoundedTtlCache::hitCount)
+                .tag("cache", "call-keys")
+                .register(meterRegistry);
+        FunctionCounter.builder("callcat.cache.misses", cache, BoundedTtlCache::missCount)
+                .tag("cache", "call-keys")
+                .register(meterRegistry);
+    }
+
+    public Optional<CallKey> resolve(String callId) {
+        return Optional.ofNullable(cache.get(callId));
+    }
+
+    /**
+     * Records where the call is stored. Records without a complete key are ignored.
+     */
+    public void remember(CallRecord callRecord) {
+        String callId = callRecord.getCallId();
+        String userId = callRecord.getUserId();
+        String sk = callRecord.getSk();
+        if (callId == null || userId == null || sk == null) {
+            return;
+        }
+        cache.put(callId, new CallKey(userId, sk), Duration.ofSeconds(cacheTtlSeconds));
+    }
+
+    public void forget(String callId) {
+        cache.invalidate(callId);
+    }
+
+    public record CallKey(String userId, String sk) {}
+}
@@ -0,0 +1,64 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallPayload;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+import java.util.Optional;
+
+@Repository
+public class CallPayloadRepository {
+
+    private final DynamoDbTable<CallPayload> table;
+
+    public CallPayloadRepository(DynamoDbEnhancedClient dynamoDb) {
+        this.table = dynamoDb.table("callcat-call-payloads", TableSchema.fromBean(CallPayload.class));
+    }
+
+    public CallPayload save(CallPayload payload) {
+        table.putItem(payload);
+        return payload;
+    }
+
+    /**
+     * Both reads of a payload are strongly consistent: GetCall's ETag is built from
+     * {@link #findUpdatedAtByCallId} and its body from this, and a stale body stored under a
+     * fresh tag would be served from the client's cache until the call next changed.
+     */
+    public Optional<CallPayload> findByCallId(String callId) {
+        CallPayload result = table.getItem(GetItemEnhancedRequest.builder()
+                .key(Key.builder().partitionValue(callId).build())
+                .consistentRead(true)
+                .build());
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * When the call's payload was last written, without reading the payload itself.
+     */
+    public Optional<Long> findUpdatedAtByCallId(String callId) {
+        // GetItem cannot project in the enhanced client; a key-equality Query reads the same single item
+        return table.query(QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(callId).build()))
+                        .attributesToProject("callId", "updatedAt")
+                        .consistentRead(true)
+                        .limit(1)
+                        .build())
+                .items()
+                .stream()
+                .findFirst()
+                .map(CallPayload::getUpdatedAt);
+    }
+
+    public void deleteByCallId(String callId) {
+        table.deleteItem(Key.builder()
+                .partitionValue(callId)
+                .build());
+    }
+}
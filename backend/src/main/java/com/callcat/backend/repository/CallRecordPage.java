@@ -0,0 +1,28 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallRecord;
+
+import java.util.List;
+
+/**
+ * One page of call records plus the opaque cursor for the next page
+ * (null when there are no more results).
+ */
+public class CallRecordPage {
+
+    private final List<CallRecord> items;
+    private final String nextCursor;
+
+    public CallRecordPage(List<CallRecord> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CallRecord> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,113 +1,452 @@
 package com.callcat.backend.repository;
 
 import com.callcat.backend.entity.CallRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactDeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactPutItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Repository
 public class CallRecordRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(CallRecordRepository.class);
+
+    private static final String TABLE_NAME = "callcat-calls";
+    static final TableSchema<CallRecord> SCHEMA = TableSchema.fromBean(CallRecord.class);
+
+    private static final Set<String> USER_STATUSES = Set.of("SCHEDULED", "COMPLETED", "FAILED");
+
+    // LastEvaluatedKey of a byUserStatus query: index keys plus the table keys
+    private static final Set<String> CURSOR_ATTRIBUTES = Set.of("userStatus", "userStatusSk", "userId", "sk");
+
+    // Always read on projected queries so records keep their identity and sort order
+    private static final List<String> KEY_ATTRIBUTES = List.of("userId", "sk", "callId");
+
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
+    // BatchWriteItem accepts at most 25 requests per call
+    private static final int BATCH_WRITE_SIZE = 25;
+    private static final int BATCH_WRITE_MAX_ATTEMPTS = 5;
+    private static final long BATCH_WRITE_BASE_BACKOFF_MS = 50;
+
+    private final DynamoDbEnhancedClient dynamoDb;
+    private final DynamoDbClient dynamoDbClient;
+    private final CallCounterRepository callCounterRepository;
+    private final CallKeyResolver callKeyResolver;
     private final DynamoDbTable<CallRecord> table;
     private final DynamoDbIndex<CallRecord> byCallIdIndex;
     private final DynamoDbIndex<CallRecord> byProviderIndex;
     private final DynamoDbIndex<CallRecord> byUserStatusIndex;
 
-    public CallRecordRepository(DynamoDbEnhancedClient dynamoDb) {
-        this.table = dynamoDb.table("callcat-calls", TableSchema.fromBean(CallRecord.class));
+    public CallRecordRepository(DynamoDbEnhancedClient dynamoDb, DynamoDbClient dynamoDbClient,
+                                CallCounterRepository callCounterRepository, CallKeyResolver callKeyResolver) {
+        this.dynamoDb = dynamoDb;
+        this.dynamoDbClient = dynamoDbClient;
+        this.callCounterRepository = callCounterRepository;
+        this.callKeyResolver = callKeyResolver;
+        this.table = dynamoDb.table(TABLE_NAME, SCHEMA);
         this.byCallIdIndex = table.index("byCallId");
         this.byProviderIndex = table.index("byProvider");
         this.byUserStatusIndex = table.index("byUserStatus");
     }
 
+    /**
+     * Writes the whole record and increments its version, as every write does. Like every write
+     * here, it also moves the call between the status counters (see CallCounterRepository) if
+     * its status changed.
+     */
     public CallRecord save(CallRecord callRecord) {
-        table.putItem(callRecord);
+        callRecord.setVersion(callRecord.getVersion() == null ? 1L : callRecord.getVersion() + 1);
+        Map<String, AttributeValue> previous = dynamoDbClient.putItem(PutItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .item(SCHEMA.itemToMap(callRecord, true))
+                .returnValues(ReturnValue.ALL_OLD)
+                .build()).attributes();
+        callCounterRepository.recordTransition(callRecord.getUserId(), statusOf(previous), callRecord.getStatus());
+        callKeyResolver.remember(callRecord);
         return callRecord;
     }
 
+    /**
+     * Applies the update with a single UpdateItem request, sending only the changed attributes
+     * and reading back only the ones it replaced.
+     *
+     * @return the call after the update (see CallRecordUpdate for the attributes it leaves), or empty if the item no longer exists or one
+     *         of the update's conditions did not hold (nothing is written then)
+     */
+    public Optional<CallRecord> update(CallRecordUpdate update) {
+        Map<String, AttributeValue> previous;
+        try {
+            previous = dynamoDbClient.updateItem(update.toRequest(TABLE_NAME)).attributes();
+        } catch (ConditionalCheckFailedException e) {
+            return Optional.empty();
+        }
+        Map<String, AttributeValue> item = update.applyTo(previous);
+        if (update.changesStatus()) {
+            callCounterRepository.recordTransition(update.getUserId(), statusOf(previous), statusOf(item));
+        }
+        CallRecord updated = SCHEMA.mapToItem(item);
+        callKeyResolver.remember(updated);
+        return Optional.of(updated);
+    }
+
+    /**
+     * Moves a call whose scheduledFor changed to its new sort key: the item under the previous
+     * key is deleted and the record written under the new one in a single transaction, provided
+     * the stored version still matches.
+     *
+     * @return false if the call was changed or deleted since it was read at expectedVersion
+     */
+    public boolean replace(String previousSk, CallRecord callRecord, Long expectedVersion) {
+        Expression unchanged = expectedVersion == null
+                ? Expression.builder()
+                        .expression("attribute_exists(#userId) AND attribute_not_exists(#version)")
+                        .putExpressionName("#userId", "userId")
+                        .putExpressionName("#version", "version")
+                        .build()
+                : Expression.builder()
+                        .expression("#version = :version")
+                        .putExpressionName("#version", "version")
+                        .putExpressionValue(":version", AttributeValue.builder().n(expectedVersion.toString()).build())
+                        .build();
+        Expression absent = Expression.builder()
+                .expression("attribute_not_exists(#userId)")
+                .putExpressionName("#userId", "userId")
+                .build();
+
+        callRecord.setVersion(expectedVersion == null ? 1L : expectedVersion + 1);
+        try {
+            dynamoDb.transactWriteItems(r -> r
+                    .addDeleteItem(table, TransactDeleteItemEnhancedRequest.builder()
+                            .key(Key.builder().partitionValue(callRecord.getUserId()).sortValue(previousSk).build())
+                            .conditionExpression(unchanged)
+                            .build())
+                    .addPutItem(table, TransactPutItemEnhancedRequest.builder(CallRecord.class)
+                            .item(callRecord)
+                            .conditionExpression(absent)
+                            .build()));
+            callKeyResolver.remember(callRecord);
+            return true;
+        } catch (TransactionCanceledException e) {
+            callRecord.setVersion(expectedVersion);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the records with BatchWriteItem, 25 at a time, incrementing each one's version as
+     * save does. Items DynamoDB reports as unprocessed (throttling, partition limits) are
+     * retried with exponential backoff. A chunk whose request fails outright (the SDK gave up
+     * retrying) is counted as not written and the remaining chunks are still attempted, so the
+     * records that did get written are always counted and returned to the caller as saved.
+     *
+     * @return the records that still were not written after all retries
+     */
+    public List<CallRecord> saveAll(List<CallRecord> callRecords) {
+        callRecords.forEach(callRecord ->
+                callRecord.setVersion(callRecord.getVersion() == null ? 1L : callRecord.getVersion() + 1));
+        List<CallRecord> failed = new ArrayList<>();
+        for (int start = 0; start < callRecords.size(); start += BATCH_WRITE_SIZE) {
+            List<CallRecord> pending = callRecords.subList(start, Math.min(start + BATCH_WRITE_SIZE, callRecords.size()));
+
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                if (attempt > BATCH_WRITE_MAX_ATTEMPTS) {
+                    failed.addAll(pending);
+                    break;
+                }
+                if (attempt > 1) {
+                    backoff(attempt);
+                }
+
+                WriteBatch.Builder<CallRecord> batch = WriteBatch.builder(CallRecord.class).mappedTableResource(table);
+                pending.forEach(batch::addPutItem);
+                try {
+                    BatchWriteResult result = dynamoDb.batchWriteItem(r -> r.addWriteBatch(batch.build()));
+                    pending = result.unprocessedPutItemsForTable(table);
+                } catch (SdkException e) {
+                    logger.warn("Batch write of {} calls failed: {}", pending.size(), e.getMessage());
+                    failed.addAll(pending);
+                    break;
+                }
+            }
+        }
+
+        // New calls only, so every written record adds one to its status
+        Set<String> failedCallIds = failed.stream().map(CallRecord::getCallId).collect(Collectors.toSet());
+        Map<String, Map<String, Long>> written = new HashMap<>();
+        callRecords.stream()
+                .filter(callRecord -> !failedCallIds.contains(callRecord.getCallId()))
+                .forEach(callRecord -> {
+                    written.computeIfAbsent(callRecord.getUserId(), userId -> new HashMap<>())
+                            .merge(callRecord.getStatus(), 1L, Long::sum);
+                    callKeyResolver.remember(callRecord);
+                });
+        written.forEach(callCounterRepository::add);
+        return failed;
+    }
+
+    private static void backoff(int attempt) {
+        long maxDelay = BATCH_WRITE_BASE_BACKOFF_MS << (attempt - 2);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay / 2, maxDelay + 1)); // Jittered
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying batch write", e);
+        }
+    }
+
     public List<CallRecord> findScheduledCallsByUserId(String userId, Integer limit) {
-        QueryConditional queryConditional = QueryConditional.keyEqualTo(
-                Key.builder().partitionValue(userId + "#SCHEDULED").build());
-        
-        return byUserStatusIndex.query(r -> r.queryConditional(queryConditional)
-                .scanIndexForward(true) // Ascending order - soonest first
-                .limit(limit != null ? limit : 20))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .collect(Collectors.toList());
+        return findByUserIdAndStatus(userId, "SCHEDULED", limit, null).getItems();
     }
 
     public List<CallRecord> findCompletedCallsByUserId(String userId, Integer limit) {
-        QueryConditional queryConditional = QueryConditional.keyEqualTo(
-                Key.builder().partitionValue(userId + "#COMPLETED").build());
-        
-        return byUserStatusIndex.query(r -> r.queryConditional(queryConditional)
-                .scanIndexForward(false) // Descending order - most recent first
-                .limit(limit != null ? limit : 20))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .collect(Collectors.toList());
+        return findByUserIdAndStatus(userId, "COMPLETED", limit, null).getItems();
     }
 
     public List<CallRecord> findFailedCallsByUserId(String userId, Integer limit) {
-        QueryConditional queryConditional = QueryConditional.keyEqualTo(
-                Key.builder().partitionValue(userId + "#FAILED").build());
-        
-        return byUserStatusIndex.query(r -> r.queryConditional(queryConditional)
-                .scanIndexForward(false) // Descending order - most recent first
-                .limit(limit != null ? limit : 20))
-                .stream()
-                .flatMap(page -> page.items().stream())
-                .collect(Collectors.toList());
+        return findByUserIdAndStatus(userId, "FAILED", limit, null).getItems();
+    }
+
+    /**
+     * Reads a single page of a user's calls with the given status from the byUserStatus index.
+     * Scheduled calls come soonest first, completed and failed calls most recent first.
+     * At most one Query request is made, so the cost is bounded by the page size however
+     * long the user's history is; pass the returned cursor back to continue.
+     *
+     * @param cursor cursor from a previous page of the same query, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another query
+     */
+    public CallRecordPage findByUserIdAndStatus(String userId, String status, Integer limit, String cursor) {
+        return findByUserIdAndStatus(userId, status, limit, cursor, null);
     }
 
-    public List<CallRecord> findByUserIdAndStatus(String userId, String status, Integer limit) {
-        if ("SCHEDULED".equals(status)) {
-            return findScheduledCallsByUserId(userId, limit);
-        } else if ("COMPLETED".equals(status)) {
-            return findCompletedCallsByUserId(userId, limit);
-        } else if ("FAILED".equals(status)) {
-            return findFailedCallsByUserId(userId, limit);
-        } else {
-            return List.of();
+    /**
+     * Same as {@link #findByUserIdAndStatus(String, String, Integer, String)}, but only reads the
+     * given attributes (plus the keys); everything else is left null on the returned records.
+     * Use it to keep large attributes such as retellCallData out of list reads.
+     *
+     * @param attributes attribute names to read, or null for whole items
+     */
+    public CallRecordPage findByUserIdAndStatus(String userId, String status, Integer limit, String cursor,
+                                                Collection<String> attributes) {
+        if (!USER_STATUSES.contains(status)) {
+            return new CallRecordPage(List.of(), null);
+        }
+
+        String userStatus = userId + "#" + status;
+        QueryConditional queryConditional = QueryConditional.keyEqualTo(
+                Key.builder().partitionValue(userStatus).build());
+
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional)
+                .scanIndexForward("SCHEDULED".equals(status)) // Soonest first for upcoming, most recent first otherwise
+                .limit(limit != null ? limit : 20);
+        if (cursor != null && !cursor.isEmpty()) {
+            request.exclusiveStartKey(decodeCursor(cursor, userId, userStatus));
         }
+        if (attributes != null) {
+            Set<String> projection = new LinkedHashSet<>(KEY_ATTRIBUTES);
+            projection.addAll(attributes);
+            request.attributesToProject(projection);
+        }
+
+        Iterator<Page<CallRecord>> pages = byUserStatusIndex.query(request.build()).iterator();
+        if (!pages.hasNext()) {
+            return new CallRecordPage(List.of(), null);
+        }
+        Page<CallRecord> page = pages.next();
+        page.items().forEach(callKeyResolver::remember); // Keys are always read, even on projected queries
+        return new CallRecordPage(page.items(), encodeCursor(page.lastEvaluatedKey()));
     }
 
     public void delete(CallRecord callRecord) {
-        table.deleteItem(Key.builder()
+        CallRecord deleted = table.deleteItem(Key.builder()
                 .partitionValue(callRecord.getUserId())
                 .sortValue(callRecord.getSk())
                 .build());
+        callKeyResolver.forget(callRecord.getCallId());
+        if (deleted != null) {
+            callCounterRepository.recordTransition(deleted.getUserId(), deleted.getStatus(), null);
+        }
+    }
+
+    /**
+     * Counts a user's calls with the given status without reading them (Query with Select COUNT,
+     * following pages until the end). Cost still grows with the number of calls, so this is only
+     * used to seed the status counters.
+     */
+    public long countByUserIdAndStatus(String userId, String status) {
+        long count = 0;
+        Map<String, AttributeValue> startKey = null;
+        do {
+            QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .indexName("byUserStatus")
+                    .keyConditionExpression("#userStatus = :userStatus")
+                    .expressionAttributeNames(Map.of("#userStatus", "userStatus"))
+                    .expressionAttributeValues(Map.of(":userStatus", AttributeValue.builder().s(userId + "#" + status).build()))
+                    .select(Select.COUNT)
+                    .exclusiveStartKey(startKey)
+                    .build());
+            count += response.count();
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return count;
+    }
+
+    /**
+     * Number of calls per status across all users. This scans the whole table (reading only
+     * the status attribute), so it is only used once, to seed the global counters.
+     */
+    public Map<String, Long> countAllByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            ScanResponse response = dynamoDbClient.scan(ScanRequest.builder()
+                    .tableName(TABLE_NAME)
+                    .projectionExpression("#status")
+                    .expressionAttributeNames(Map.of("#status", "status"))
+                    .exclusiveStartKey(startKey)
+                    .build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                AttributeValue status = item.get("status");
+                if (status != null && status.s() != null) {
+                    counts.merge(status.s(), 1L, Long::sum);
+                }
+            }
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return counts;
     }
 
+    /**
+     * Reads the call with a strongly consistent GetItem when its key is known (see
+     * CallKeyResolver), so a call is visible right after it was written. Otherwise falls back
+     * to the eventually consistent byCallId index and remembers the key for next time.
+     */
     public Optional<CallRecord> findByCallId(String callId) {
+        return findByCallId(callId, null);
+    }
+
+    /**
+     * Same as {@link #findByCallId(String)}, but only reads the given attributes (plus the keys);
+     * everything else is left null on the returned record.
+     *
+     * @param attributes attribute names to read, or null for the whole item
+     */
+    public Optional<CallRecord> findByCallId(String callId, Collection<String> attributes) {
+        Set<String> projection = null;
+        if (attributes != null) {
+            projection = new LinkedHashSet<>(KEY_ATTRIBUTES);
+            projection.addAll(attributes);
+        }
+
+        Optional<CallKeyResolver.CallKey> key = callKeyResolver.resolve(callId);
+        if (key.isPresent()) {
+            CallRecord callRecord = getItem(key.get(), projection);
+            if (callRecord != null) {
+                return Optional.of(callRecord);
+            }
+            // Rescheduled or deleted by another instance since the key was remembered
+            callKeyResolver.forget(callId);
+        }
+
         QueryConditional queryConditional = QueryConditional.keyEqualTo(
                 Key.builder().partitionValue(callId).build());
-        
-        return byCallIdIndex.query(r -> r.queryConditional(queryConditional))
+
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder().queryConditional(queryConditional);
+        if (projection != null) {
+            request.attributesToProject(projection);
+        }
+        Optional<CallRecord> callRecord = byCallIdIndex.query(request.build())
                 .stream()
                 .flatMap(page -> page.items().stream())
                 .findFirst();
+        callRecord.ifPresent(callKeyResolver::remember);
+        return callRecord;
+    }
+
+    // Strongly consistent, unlike reads from the indexes
+    private CallRecord getItem(CallKeyResolver.CallKey key, Set<String> projection) {
+        if (projection == null) {
+            return table.getItem(GetItemEnhancedRequest.builder()
+                    .key(Key.builder().partitionValue(key.userId()).sortValue(key.sk()).build())
+                    .consistentRead(true)
+                    .build());
+        }
+
+        Map<String, String> names = new LinkedHashMap<>();
+        projection.forEach(name -> names.put("#" + name, name));
+        Map<String, AttributeValue> item = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(TABLE_NAME)
+                .key(Map.of(
+                        "userId", AttributeValue.builder().s(key.userId()).build(),
+                        "sk", AttributeValue.builder().s(key.sk()).build()))
+                .projectionExpression(String.join(", ", names.keySet()))
+                .expressionAttributeNames(names)
+                .consistentRead(true)
+                .build()).item();
+        return item == null || item.isEmpty() ? null : SCHEMA.mapToItem(item);
     }
 
     public Optional<CallRecord> findByProviderId(String providerId) {
         QueryConditional queryConditional = QueryConditional.keyEqualTo(
                 Key.builder().partitionValue(providerId).build());
 
-        return byProviderIndex.query(r -> r.queryConditional(queryConditional))
+        Optional<CallRecord> callRecord = byProviderIndex.query(r -> r.queryConditional(queryConditional))
                 .stream()
                 .flatMap(page -> page.items().stream())
                 .findFirst();
+        callRecord.ifPresent(callKeyResolver::remember);
+        return callRecord;
     }
 
     /**
@@ -150,4 +489,45 @@ public class CallRecordRepository {
                 .flatMap(page -> page.items().stream())
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private static String statusOf(Map<String, AttributeValue> item) {
+        AttributeValue status = item != null ? item.get("status") : null;
+        return status != null ? status.s() : null;
+    }
+
+    private static String encodeCursor(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> values = new HashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> values.put(name, value.s()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(CURSOR_MAPPER.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode page cursor", e);
+        }
+    }
+
+    private static Map<String, AttributeValue> decodeCursor(String cursor, String userId, String userStatus) {
+        Map<String, String> values;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            values = CURSOR_MAPPER.readValue(json, new TypeReference<Map<String, String>>() {});
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        // Cursors are client-supplied: only accept keys of this user's partition in this index
+        if (!values.keySet().equals(CURSOR_ATTRIBUTES)
+                || !userStatus.equals(values.get("userStatus"))
+                || !userId.equals(values.get("userId"))
+                || values.values().stream().anyMatch(value -> value == null || value.isEmpty())) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        Map<String, AttributeValue> startKey = new HashMap<>();
+        values.forEach((name, value) -> startKey.put(name, AttributeValue.builder().s(value).build()));
+        return startKey;
+    }
+}
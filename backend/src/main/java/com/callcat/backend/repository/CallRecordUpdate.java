@@ -0,0 +1,282 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallRecord;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A change to one stored call, applied with UpdateItem by {@link CallRecordRepository#update}.
+ * Only the attributes set here are sent, and the item's version is incremented, so the rest of
+ * the item (prompt, legacy retellCallData) is neither re-sent nor overwritten by a stale copy.
+ *
+ * Conditions (ifStatus, ifVersion, ifNotAnalyzed) are checked by DynamoDB in the same request;
+ * the update is only applied if the item still exists and all of them hold. Setting a value to
+ * null removes the attribute.
+ *
+ * Only the previous values of the changed attributes are returned, so the record an update
+ * results in is the record it was made from with the update applied; attributes it does not
+ * change are as they were when that record was read.
+ */
+public class CallRecordUpdate {
+
+    private static final Set<String> STATUSES = Set.of("SCHEDULED", "COMPLETED", "FAILED");
+
+    private final String userId;
+    private final String sk;
+    private final String callId;
+    private final Map<String, AttributeValue> base;
+
+    private final Map<String, AttributeValue> changes = new LinkedHashMap<>();
+    private final Set<String> removals = new LinkedHashSet<>();
+
+    private String expectedStatus;
+    private boolean versionChecked;
+    private Long expectedVersion;
+    private boolean notAnalyzed;
+
+    private CallRecordUpdate(String userId, String sk, String callId, Map<String, AttributeValue> base) {
+        this.userId = userId;
+        this.sk = sk;
+        this.callId = callId;
+        this.base = base;
+    }
+
+    /**
+     * An update of the stored item the given record was read from.
+     */
+    public static CallRecordUpdate of(CallRecord callRecord) {
+        if (callRecord.getUserId() == null || callRecord.getSk() == null) {
+            throw new IllegalArgumentException("Call record has no key");
+        }
+        return new CallRecordUpdate(callRecord.getUserId(), callRecord.getSk(), callRecord.getCallId(),
+                CallRecordRepository.SCHEMA.itemToMap(callRecord, true));
+    }
+
+    public CallRecordUpdate status(String status) {
+        if (status != null && !STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Status must be SCHEDULED, COMPLETED, or FAILED, got: " + status);
+        }
+        set("status", string(status));
+        // Keep the byUserStatus key in step, as CallRecord.getUserStatus() does on a full write
+        return set("userStatus", status != null ? string(userId + "#" + status) : null);
+    }
+
+    public CallRecordUpdate providerId(String providerId) {
+        return set("providerId", string(providerId));
+    }
+
+    public CallRecordUpdate calleeName(String calleeName) {
+        return set("calleeName", string(calleeName));
+    }
+
+    public CallRecordUpdate phoneNumber(String phoneNumber) {
+        return set("phoneNumber", string(phoneNumber));
+    }
+
+    public CallRecordUpdate subject(String subject) {
+        return set("subject", string(subject));
+    }
+
+    public CallRecordUpdate prompt(String prompt) {
+        return set("prompt", string(prompt));
+    }
+
+    public CallRecordUpdate aiLanguage(String aiLanguage) {
+        return set("aiLanguage", string(aiLanguage));
+    }
+
+    public CallRecordUpdate voiceId(String voiceId) {
+        return set("voiceId", string(voiceId));
+    }
+
+    public CallRecordUpdate updatedAt(Long updatedAt) {
+        return set("updatedAt", number(updatedAt));
+    }
+
+    public CallRecordUpdate completedAt(Long completedAt) {
+        return set("completedAt", number(completedAt));
+    }
+
+    public CallRecordUpdate durationSec(Integer durationSec) {
+        return set("durationSec", number(durationSec));
+    }
+
+    public CallRecordUpdate dialSuccessful(Boolean dialSuccessful) {
+        return set("dialSuccessful", bool(dialSuccessful));
+    }
+
+    public CallRecordUpdate callAnalyzed(Boolean callAnalyzed) {
+        return set("callAnalyzed", bool(callAnalyzed));
+    }
+
+    public CallRecordUpdate removeRetellCallData() {
+        return set("retellCallData", null);
+    }
+
+    /**
+     * Only apply the update if the stored status is still the given one.
+     */
+    public CallRecordUpdate ifStatus(String status) {
+        this.expectedStatus = status;
+        return this;
+    }
+
+    /**
+     * Only apply the update if nobody has written the item since it was read at this version
+     * (null for items that have not been written since versioning was added).
+     */
+    public CallRecordUpdate ifVersion(Long version) {
+        this.versionChecked = true;
+        this.expectedVersion = version;
+        return this;
+    }
+
+    /**
+     * Only apply the update if the call has not been analyzed yet.
+     */
+    public CallRecordUpdate ifNotAnalyzed() {
+        this.notAnalyzed = true;
+        return this;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getSk() {
+        return sk;
+    }
+
+    public String getCallId() {
+        return callId;
+    }
+
+    /**
+     * Attributes to set, by name.
+     */
+    public Map<String, AttributeValue> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Attributes to remove.
+     */
+    public Set<String> getRemovals() {
+        return Collections.unmodifiableSet(removals);
+    }
+
+    /**
+     * Whether this update sets or removes the status, i.e. whether the stored status it
+     * replaced comes back from the request.
+     */
+    boolean changesStatus() {
+        return changes.containsKey("status") || removals.contains("status");
+    }
+
+    UpdateItemRequest toRequest(String tableName) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+
+        List<String> sets = new ArrayList<>();
+        changes.forEach((name, value) -> {
+            names.put("#" + name, name);
+            values.put(":" + name, value);
+            sets.add("#" + name + " = :" + name);
+        });
+        List<String> removes = new ArrayList<>();
+        removals.forEach(name -> {
+            names.put("#" + name, name);
+            removes.add("#" + name);
+        });
+
+        StringBuilder updateExpression = new StringBuilder();
+        if (!sets.isEmpty()) {
+            updateExpression.append("SET ").append(String.join(", ", sets)).append(' ');
+        }
+        if (!removes.isEmpty()) {
+            updateExpression.append("REMOVE ").append(String.join(", ", removes)).append(' ');
+        }
+        names.put("#version", "version");
+        values.put(":versionIncrement", AttributeValue.builder().n("1").build());
+        updateExpression.append("ADD #version :versionIncrement");
+
+        // Never let an update of a deleted call create a partial item
+        names.put("#userId", "userId");
+        List<String> conditions = new ArrayList<>(List.of("attribute_exists(#userId)"));
+        if (expectedStatus != null) {
+            names.put("#status", "status");
+            values.put(":expectedStatus", string(expectedStatus));
+            conditions.add("#status = :expectedStatus");
+        }
+        if (versionChecked) {
+            if (expectedVersion == null) {
+                conditions.add("attribute_not_exists(#version)");
+            } else {
+                values.put(":expectedVersion", number(expectedVersion));
+                conditions.add("#version = :expectedVersion");
+            }
+        }
+        if (notAnalyzed) {
+            names.put("#callAnalyzed", "callAnalyzed");
+            values.put(":analyzed", bool(true));
+            conditions.add("(attribute_not_exists(#callAnalyzed) OR #callAnalyzed <> :analyzed)");
+        }
+
+        return UpdateItemRequest.builder()
+                .tableName(tableName)
+                .key(Map.of("userId", string(userId), "sk", string(sk)))
+                .updateExpression(updateExpression.toString())
+                .conditionExpression(String.join(" AND ", conditions))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                // The previous status (when set here) for the counters and the previous version,
+                // without reading back the rest of the item
+                .returnValues(ReturnValue.UPDATED_OLD)
+                .build();
+    }
+
+    /**
+     * The item as it is after this update was applied, given the attributes it replaced.
+     */
+    Map<String, AttributeValue> applyTo(Map<String, AttributeValue> previous) {
+        Map<String, AttributeValue> item = new HashMap<>(base);
+        item.putAll(changes);
+        removals.forEach(item::remove);
+        AttributeValue version = previous.get("version");
+        item.put("version", number(version != null ? Long.parseLong(version.n()) + 1 : 1L));
+        return item;
+    }
+
+    private CallRecordUpdate set(String name, AttributeValue value) {
+        if (value == null) {
+            changes.remove(name);
+            removals.add(name);
+        } else {
+            removals.remove(name);
+            changes.put(name, value);
+        }
+        return this;
+    }
+
+    private static AttributeValue string(String value) {
+        return value != null ? AttributeValue.builder().s(value).build() : null;
+    }
+
+    private static AttributeValue number(Number value) {
+        return value != null ? AttributeValue.builder().n(value.toString()).build() : null;
+    }
+
+    private static AttributeValue bool(Boolean value) {
+        return value != null ? AttributeValue.builder().bool(value).build() : null;
+    }
+}
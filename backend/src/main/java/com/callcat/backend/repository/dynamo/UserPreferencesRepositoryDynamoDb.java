@@ -1,36 +1,83 @@
 package com.callcat.backend.repository.dynamo;
 
 import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
+import com.callcat.backend.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 
+import java.time.Duration;
 import java.util.Optional;
 
+/**
+ * User preferences table access with a small read-through cache keyed by email.
+ *
+ * Preferences are read through RequestUserContext by UserService (get and update preferences)
+ * and by CallService.createInstantCall for the user's system prompt, so an instant call reads
+ * them on every dial; lookups are cached for a few seconds. Writes and deletes through this
+ * repository invalidate the entry; changes made by other instances become visible once the
+ * entry expires. Callers get their own copy and may mutate it freely.
+ */
 @Repository
 public class UserPreferencesRepositoryDynamoDb {
 
+    private static final int MAX_CACHED_PREFERENCES = 1000;
+
     private final DynamoDbTable<UserPreferencesDynamoDb> table;
+    private final TableSchema<UserPreferencesDynamoDb> schema = TableSchema.fromBean(UserPreferencesDynamoDb.class);
+    private final BoundedTtlCache<String, UserPreferencesDynamoDb> cache = new BoundedTtlCache<>(MAX_CACHED_PREFERENCES);
+
+    // 0 disables caching
+    @Value("${callcat.cache.user-preferences.ttl-seconds:10}")
+    private long cacheTtlSeconds = 10;
 
-    public UserPreferencesRepositoryDynamoDb(DynamoDbEnhancedClient dynamoDb) {
-        this.table = dynamoDb.table("callcat-user-preferences", TableSchema.fromBean(UserPreferencesDynamoDb.class));
+    public UserPreferencesRepositoryDynamoDb(DynamoDbEnhancedClient dynamoDb, MeterRegistry meterRegistry) {
+        this.table = dynamoDb.table("callcat-user-preferences", schema);
+        FunctionCounter.builder("callcat.cache.hits", cache, BoundedTtlCache::hitCount)
+                .tag("cache", "user-preferences")
+                .register(meterRegistry);
+        FunctionCounter.builder("callcat.cache.misses", cache, BoundedTtlCache::missCount)
+                .tag("cache", "user-preferences")
+                .register(meterRegistry);
     }
 
     public void save(UserPreferencesDynamoDb preferences) {
         table.putItem(preferences);
+        cache.invalidate(preferences.getEmail());
     }
 
     public Optional<UserPreferencesDynamoDb> findByEmail(String email) {
-        return Optional.ofNullable(table.getItem(Key.builder().partitionValue(email).build()));
+        UserPreferencesDynamoDb cached = cache.get(email);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        UserPreferencesDynamoDb preferences = table.getItem(Key.builder().partitionValue(email).build());
+        if (preferences == null) {
+            // Not cached - a record created elsewhere must be visible on the next lookup
+            return Optional.empty();
+        }
+        cache.put(email, copyOf(preferences), Duration.ofSeconds(cacheTtlSeconds));
+        return Optional.of(preferences);
     }
 
     public void delete(UserPreferencesDynamoDb preferences) {
         table.deleteItem(preferences);
+        cache.invalidate(preferences.getEmail());
     }
     
     public void deleteByEmail(String email) {
         table.deleteItem(Key.builder().partitionValue(email).build());
+        cache.invalidate(email);
+    }
+
+    // Round-trips through the table schema so cached entries never share mutable state with callers
+    private UserPreferencesDynamoDb copyOf(UserPreferencesDynamoDb preferences) {
+        return schema.mapToItem(schema.itemToMap(preferences, false));
     }
 }
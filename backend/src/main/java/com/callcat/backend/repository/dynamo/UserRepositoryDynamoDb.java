@@ -1,29 +1,68 @@
 package com.callcat.backend.repository.dynamo;
 
 import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 
+import java.time.Duration;
 import java.util.Optional;
 
+/**
+ * User table access with a small read-through cache keyed by email.
+ *
+ * A single request typically reads the same user record several times (security filter,
+ * service, nested service call), so lookups are cached for a few seconds. Writes and deletes
+ * through this repository invalidate the entry; changes made by other instances become
+ * visible once the entry expires. Callers get their own copy and may mutate it freely.
+ */
 @Repository
 public class UserRepositoryDynamoDb {
 
+    private static final int MAX_CACHED_USERS = 1000;
+
     private final DynamoDbTable<UserDynamoDb> table;
+    private final TableSchema<UserDynamoDb> schema = TableSchema.fromBean(UserDynamoDb.class);
+    private final BoundedTtlCache<String, UserDynamoDb> cache = new BoundedTtlCache<>(MAX_CACHED_USERS);
+
+    // 0 disables caching
+    @Value("${callcat.cache.users.ttl-seconds:10}")
+    private long cacheTtlSeconds = 10;
 
-    public UserRepositoryDynamoDb(DynamoDbEnhancedClient dynamoDb) {
-        this.table = dynamoDb.table("callcat-users", TableSchema.fromBean(UserDynamoDb.class));
+    public UserRepositoryDynamoDb(DynamoDbEnhancedClient dynamoDb, MeterRegistry meterRegistry) {
+        this.table = dynamoDb.table("callcat-users", schema);
+        FunctionCounter.builder("callcat.cache.hits", cache, BoundedTtlCache::hitCount)
+                .tag("cache", "users")
+                .register(meterRegistry);
+        FunctionCounter.builder("callcat.cache.misses", cache, BoundedTtlCache::missCount)
+                .tag("cache", "users")
+                .register(meterRegistry);
     }
 
     public void save(UserDynamoDb user) {
         table.putItem(user);
+        cache.invalidate(user.getEmail());
     }
 
     public Optional<UserDynamoDb> findByEmail(String email) {
-        return Optional.ofNullable(table.getItem(Key.builder().partitionValue(email).build()));
+        UserDynamoDb cached = cache.get(email);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        UserDynamoDb user = table.getItem(Key.builder().partitionValue(email).build());
+        if (user == null) {
+            // Not cached - a record created elsewhere must be visible on the next lookup
+            return Optional.empty();
+        }
+        cache.put(email, copyOf(user), Duration.ofSeconds(cacheTtlSeconds));
+        return Optional.of(user);
     }
 
     public boolean existsByEmail(String email) {
@@ -32,10 +71,12 @@ public class UserRepositoryDynamoDb {
 
     public void delete(UserDynamoDb user) {
         table.deleteItem(user);
+        cache.invalidate(user.getEmail());
     }
     
     public void deleteByEmail(String email) {
         table.deleteItem(Key.builder().partitionValue(email).build());
+        cache.invalidate(email);
     }
 
     public Optional<UserDynamoDb> findByPasswordResetToken(String token) {
@@ -49,4 +90,9 @@ public class UserRepositoryDynamoDb {
                 .flatMap(page -> page.items().stream())
                 .findFirst();
     }
+
+    // Round-trips through the table schema so cached entries never share mutable state with callers
+    private UserDynamoDb copyOf(UserDynamoDb user) {
+        return schema.mapToItem(schema.itemToMap(user, false));
+    }
 }
@@ -0,0 +1,100 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.exception.ThrottledException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Throttles the unauthenticated endpoints that cost us real resources or guess secrets:
+ * login (a bcrypt hash per attempt), email code verification, and anything that sends an
+ * email (verification codes, password resets).
+ *
+ * Each action is limited both per client IP and per normalized email address, so neither
+ * spraying one account from many IPs nor one IP walking through many accounts gets far.
+ * Actions have their own counters, so e.g. wrong verification codes never lock anyone out of
+ * logging in. Counters live in memory on each instance.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimiter.class);
+
+    private final boolean enabled;
+    private final SlidingWindowRateLimiter loginByIp;
+    private final SlidingWindowRateLimiter loginByEmail;
+    private final SlidingWindowRateLimiter codeByIp;
+    private final SlidingWindowRateLimiter codeByEmail;
+    private final SlidingWindowRateLimiter emailByIp;
+    private final SlidingWindowRateLimiter emailByAddress;
+
+    public AuthRateLimiter(
+            @Value("${callcat.ratelimit.enabled:true}") boolean enabled,
+            @Value("${callcat.ratelimit.max-keys:10000}") int maxKeys,
+            @Value("${callcat.ratelimit.login.window-seconds:300}") long loginWindowSeconds,
+            @Value("${callcat.ratelimit.login.per-ip:30}") int loginPerIp,
+            @Value("${callcat.ratelimit.login.per-email:10}") int loginPerEmail,
+            @Value("${callcat.ratelimit.verify.window-seconds:900}") long codeWindowSeconds,
+            @Value("${callcat.ratelimit.verify.per-ip:30}") int codePerIp,
+            @Value("${callcat.ratelimit.verify.per-email:10}") int codePerEmail,
+            @Value("${callcat.ratelimit.email.window-seconds:900}") long emailWindowSeconds,
+            @Value("${callcat.ratelimit.email.per-ip:10}") int emailPerIp,
+            @Value("${callcat.ratelimit.email.per-email:3}") int emailPerAddress
+    ) {
+        this.enabled = enabled;
+        Duration loginWindow = Duration.ofSeconds(loginWindowSeconds);
+        Duration codeWindow = Duration.ofSeconds(codeWindowSeconds);
+        Duration emailWindow = Duration.ofSeconds(emailWindowSeconds);
+        this.loginByIp = new SlidingWindowRateLimiter(loginPerIp, loginWindow, maxKeys);
+        this.loginByEmail = new SlidingWindowRateLimiter(loginPerEmail, loginWindow, maxKeys);
+        this.codeByIp = new SlidingWindowRateLimiter(codePerIp, codeWindow, maxKeys);
+        this.codeByEmail = new SlidingWindowRateLimiter(codePerEmail, codeWindow, maxKeys);
+        this.emailByIp = new SlidingWindowRateLimiter(emailPerIp, emailWindow, maxKeys);
+        this.emailByAddress = new SlidingWindowRateLimiter(emailPerAddress, emailWindow, maxKeys);
+    }
+
+    /**
+     * Guards endpoints that check an account's password.
+     * @throws ThrottledException (429) if the client or the account made too many attempts
+     */
+    public void checkCredentialAttempt(String clientIp, String email) {
+        check("login", loginByIp, loginByEmail, clientIp, email);
+    }
+
+    /**
+     * Guards endpoints that check a code emailed for an account.
+     * @throws ThrottledException (429) if the client or the account made too many attempts
+     */
+    public void checkCodeAttempt(String clientIp, String email) {
+        check("code", codeByIp, codeByEmail, clientIp, email);
+    }
+
+    /**
+     * @throws ThrottledException (429) if too many emails were requested by the client or for the address
+     */
+    public void checkEmailSend(String clientIp, String email) {
+        check("email", emailByIp, emailByAddress, clientIp, email);
+    }
+
+    private void check(String action, SlidingWindowRateLimiter byIp, SlidingWindowRateLimiter byEmail,
+                       String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+
+        long retryAfter = byIp.tryAcquire(clientIp != null ? clientIp : "unknown");
+        if (retryAfter == 0 && email != null) {
+            retryAfter = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (retryAfter > 0) {
+            logger.warn("Rate limit hit for {} from {} ({}), retry after {}s", action, clientIp, email, retryAfter);
+            throw new ThrottledException("Too many requests, please try again later",
+                    HttpStatus.TOO_MANY_REQUESTS, retryAfter);
+        }
+    }
+}
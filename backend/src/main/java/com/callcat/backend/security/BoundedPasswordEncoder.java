@@ -0,0 +1,175 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.exception.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder that runs the (deliberately slow) delegate on a small dedicated pool.
+ *
+ * At most one hash per CPU runs at a time and only a short queue may wait behind them.
+ * When the queue is full, or a hash can't start within the wait limit, the caller gets a
+ * {@link ThrottledException} (503 + Retry-After) straight away instead of tying up a
+ * Tomcat worker behind a pile of bcrypt work. A hash given up on is dropped from the queue
+ * and never run; once a hash has started, the caller waits for it however long it takes.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int concurrency, int queueCapacity,
+                                  Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("callcat.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a free hashing thread")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("callcat.password.hash")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("callcat.password.hash")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("callcat.password.hash.rejected")
+                .description("Password hashes turned away because the hashing pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Cheap check of the stored hash's cost factor, so it runs on the caller's thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        HashTask<T> hash = new HashTask<>(task);
+        try {
+            executor.execute(hash);
+        } catch (RejectedExecutionException e) {
+            throw throttled();
+        }
+
+        try {
+            if (!hash.awaitStart(maxWait)) {
+                executor.remove(hash);
+                throw throttled();
+            }
+            return hash.get();
+        } catch (InterruptedException e) {
+            if (hash.abandon()) {
+                executor.remove(hash);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * A hash that either starts or is abandoned by its caller, never both: an abandoned hash is
+     * skipped if a thread picks it up anyway.
+     */
+    private static final class HashTask<T> extends FutureTask<T> {
+
+        private static final int QUEUED = 0;
+        private static final int STARTED = 1;
+        private static final int ABANDONED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        HashTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            if (state.compareAndSet(QUEUED, STARTED)) {
+                started.countDown();
+                super.run();
+            }
+        }
+
+        /**
+         * @return true if the hash started within maxWait, false if it was abandoned instead
+         */
+        boolean awaitStart(Duration maxWait) throws InterruptedException {
+            return started.await(maxWait.toMillis(), TimeUnit.MILLISECONDS) || !abandon();
+        }
+
+        /**
+         * @return whether the hash was abandoned, false if it had already started
+         */
+        boolean abandon() {
+            return state.compareAndSet(QUEUED, ABANDONED);
+        }
+    }
+
+    private ThrottledException throttled() {
+        rejected.increment();
+        logger.warn("Password hashing pool saturated (queued: {}), rejecting request", executor.getQueue().size());
+        return new ThrottledException("Server is busy, please try again shortly",
+                HttpStatus.SERVICE_UNAVAILABLE, RETRY_AFTER_SECONDS);
+    }
+}
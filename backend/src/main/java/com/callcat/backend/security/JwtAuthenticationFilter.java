@@ -1,12 +1,22 @@
 package com.callcat.backend.security;
 
+import com.callcat.backend.dto.ApiResponse;
+import com.callcat.backend.entity.Role;
+import com.callcat.backend.entity.User;
+import com.callcat.backend.exception.ThrottledException;
 import com.callcat.backend.service.JwtService;
 import com.callcat.backend.service.TokenBlacklistService;
+import com.callcat.backend.service.TokenVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,14 +31,22 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenVersionService tokenVersionService;
+
+    // Opt-in: build the principal from signed claims instead of loading the user on every request
+    @Value("${callcat.auth.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenBlacklistService tokenBlacklistService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenBlacklistService tokenBlacklistService, TokenVersionService tokenVersionService) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @Override
@@ -48,17 +66,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         jwt = authHeader.substring(7);
         
-        // Check if token is blacklisted (logout check)
-        if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-        
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Verify the token once; the claims are reused for every check below
+            Claims claims = jwtService.verifyToken(jwt);
+            
+            // Check if token is blacklisted (logout check) - revocations are keyed by the jti claim
+            if (tokenBlacklistService.isTokenBlacklisted(claims, jwt)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            
+            userEmail = claims.getSubject();
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                Number tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Number.class);
+                UserDetails userDetails;
+                if (statelessPrincipal && tokenVersion != null) {
+                    // Stateless mode: trust the signed claims, only check the (cached) token version
+                    userDetails = principalFromClaims(claims);
+                    if (!userDetails.isEnabled() || !tokenVersionService.isCurrent(userEmail, tokenVersion.longValue())) {
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                } else {
+                    // Tokens issued before the version claim existed always take the lookup path
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                }
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -72,7 +105,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (JwtException | IllegalArgumentException e) {
             // Invalid token - continue without authentication
+        } catch (ThrottledException e) {
+            // GlobalExceptionHandler only sees exceptions from controllers, so answer here
+            writeThrottled(response, e);
+            return;
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static void writeThrottled(HttpServletResponse response, ThrottledException e) throws IOException {
+        response.setStatus(e.getStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse(e.getMessage(), false));
+    }
+
+    private User principalFromClaims(Claims claims) {
+        User user = new User();
+        user.setEmail(claims.getSubject());
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        user.setRole(role != null ? Role.valueOf(role) : Role.USER);
+        user.setIsActive(Boolean.TRUE.equals(claims.get(JwtService.CLAIM_ACTIVE, Boolean.class)));
+        return user;
+    }
+}
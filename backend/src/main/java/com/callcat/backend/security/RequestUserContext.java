@@ -0,0 +1,77 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
+import com.callcat.backend.repository.dynamo.UserPreferencesRepositoryDynamoDb;
+import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Loads the user and preferences records at most once per HTTP request.
+ *
+ * The first lookup for an email stores the result (including "not found") as a request
+ * attribute; the security filter, controllers and services then share that same entity.
+ * Outside a request (scheduled jobs, background threads) every call goes straight to the
+ * repository. Services that modify a shared entity save it and call remember() so the
+ * rest of the request sees the saved state.
+ */
+@Component
+public class RequestUserContext {
+
+    private static final String USER_ATTRIBUTE = RequestUserContext.class.getName() + ".user.";
+    private static final String PREFERENCES_ATTRIBUTE = RequestUserContext.class.getName() + ".preferences.";
+
+    private final UserRepositoryDynamoDb userRepository;
+    private final UserPreferencesRepositoryDynamoDb userPreferencesRepository;
+
+    public RequestUserContext(UserRepositoryDynamoDb userRepository,
+                              UserPreferencesRepositoryDynamoDb userPreferencesRepository) {
+        this.userRepository = userRepository;
+        this.userPreferencesRepository = userPreferencesRepository;
+    }
+
+    public Optional<UserDynamoDb> findUser(String email) {
+        return lookup(USER_ATTRIBUTE + email, email, userRepository::findByEmail);
+    }
+
+    public Optional<UserPreferencesDynamoDb> findPreferences(String email) {
+        return lookup(PREFERENCES_ATTRIBUTE + email, email, userPreferencesRepository::findByEmail);
+    }
+
+    public void remember(UserDynamoDb user) {
+        store(USER_ATTRIBUTE + user.getEmail(), Optional.of(user));
+    }
+
+    public void remember(UserPreferencesDynamoDb preferences) {
+        store(PREFERENCES_ATTRIBUTE + preferences.getEmail(), Optional.of(preferences));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> lookup(String attribute, String email, Function<String, Optional<T>> loader) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return loader.apply(email);
+        }
+
+        Optional<T> cached = (Optional<T>) request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<T> loaded = loader.apply(email);
+        request.setAttribute(attribute, loaded, RequestAttributes.SCOPE_REQUEST);
+        return loaded;
+    }
+
+    private void store(String attribute, Optional<?> value) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(attribute, value, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
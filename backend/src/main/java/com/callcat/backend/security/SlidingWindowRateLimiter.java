@@ -0,0 +1,108 @@
+package com.callcat.backend.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory sliding-window rate limiter keyed by an arbitrary string (IP, email, ...).
+ *
+ * Uses the sliding window counter approximation: the previous fixed window's count is
+ * weighted by how much of it still overlaps the sliding window, so each key only needs two
+ * counters. Keys are spread over independently locked stripes, each an LRU map with a fixed
+ * capacity, so memory stays bounded no matter how many distinct keys show up. A key evicted
+ * under that pressure simply starts counting from zero again.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    public SlidingWindowRateLimiter(int limit, Duration window, int maxKeys) {
+        this(limit, window, maxKeys, System::currentTimeMillis);
+    }
+
+    SlidingWindowRateLimiter(int limit, Duration window, int maxKeys, LongSupplier clock) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive, got: " + limit);
+        }
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("window must be positive, got: " + window);
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.stripes = new Stripe[STRIPES];
+        int keysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(keysPerStripe);
+        }
+    }
+
+    /**
+     * Records one request for the key if it is within the limit.
+     *
+     * @return 0 if the request is allowed, otherwise the number of seconds to wait before retrying
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        long now = clock.getAsLong();
+        long windowStart = now - Math.floorMod(now, windowMillis);
+
+        synchronized (stripe) {
+            Counter counter = stripe.counters.get(key);
+            if (counter == null) {
+                counter = new Counter(windowStart);
+                stripe.counters.put(key, counter);
+            }
+            counter.roll(windowStart, windowMillis);
+
+            double overlap = 1.0 - (double) (now - windowStart) / windowMillis;
+            double estimated = counter.previous * overlap + counter.current;
+            if (estimated >= limit) {
+                long untilNextWindow = windowStart + windowMillis - now;
+                return Math.max(1, (untilNextWindow + 999) / 1000);
+            }
+            counter.current++;
+            return 0;
+        }
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<String, Counter> counters;
+
+        private Stripe(int capacity) {
+            this.counters = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Counter> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+
+    private static final class Counter {
+        private long windowStart;
+        private int previous;
+        private int current;
+
+        private Counter(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        private void roll(long newWindowStart, long windowMillis) {
+            if (newWindowStart == windowStart) {
+                return;
+            }
+            // Only the directly preceding window still overlaps the sliding window
+            previous = newWindowStart - windowStart == windowMillis ? current : 0;
+            current = 0;
+            windowStart = newWindowStart;
+        }
+    }
+}
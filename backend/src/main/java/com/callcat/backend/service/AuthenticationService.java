@@ -21,6 +21,7 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final VerificationService verificationService;
+    private final TokenVersionService tokenVersionService;
     
     // Password pattern: 8+ chars, at least one uppercase, one lowercase, one digit
     private static final String PASSWORD_PATTERN = 
@@ -41,7 +42,8 @@ public class AuthenticationService {
             JwtService jwtService,
             AuthenticationManager authenticationManager,
             EmailService emailService,
-            VerificationService verificationService
+            VerificationService verificationService,
+            TokenVersionService tokenVersionService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -49,6 +51,7 @@ public class AuthenticationService {
         this.authenticationManager = authenticationManager;
         this.emailService = emailService;
         this.verificationService = verificationService;
+        this.tokenVersionService = tokenVersionService;
     }
     
     public AuthResponse register(String email, String password, String firstName, String lastName) {
@@ -86,11 +89,7 @@ public class AuthenticationService {
         userRepository.save(userDynamo);
         
         // Generate JWT token and create response
-        String token = jwtService.generateToken(
-                userDynamo.getEmail(),
-                null, // ID is null for DynamoDB users
-                userDynamo.getFullName()
-        );
+        String token = jwtService.generateToken(userDynamo);
         
         return new AuthResponse(
                 token,
@@ -124,11 +123,7 @@ public class AuthenticationService {
             }
             
             // Generate JWT token and create response
-            String token = jwtService.generateToken(
-                    userDynamo.getEmail(),
-                    null,
-                    userDynamo.getFullName()
-            );
+            String token = jwtService.generateToken(userDynamo);
             logger.info("JWT token generated successfully for email: {}", lowerCaseEmail);
             
             return new AuthResponse(
@@ -225,10 +220,12 @@ public class AuthenticationService {
             throw new RuntimeException("Reset token has expired");
         }
         
-        // Update password and clear reset token
+        // Update password, clear reset token and revoke every token issued with the old password
         userDynamo.setPassword(passwordEncoder.encode(newPassword));
         userDynamo.setPasswordResetToken(null);
         userDynamo.setResetTokenExpires(null);
+        tokenVersionService.revokeIssuedTokens(userDynamo);
         userRepository.save(userDynamo);
+        tokenVersionService.evict(userDynamo.getEmail());
     }
 }
\ No newline at end of file
@@ -0,0 +1,237 @@
+package com.callcat.backend.service;
+
+import com.callcat.backend.dto.BatchCallResponse;
+import com.callcat.backend.dto.BatchCallResult;
+import com.callcat.backend.dto.CallRequest;
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.mapper.CallMapper;
+import com.callcat.backend.repository.CallRecordRepository;
+import com.callcat.backend.security.RequestUserContext;
+import com.callcat.backend.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many calls in one request: every row is validated up front, the valid ones are
+ * written with BatchWriteItem and their schedules registered together, and the outcome is
+ * reported per row. Rows are independent - an invalid row only fails itself.
+ */
+@Service
+public class CallBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallBatchService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "calleeName", "phoneNumber", "subject", "prompt", "scheduledFor", "aiLanguage", "voiceId");
+
+    private final CallRecordRepository callRecordRepository;
+    private final RequestUserContext requestUserContext;
+    private final EventBridgeService eventBridgeService;
+    private final Validator validator;
+    private final int maxBatchSize;
+
+    public CallBatchService(CallRecordRepository callRecordRepository,
+                            RequestUserContext requestUserContext,
+                            EventBridgeService eventBridgeService,
+                            Validator validator,
+                            @Value("${callcat.calls.batch.max-size:500}") int maxBatchSize) {
+        this.callRecordRepository = callRecordRepository;
+        this.requestUserContext = requestUserContext;
+        this.eventBridgeService = eventBridgeService;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public BatchCallResponse createCalls(String userEmail, List<CallRequest> requests) {
+        String lowerCaseEmail = userEmail.toLowerCase();
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+             throw new RuntimeException("User is inactive");
+        }
+
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one call is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch cannot exceed " + maxBatchSize + " calls");
+        }
+
+        long currentTime = System.currentTimeMillis();
+        List<BatchCallResult> results = new ArrayList<>(requests.size());
+        Map<String, BatchCallResult> resultsByCallId = new HashMap<>();
+        List<CallRecord> callRecords = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            BatchCallResult result = new BatchCallResult(i + 1);
+            results.add(result);
+
+            String error = validate(requests.get(i), currentTime);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+
+            CallRecord callRecord = toCallRecord(requests.get(i), user.getEmail(), currentTime);
+            callRecords.add(callRecord);
+            resultsByCallId.put(callRecord.getCallId(), result);
+            result.setCallId(callRecord.getCallId());
+            result.setSuccess(true);
+        }
+
+        for (CallRecord unsaved : callRecordRepository.saveAll(callRecords)) {
+            BatchCallResult result = resultsByCallId.get(unsaved.getCallId());
+            result.setSuccess(false);
+            result.setCallId(null);
+            result.setError("Failed to save call, please retry");
+        }
+
+        Map<String, Long> schedules = new LinkedHashMap<>();
+        for (CallRecord callRecord : callRecords) {
+            if (resultsByCallId.get(callRecord.getCallId()).isSuccess() && callRecord.getScheduledFor() != null) {
+                schedules.put(callRecord.getCallId(), callRecord.getScheduledFor());
+            }
+        }
+        if (!schedules.isEmpty()) {
+            Set<String> unscheduled = eventBridgeService.scheduleCalls(schedules);
+            schedules.keySet().forEach(callId -> resultsByCallId.get(callId).setScheduled(!unscheduled.contains(callId)));
+        }
+
+        BatchCallResponse response = new BatchCallResponse(results);
+        logger.info("Batch create for {}: {} created, {} failed", user.getEmail(), response.getCreated(), response.getFailed());
+        return response;
+    }
+
+    /**
+     * Reads a CSV upload with a header row naming the columns (any order, case-insensitive):
+     * calleeName, phoneNumber, subject, prompt, scheduledFor, aiLanguage, voiceId.
+     * scheduledFor is epoch milliseconds or an ISO-8601 instant such as 2025-01-31T15:00:00Z.
+     * Stops reading as soon as the upload has more rows than a batch may hold.
+     *
+     * @throws IllegalArgumentException if the file is malformed, has unknown columns or too many rows
+     */
+    public List<CallRequest> parseCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+
+        header.set(0, header.get(0).replace("\uFEFF", "")); // Byte order mark from spreadsheet exports
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            String column = CSV_COLUMNS.stream()
+                    .filter(known -> known.equalsIgnoreCase(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown CSV column: " + name.trim()));
+            columns.add(column);
+        }
+
+        List<CallRequest> requests = new ArrayList<>();
+        List<String> fields;
+        while ((fields = csv.readRecord()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // Blank line
+            }
+            int row = requests.size() + 1;
+            if (row > maxBatchSize) {
+                throw new IllegalArgumentException("Batch cannot exceed " + maxBatchSize + " calls");
+            }
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("Row " + row + " has " + fields.size()
+                        + " fields, expected " + columns.size());
+            }
+            requests.add(toCallRequest(columns, fields, row));
+        }
+        return requests;
+    }
+
+    private String validate(CallRequest request, long currentTime) {
+        if (request == null) {
+            return "Call is missing";
+        }
+
+        Set<ConstraintViolation<CallRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (request.getScheduledFor() != null && request.getScheduledFor() <= currentTime) {
+            return "Scheduled time must be in the future";
+        }
+        return null;
+    }
+
+    private static CallRecord toCallRecord(CallRequest request, String userId, long currentTime) {
+        CallRecord callRecord = CallMapper.toRecord(request);
+
+        // Default AI language to English if not provided
+        if (callRecord.getAiLanguage() == null) {
+            callRecord.setAiLanguage("en");
+        }
+
+        callRecord.setUserId(userId);
+        callRecord.setCallId(UUID.randomUUID().toString());
+        callRecord.setStatus("SCHEDULED");
+        callRecord.setCreatedAt(currentTime);
+        callRecord.setUpdatedAt(currentTime);
+        return callRecord;
+    }
+
+    private static CallRequest toCallRequest(List<String> columns, List<String> fields, int row) {
+        CallRequest request = new CallRequest();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = fields.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (columns.get(i)) {
+                case "calleeName" -> request.setCalleeName(value);
+                case "phoneNumber" -> request.setPhoneNumber(value);
+                case "subject" -> request.setSubject(value);
+                case "prompt" -> request.setPrompt(value);
+                case "scheduledFor" -> request.setScheduledFor(parseScheduledFor(value, row));
+                case "aiLanguage" -> request.setAiLanguage(value);
+                case "voiceId" -> request.setVoiceId(value);
+                default -> throw new IllegalStateException("Unmapped CSV column: " + columns.get(i));
+            }
+        }
+        return request;
+    }
+
+    private static Long parseScheduledFor(String value, int row) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return Instant.parse(value).toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Row " + row
+                        + ": scheduledFor must be epoch milliseconds or an ISO-8601 instant");
+            }
+        }
+    }
+}
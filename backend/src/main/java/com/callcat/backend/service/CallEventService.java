@@ -0,0 +1,307 @@
+package com.callcat.backend.service;
+
+import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.mapper.CallMapper;
+import com.callcat.backend.util.BoundedTtlCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes call changes to the owner's open event streams (GET /api/calls/stream).
+ *
+ * Each connection has a bounded queue drained by its own virtual thread, so publishing never
+ * waits on a slow client and an open stream holds no Tomcat worker. A connection whose queue
+ * fills up is closed; the client reconnects with Last-Event-ID and the missed events are
+ * replayed from a short per-user history. When that history cannot prove nothing was missed
+ * (expired, overflowed, or from before a restart), a "resync" event tells the client to reload.
+ *
+ * Events are kept in memory on this instance, which also receives the Retell webhooks.
+ */
+@Service
+public class CallEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallEventService.class);
+
+    public static final String STATUS_EVENT = "call-status";
+    public static final String TRANSCRIPT_READY_EVENT = "transcript-ready";
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final int MAX_USERS_WITH_HISTORY = 10000;
+
+    private static final ThreadFactory WRITER_THREADS = Thread.ofVirtual().name("callcat-sse-", 0).factory();
+
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final int bufferSize;
+    private final int replaySize;
+    private final Duration replayWindow;
+    private final int maxConnectionsPerUser;
+
+    // Guarded by this, like everything below: publishing, subscribing and closing are rare and
+    // quick (queue offers only), and one lock keeps replay and live events in order
+    private final Map<String, List<Subscription>> subscriptions = new HashMap<>();
+    private final BoundedTtlCache<String, History> histories = new BoundedTtlCache<>(MAX_USERS_WITH_HISTORY);
+    // Starts above every id of an earlier run, unless that run averaged over 1000 events a millisecond
+    private long lastEventId = System.currentTimeMillis() * 1000;
+
+    public CallEventService(@Value("${callcat.events.timeout-minutes:30}") long timeoutMinutes,
+                            @Value("${callcat.events.heartbeat-seconds:20}") long heartbeatSeconds,
+                            @Value("${callcat.events.buffer-size:32}") int bufferSize,
+                            @Value("${callcat.events.replay-size:50}") int replaySize,
+                            @Value("${callcat.events.replay-seconds:300}") long replaySeconds,
+                            @Value("${callcat.events.max-connections-per-user:5}") int maxConnectionsPerUser) {
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.replayWindow = Duration.ofSeconds(replaySeconds);
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+    }
+
+    /**
+     * Opens an event stream for the user.
+     *
+     * @param lastEventId the Last-Event-ID header of a reconnecting client, or null
+     */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        return subscribe(userId, lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String userId, String lastEventId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        Subscription evicted = null;
+        synchronized (this) {
+            List<Subscription> userSubscriptions = subscriptions.computeIfAbsent(userId, id -> new ArrayList<>());
+            if (userSubscriptions.size() >= maxConnectionsPerUser) {
+                evicted = userSubscriptions.remove(0); // Most likely a tab left open somewhere
+            }
+            userSubscriptions.add(subscription);
+            if (lastEventId != null) {
+                replay(userId, lastEventId, subscription);
+            }
+        }
+        if (evicted != null) {
+            evicted.close();
+        }
+
+        subscription.start();
+        return emitter;
+    }
+
+    /**
+     * Tells the call's owner its status (or dial outcome) changed.
+     */
+    public void publishStatus(CallRecord callRecord) {
+        publish(callRecord.getUserId(), STATUS_EVENT, CallMapper.toResponse(callRecord));
+    }
+
+    /**
+     * Tells the call's owner the call was analyzed, so its transcript and Retell data can be read.
+     */
+    public void publishTranscriptReady(CallRecord callRecord) {
+        publish(callRecord.getUserId(), TRANSCRIPT_READY_EVENT, CallMapper.toResponse(callRecord));
+    }
+
+    private void publish(String userId, String name, CallResponse data) {
+        if (userId == null) {
+            return;
+        }
+        List<Subscription> overflowed = new ArrayList<>();
+        synchronized (this) {
+            Event event = new Event(++lastEventId, name, data);
+
+            History history = histories.get(userId);
+            if (history == null) {
+                history = new History(event.id() - 1);
+            }
+            history.add(event, replaySize);
+            histories.put(userId, history, replayWindow);
+
+            for (Subscription subscription : subscriptions.getOrDefault(userId, List.of())) {
+                if (!subscription.offer(event)) {
+                    overflowed.add(subscription);
+                }
+            }
+            overflowed.forEach(this::removeLocked);
+        }
+        for (Subscription subscription : overflowed) {
+            logger.info("Closing event stream of {}: client is not keeping up", userId);
+            subscription.close();
+        }
+    }
+
+    // Caller holds the lock
+    private void replay(String userId, String lastEventId, Subscription subscription) {
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            after = -1;
+        }
+
+        History history = histories.get(userId);
+        List<Event> missed = history != null ? history.after(after) : List.of();
+        boolean complete = history != null
+                ? after >= history.coveredFrom && after <= this.lastEventId
+                : after == this.lastEventId; // Nothing at all was published since
+        if (!complete || missed.size() >= bufferSize) {
+            subscription.offer(new Event(this.lastEventId, RESYNC_EVENT, null));
+            return;
+        }
+        missed.forEach(subscription::offer);
+    }
+
+    private void remove(Subscription subscription) {
+        synchronized (this) {
+            removeLocked(subscription);
+        }
+        subscription.stop();
+    }
+
+    private void removeLocked(Subscription subscription) {
+        List<Subscription> userSubscriptions = subscriptions.get(subscription.userId);
+        if (userSubscriptions != null) {
+            userSubscriptions.remove(subscription);
+            if (userSubscriptions.isEmpty()) {
+                subscriptions.remove(subscription.userId);
+            }
+        }
+    }
+
+    /**
+     * Number of open event streams, across users.
+     */
+    public synchronized int connectionCount() {
+        return subscriptions.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        List<Subscription> open;
+        synchronized (this) {
+            open = subscriptions.values().stream().flatMap(List::stream).toList();
+            subscriptions.clear();
+        }
+        open.forEach(Subscription::close);
+    }
+
+    private record Event(long id, String name, CallResponse data) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            // Builders are single-use, so one is made per send
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().id(Long.toString(id)).name(name);
+            return data != null ? builder.data(data, MediaType.APPLICATION_JSON) : builder.data("{}");
+        }
+    }
+
+    /**
+     * A user's recent events. Holds every event of the user with an id above coveredFrom.
+     */
+    private static final class History {
+        private final ArrayDeque<Event> events = new ArrayDeque<>();
+        private long coveredFrom;
+
+        History(long coveredFrom) {
+            this.coveredFrom = coveredFrom;
+        }
+
+        void add(Event event, int maxEvents) {
+            events.addLast(event);
+            while (events.size() > maxEvents) {
+                coveredFrom = events.removeFirst().id();
+            }
+        }
+
+        List<Event> after(long id) {
+            return events.stream().filter(event -> event.id() > id).toList();
+        }
+    }
+
+    private final class Subscription implements Runnable {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private volatile Thread writer;
+        private volatile boolean stopped;
+
+        Subscription(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        boolean offer(Event event) {
+            return queue.offer(event);
+        }
+
+        void start() {
+            Thread thread = WRITER_THREADS.newThread(this);
+            writer = thread;
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Opens the stream at once, so the client sees the connection before the first event
+                emitter.send(SseEmitter.event().comment("connected"));
+                while (!stopped) {
+                    Event event = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (stopped) {
+                        break;
+                    }
+                    emitter.send(event != null ? event.toSse() : SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed; the container reports it to the emitter
+                logger.debug("Event stream of {} closed: {}", userId, e.getMessage());
+                synchronized (CallEventService.this) {
+                    removeLocked(this);
+                }
+            }
+        }
+
+        void stop() {
+            stopped = true;
+            Thread thread = writer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Ends the stream from the server side; the client will reconnect.
+         */
+        void close() {
+            stop();
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                logger.debug("Event stream of {} was already closed: {}", userId, e.getMessage());
+            }
+        }
+    }
+}
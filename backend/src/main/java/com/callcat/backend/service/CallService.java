@@ -1,42 +1,94 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.config.AsyncConfig;
 import com.callcat.backend.dto.CallListResponse;
 import com.callcat.backend.dto.CallResponse;
 import com.callcat.backend.dto.CallRequest;
+import com.callcat.backend.dto.CallSummaryResponse;
+import com.callcat.backend.dto.MultiStatusCallListResponse;
+import com.callcat.backend.dto.PartialCallResponse;
+import com.callcat.backend.dto.RetellCall;
 import com.callcat.backend.dto.UpdateCallRequest;
+import com.callcat.backend.entity.CallCounters;
+import com.callcat.backend.entity.CallPayload;
 import com.callcat.backend.entity.CallRecord;
 import com.callcat.backend.entity.User;
 import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
+import com.callcat.backend.mapper.CallMapper;
+import com.callcat.backend.repository.CallCounterRepository;
+import com.callcat.backend.repository.CallPayloadRepository;
+import com.callcat.backend.repository.CallRecordPage;
 import com.callcat.backend.repository.CallRecordRepository;
-import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.repository.CallRecordUpdate;
+import com.callcat.backend.security.RequestUserContext;
 import com.callcat.backend.util.PhoneNumberValidator;
-import com.callcat.backend.util.BeanUpdateUtils;
+import com.callcat.backend.util.CompressionUtils;
+import com.callcat.backend.util.ETags;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
 public class CallService {
 
+    private static final Set<String> CALL_RESPONSE_FIELDS = Arrays.stream(BeanUtils.getPropertyDescriptors(CallResponse.class))
+            .map(PropertyDescriptor::getName)
+            .filter(name -> !"class".equals(name))
+            .collect(Collectors.toUnmodifiableSet());
+
+    // Every write increments version and sets updatedAt, so together they identify a call's state
+    private static final List<String> TAG_ATTRIBUTES = List.of("version", "updatedAt");
+
+    // What a list reads when no fields are selected: everything but retellCallData, which only
+    // the single-call endpoint returns. prompt stays in, the dashboard shows it on each call card.
+    static final Set<String> DEFAULT_LIST_ATTRIBUTES = Set.copyOf(withTagAttributes(CALL_RESPONSE_FIELDS.stream()
+            .filter(name -> !"retellCallData".equals(name))
+            .collect(Collectors.toSet())));
+
+    private static final int COUNTER_SEED_ATTEMPTS = 3;
+
     private final CallRecordRepository callRecordRepository;
-    private final UserRepositoryDynamoDb userRepository;
+    private final CallPayloadRepository callPayloadRepository;
+    private final CallCounterRepository callCounterRepository;
+    private final RequestUserContext requestUserContext;
     private final EventBridgeService eventBridgeService;
+    private final Executor ioExecutor;
 
     @Autowired
-    public CallService(CallRecordRepository callRecordRepository, UserRepositoryDynamoDb userRepository, EventBridgeService eventBridgeService) {
+    public CallService(CallRecordRepository callRecordRepository, CallPayloadRepository callPayloadRepository,
+                       CallCounterRepository callCounterRepository, RequestUserContext requestUserContext,
+                       EventBridgeService eventBridgeService, @Qualifier(AsyncConfig.IO_EXECUTOR) Executor ioExecutor) {
         this.callRecordRepository = callRecordRepository;
-        this.userRepository = userRepository;
+        this.callPayloadRepository = callPayloadRepository;
+        this.callCounterRepository = callCounterRepository;
+        this.requestUserContext = requestUserContext;
         this.eventBridgeService = eventBridgeService;
+        this.ioExecutor = ioExecutor;
     }
 
     public CallResponse createCall(String userEmail, CallRequest request) {
         String lowerCaseEmail = userEmail.toLowerCase();
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!Boolean.TRUE.equals(user.getIsActive())) {
@@ -51,8 +103,7 @@ public class CallService {
 
         long currentTime = System.currentTimeMillis();
         
-        CallRecord callRecord = new CallRecord();
-        BeanUpdateUtils.copyNonNullProperties(request, callRecord);
+        CallRecord callRecord = CallMapper.toRecord(request);
         
         // Default AI language to English if not provided
         if (callRecord.getAiLanguage() == null) {
@@ -71,9 +122,7 @@ public class CallService {
             eventBridgeService.scheduleCall(callRecord.getCallId(), callRecord.getScheduledFor());
         }
         
-        CallResponse response = new CallResponse();
-        BeanUtils.copyProperties(callRecord, response);
-        return response;
+        return CallMapper.toResponse(callRecord);
     }
 
     /**
@@ -83,10 +132,12 @@ public class CallService {
     public static class InstantCallResult {
         private final CallRecord callRecord;
         private final User user;
+        private final String systemPrompt;
 
-        public InstantCallResult(CallRecord callRecord, User user) {
+        public InstantCallResult(CallRecord callRecord, User user, String systemPrompt) {
             this.callRecord = callRecord;
             this.user = user;
+            this.systemPrompt = systemPrompt;
         }
 
         public CallRecord getCallRecord() {
@@ -97,16 +148,28 @@ public class CallService {
             return user;
         }
 
+        /**
+         * The user's system prompt from their preferences, or null if they have none.
+         */
+        public String getSystemPrompt() {
+            return systemPrompt;
+        }
+
         public CallResponse toCallResponse() {
-            CallResponse response = new CallResponse();
-            BeanUtils.copyProperties(callRecord, response);
-            return response;
+            return CallMapper.toResponse(callRecord);
         }
     }
 
     public InstantCallResult createInstantCall(String userEmail, CallRequest request) {
         String lowerCaseEmail = userEmail.toLowerCase();
-        UserDynamoDb userDynamo = userRepository.findByEmail(lowerCaseEmail)
+        // Independent of the user checks below, so read meanwhile; bypasses the request cache,
+        // but nothing else in an instant-call request reads the preferences
+        CompletableFuture<String> systemPrompt = CompletableFuture.supplyAsync(
+                () -> requestUserContext.findPreferences(lowerCaseEmail)
+                        .map(UserPreferencesDynamoDb::getSystemPrompt)
+                        .orElse(null),
+                ioExecutor);
+        UserDynamoDb userDynamo = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (!Boolean.TRUE.equals(userDynamo.getIsActive())) {
@@ -117,8 +180,7 @@ public class CallService {
 
         long currentTime = System.currentTimeMillis();
 
-        CallRecord callRecord = new CallRecord();
-        BeanUpdateUtils.copyNonNullProperties(request, callRecord);
+        CallRecord callRecord = CallMapper.toRecord(request);
 
         // Set scheduledFor to current time for DynamoDB consistency
         callRecord.setScheduledFor(currentTime);
@@ -149,12 +211,18 @@ public class CallService {
         user.setIsActive(userDynamo.getIsActive());
 
         // Return both call record and user for controller to use
-        return new InstantCallResult(callRecord, user);
+        return new InstantCallResult(callRecord, user, join(systemPrompt));
     }
 
-    public CallListResponse getCalls(String userEmail, String status, Integer limit) {
+    /**
+     * @param fields CallResponse fields to return, or null for every field but retellCallData
+     *               (use GET /api/calls/{callId} for that). Only those attributes are read from
+     *               DynamoDB, so narrowing them (e.g. leaving out prompt) makes the read smaller.
+     * @throws IllegalArgumentException on an unknown field name
+     */
+    public CallListResponse getCalls(String userEmail, String status, Integer limit, String cursor, List<String> fields) {
         String lowerCaseEmail = userEmail.toLowerCase();
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!Boolean.TRUE.equals(user.getIsActive())) {
@@ -165,24 +233,262 @@ public class CallService {
             throw new IllegalArgumentException("Status parameter is required");
         }
 
-        List<CallRecord> calls = callRecordRepository.findByUserIdAndStatus(user.getEmail(), status, limit);
+        Set<String> attributes = toAttributes(fields);
+        CallRecordPage page = callRecordRepository.findByUserIdAndStatus(user.getEmail(), status, limit, cursor,
+                readAttributesFor(attributes));
+
+        List<CallResponse> callResponses = page.getItems().stream()
+                .map(callRecord -> toListResponse(callRecord, attributes))
+                .collect(Collectors.toList());
+
+        CallListResponse response = new CallListResponse(callResponses, page.getNextCursor());
+        response.setETag(listETag(page.getItems(), List.of(String.valueOf(page.getNextCursor()))));
+        return response;
+    }
+
+    /**
+     * Lists several statuses in one go. Each status is its own byUserStatus partition, so the
+     * queries run concurrently and the response takes as long as the slowest of them.
+     *
+     * The limit and cursor apply per status; the merged list is ordered by scheduledFor#callId,
+     * newest first. A status whose cursor is null in the returned map has no more results.
+     * Fields work as in {@link #getCalls}.
+     */
+    public MultiStatusCallListResponse getCallsByStatuses(String userEmail, List<String> statuses, Integer limit,
+                                                          Map<String, String> cursors, List<String> fields) {
+        String lowerCaseEmail = userEmail.toLowerCase();
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+             throw new RuntimeException("User is inactive");
+        }
+
+        if (statuses == null || statuses.isEmpty()) {
+            throw new IllegalArgumentException("At least one status is required");
+        }
+
+        Set<String> attributes = toAttributes(fields);
+        Set<String> readAttributes = readAttributesFor(attributes);
+        Map<String, CompletableFuture<CallRecordPage>> queries = new LinkedHashMap<>();
+        for (String status : statuses) {
+            String cursor = cursors.get(status);
+            queries.computeIfAbsent(status, s -> CompletableFuture.supplyAsync(
+                    () -> callRecordRepository.findByUserIdAndStatus(user.getEmail(), s, limit, cursor, readAttributes), ioExecutor));
+        }
+
+        List<CallRecord> merged = new ArrayList<>();
+        Map<String, String> nextCursors = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<CallRecordPage>> query : queries.entrySet()) {
+            CallRecordPage page = join(query.getValue());
+            merged.addAll(page.getItems());
+            nextCursors.put(query.getKey(), page.getNextCursor());
+        }
+        merged.sort(Comparator.comparing(CallRecord::getSk, Comparator.nullsLast(Comparator.reverseOrder())));
 
-        List<CallResponse> callResponses = calls.stream()
-                .map(callRecord -> {
-                    CallResponse response = new CallResponse();
-                    BeanUtils.copyProperties(callRecord, response);
-                    return response;
-                })
+        List<CallResponse> callResponses = merged.stream()
+                .map(callRecord -> toListResponse(callRecord, attributes))
                 .collect(Collectors.toList());
 
-        return new CallListResponse(callResponses);
+        MultiStatusCallListResponse response = new MultiStatusCallListResponse(callResponses, nextCursors);
+        List<String> cursorValues = nextCursors.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.toList());
+        response.setETag(listETag(merged, cursorValues));
+        return response;
+    }
+
+    /**
+     * Number of calls the user has per status, read from the user's counters item in one
+     * GetItem. The first time, the counters are seeded from a count of the calls stored so far.
+     */
+    public CallSummaryResponse getCallSummary(String userEmail) {
+        String lowerCaseEmail = userEmail.toLowerCase();
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+             throw new RuntimeException("User is inactive");
+        }
+
+        CallCounters counters = callCounterRepository.findById(user.getEmail())
+                .filter(existing -> Boolean.TRUE.equals(existing.getSeeded()))
+                .orElseGet(() -> seedCounters(user.getEmail()));
+
+        return new CallSummaryResponse(count(counters.getScheduled()), count(counters.getCompleted()),
+                count(counters.getFailed()));
+    }
+
+    /**
+     * Number of calls per status across all users, summed from the sharded global counters in
+     * one BatchGetItem. The first time, the counters are seeded with a full count of the table.
+     * Calls that change status while that count runs may be counted twice or not at all.
+     */
+    public CallSummaryResponse getGlobalCallSummary() {
+        CallCounters counters = callCounterRepository.findGlobal();
+        if (!Boolean.TRUE.equals(counters.getSeeded())) {
+            counters = seedGlobalCounters(counters);
+        }
+        return new CallSummaryResponse(count(counters.getScheduled()), count(counters.getCompleted()),
+                count(counters.getFailed()));
+    }
+
+    /**
+     * Stores the full count in the GLOBAL base item, minus what the shards already held when
+     * they were read, so base plus shards equals the count and later increments add on top.
+     */
+    private CallCounters seedGlobalCounters(CallCounters shardsBefore) {
+        Map<String, Long> counted = callRecordRepository.countAllByStatus();
+        long scheduled = counted.getOrDefault("SCHEDULED", 0L);
+        long completed = counted.getOrDefault("COMPLETED", 0L);
+        long failed = counted.getOrDefault("FAILED", 0L);
+
+        // The base item only ever receives the seed, so it is unchanged unless already seeded
+        if (callCounterRepository.seed(CallCounterRepository.GLOBAL_ID, null,
+                scheduled - shardsBefore.getScheduled(),
+                completed - shardsBefore.getCompleted(),
+                failed - shardsBefore.getFailed()).isEmpty()) {
+            return callCounterRepository.findGlobal(); // Seeded concurrently
+        }
+
+        CallCounters seeded = new CallCounters();
+        seeded.setId(CallCounterRepository.GLOBAL_ID);
+        seeded.setScheduled(scheduled);
+        seeded.setCompleted(completed);
+        seeded.setFailed(failed);
+        seeded.setSeeded(true);
+        return seeded;
+    }
+
+    /**
+     * Counts the user's calls and stores the counts, unless a call changed status while counting
+     * (its counter increment may be missing from the count); then it counts again. If calls keep
+     * changing, the last count is answered without storing it, and the next summary tries again.
+     */
+    private CallCounters seedCounters(String userId) {
+        for (int attempt = 1; ; attempt++) {
+            // Read before counting, so the seed can tell whether anything was counted in between
+            Optional<CallCounters> before = callCounterRepository.findLatestById(userId);
+            if (before.isPresent() && Boolean.TRUE.equals(before.get().getSeeded())) {
+                return before.get();
+            }
+            CompletableFuture<Long> scheduled = countAsync(userId, "SCHEDULED");
+            CompletableFuture<Long> completed = countAsync(userId, "COMPLETED");
+            CompletableFuture<Long> failed = countAsync(userId, "FAILED");
+            CallCounters counted = new CallCounters();
+            counted.setId(userId);
+            counted.setScheduled(join(scheduled));
+            counted.setCompleted(join(completed));
+            counted.setFailed(join(failed));
+
+            Optional<CallCounters> seeded = callCounterRepository.seed(userId, before.orElse(null),
+                    counted.getScheduled(), counted.getCompleted(), counted.getFailed());
+            if (seeded.isPresent() || attempt == COUNTER_SEED_ATTEMPTS) {
+                return seeded.orElse(counted);
+            }
+        }
+    }
+
+    private CompletableFuture<Long> countAsync(String userId, String status) {
+        return CompletableFuture.supplyAsync(() -> callRecordRepository.countByUserIdAndStatus(userId, status), ioExecutor);
+    }
+
+    private static long count(Long value) {
+        return value != null ? Math.max(0, value) : 0; // A lost decrement must not show as a negative count
+    }
+
+    private static Set<String> toAttributes(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        Set<String> attributes = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (!CALL_RESPONSE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            attributes.add(name); // CallResponse fields are named like the CallRecord attributes
+        }
+        return attributes;
+    }
+
+    private static Set<String> readAttributesFor(Set<String> attributes) {
+        return attributes == null ? DEFAULT_LIST_ATTRIBUTES : withTagAttributes(attributes);
+    }
+
+    private static Set<String> withTagAttributes(Set<String> attributes) {
+        Set<String> readAttributes = new LinkedHashSet<>(attributes);
+        readAttributes.addAll(TAG_ATTRIBUTES);
+        return readAttributes;
+    }
+
+    private static CallResponse toListResponse(CallRecord callRecord, Set<String> attributes) {
+        if (attributes == null) {
+            return CallMapper.toResponse(callRecord); // Default projection, retellCallData stays null
+        }
+        // A projected record only carries the read attributes, so copying it fills exactly those fields
+        CallResponse response = CallMapper.toResponse(callRecord, new PartialCallResponse());
+        if (!attributes.contains("updatedAt")) {
+            response.setUpdatedAt(null); // Only read for the ETag
+        }
+        return response;
+    }
+
+    private static String listETag(List<CallRecord> callRecords, List<String> cursors) {
+        List<Object> values = new ArrayList<>(callRecords.size() * 3 + cursors.size());
+        for (CallRecord callRecord : callRecords) {
+            values.add(callRecord.getCallId());
+            values.add(callRecord.getVersion());
+            values.add(callRecord.getUpdatedAt());
+        }
+        values.addAll(cursors);
+        return ETags.weak(values.toArray());
+    }
+
+    private static <T> T join(CompletableFuture<T> query) {
+        try {
+            return query.join();
+        } catch (CompletionException e) {
+            // Surface the repository's own exception (e.g. "Invalid cursor") rather than the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Weak ETag of {@link #getCall}'s response, from a projected read of the call's version and
+     * updatedAt (and, for calls that reached Retell, when their payload was written). Much
+     * cheaper than getCall, which reads and inflates the payload.
+     *
+     * Compute it before getCall: if the call changes in between, the response is newer than the
+     * tag, and the client's next request with that tag simply misses.
+     */
+    public String getCallETag(String callId) {
+        List<String> attributes = new ArrayList<>(TAG_ATTRIBUTES);
+        attributes.add("providerId");
+        CallRecord callRecord = callRecordRepository.findByCallId(callId, attributes)
+                .orElseThrow(() -> new RuntimeException("Call not found with ID: " + callId));
+
+        // The payload is written after the record, so it needs its own part of the tag
+        Long payloadUpdatedAt = callRecord.getProviderId() != null
+                ? callPayloadRepository.findUpdatedAtByCallId(callId).orElse(null)
+                : null;
+        return ETags.weak(callRecord.getVersion(), callRecord.getUpdatedAt(), payloadUpdatedAt);
     }
 
     public CallResponse getCall(String callId) {
         CallRecord callRecord = findCallByCallId(callId);
 
-        CallResponse response = new CallResponse();
-        BeanUtils.copyProperties(callRecord, response);
+        CallResponse response = CallMapper.toResponse(callRecord);
+
+        // Only calls that reached Retell have a payload; older items still carry it inline
+        if (response.getRetellCallData() == null && callRecord.getProviderId() != null) {
+            callPayloadRepository.findByCallId(callId)
+                    .map(payload -> CompressionUtils.inflate(payload.getData()))
+                    .ifPresent(response::setRetellCallData);
+        }
         return response;
     }
 
@@ -197,14 +503,26 @@ public class CallService {
             throw new IllegalArgumentException("Scheduled time must be in the future");
         }
 
-        BeanUpdateUtils.copyNonNullProperties(request, callRecord);
+        String previousSk = callRecord.getSk();
+        Long version = callRecord.getVersion();
+        CallMapper.applyUpdate(request, callRecord);
         callRecord.setUpdatedAt(System.currentTimeMillis());
 
-        callRecordRepository.save(callRecord);
-        
-        CallResponse response = new CallResponse();
-        BeanUtils.copyProperties(callRecord, response);
-        return response;
+        // scheduledFor is part of the sort key, so rescheduling has to move the item
+        if (!previousSk.equals(callRecord.getSk())) {
+            if (!callRecordRepository.replace(previousSk, callRecord, version)) {
+                throw new IllegalStateException("Call was changed by another request, please retry");
+            }
+            return CallMapper.toResponse(callRecord);
+        }
+
+        CallRecordUpdate update = CallMapper.toUpdate(request, callRecord)
+                .updatedAt(callRecord.getUpdatedAt())
+                .ifVersion(version);
+        CallRecord updated = callRecordRepository.update(update)
+                .orElseThrow(() -> new IllegalStateException("Call was changed by another request, please retry"));
+
+        return CallMapper.toResponse(updated);
     }
 
     public void deleteCall(String callId) {
@@ -215,33 +533,116 @@ public class CallService {
         }
 
         callRecordRepository.delete(callRecord);
+        callPayloadRepository.deleteByCallId(callId);
     }
 
     public void updateCallStatusWithRetellData(String callId, String status, Long completedAt, String retellCallId, Boolean dialSuccessful) {
         CallRecord callRecord = findCallByCallId(callId);
-        
-        callRecord.setStatus(status); // CallRecord.setStatus() handles validation
-        callRecord.setProviderId(retellCallId); // Store Retell's ID for future reference
-        
+
+        CallRecordUpdate update = CallRecordUpdate.of(callRecord)
+                .status(status) // CallRecordUpdate.status() handles validation
+                .providerId(retellCallId) // Store Retell's ID for future reference
+                .updatedAt(System.currentTimeMillis());
         if (completedAt != null) {
-            callRecord.setCompletedAt(completedAt);
+            update.completedAt(completedAt);
         }
         if (dialSuccessful != null) {
-            callRecord.setDialSuccessful(dialSuccessful);
+            update.dialSuccessful(dialSuccessful);
         }
-        callRecord.setUpdatedAt(System.currentTimeMillis());
-        
-        callRecordRepository.save(callRecord);
+
+        callRecordRepository.update(update)
+                .orElseThrow(() -> new RuntimeException("Call not found with ID: " + callId));
     }
 
     public void updateRetellCallData(String callId, JsonNode retellData) {
         CallRecord callRecord = findCallByCallId(callId);
-        
-        
-        callRecord.setRetellCallData(retellData.toString());
-        callRecord.setUpdatedAt(System.currentTimeMillis());
-        
-        callRecordRepository.save(callRecord);
+
+        if (updateCallRecord(CallRecordUpdate.of(callRecord), retellData).isEmpty()) {
+            throw new RuntimeException("Call not found with ID: " + callId);
+        }
+    }
+
+    /**
+     * Writes the Retell call JSON, byte for byte as Retell sent it, to the call's compressed
+     * payload item and takes it off the record, keeping only the duration there for list views.
+     * The caller saves the record; use {@link #updateCallRecord} for calls that are already stored.
+     */
+    public void storeRetellCallData(CallRecord callRecord, RetellCall retellCall) {
+        savePayload(callRecord.getCallId(), retellCall.json());
+
+        if (retellCall.durationMs() != null) {
+            callRecord.setDurationSec(durationSec(retellCall.durationMs()));
+        }
+        callRecord.setRetellCallData(null);
+    }
+
+    /**
+     * Applies a Retell event to a stored call: the update is written together with the duration
+     * from the Retell JSON, and only if its conditions hold is the JSON stored as the payload.
+     *
+     * @return the call as updated, or empty if the update's conditions no longer held (e.g. the
+     *         event arrived out of order); nothing is written then
+     */
+    public Optional<CallRecord> updateCallRecord(CallRecordUpdate update, JsonNode retellData) {
+        return updateCallRecord(update, durationSec(retellData), retellData.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@link #updateCallRecord(CallRecordUpdate, JsonNode)} for the call object Retell's API
+     * returned when it placed a stored call, whose JSON is stored byte for byte as Retell sent it.
+     */
+    public Optional<CallRecord> updateDialedCall(CallRecordUpdate update, RetellCall retellCall) {
+        Integer durationSec = retellCall.durationMs() != null ? durationSec(retellCall.durationMs()) : null;
+        return updateCallRecord(update, durationSec, retellCall.json());
+    }
+
+    private Optional<CallRecord> updateCallRecord(CallRecordUpdate update, Integer durationSec, byte[] json) {
+        if (durationSec != null) {
+            update.durationSec(durationSec);
+        }
+        update.removeRetellCallData().updatedAt(System.currentTimeMillis());
+
+        Optional<CallRecord> updated = callRecordRepository.update(update);
+        if (updated.isPresent()) {
+            savePayload(update.getCallId(), json);
+        }
+        return updated;
+    }
+
+    /**
+     * Marks a stored call whose dial failed as FAILED. Only the status fields are written, and
+     * only if the call still exists.
+     *
+     * @return the call as updated, or empty if it was deleted meanwhile
+     */
+    public Optional<CallRecord> markDialFailed(CallRecord callRecord) {
+        long now = System.currentTimeMillis();
+        return callRecordRepository.update(CallRecordUpdate.of(callRecord)
+                .status("FAILED")
+                .completedAt(now)
+                .updatedAt(now)
+                .dialSuccessful(false));
+    }
+
+    private void savePayload(String callId, byte[] json) {
+        CallPayload payload = new CallPayload();
+        payload.setCallId(callId);
+        payload.setData(CompressionUtils.deflate(json));
+        payload.setRawSize(json.length);
+        payload.setUpdatedAt(System.currentTimeMillis());
+        callPayloadRepository.save(payload);
+    }
+
+    private static Integer durationSec(JsonNode retellData) {
+        JsonNode durationMs = retellData.get("duration_ms");
+        if (durationMs != null && durationMs.isNumber()) {
+            return durationSec(durationMs.asLong());
+        }
+        return null;
+    }
+
+    private static int durationSec(long durationMs) {
+        return (int) Math.round(durationMs / 1000.0);
     }
     
     public CallRecord findCallByCallId(String callId) {
@@ -1,5 +1,8 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.config.BulkheadConfig;
+import com.callcat.backend.util.Bulkhead;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -29,10 +32,13 @@ public class EmailService {
     
     private final SesClient sesClient;
     private final JavaMailSender gmailSender;
+    private final Bulkhead smtpBulkhead;
     
-    public EmailService(SesClient sesClient, JavaMailSender gmailSender) {
+    public EmailService(SesClient sesClient, JavaMailSender gmailSender,
+                        @Qualifier(BulkheadConfig.SMTP) Bulkhead smtpBulkhead) {
         this.sesClient = sesClient;
         this.gmailSender = gmailSender;
+        this.smtpBulkhead = smtpBulkhead;
     }
     
     // Using Spring Security's KeyGenerators for all token generation
@@ -211,7 +217,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(body, true); // true = HTML content
             
-            gmailSender.send(message);
+            smtpBulkhead.run(() -> gmailSender.send(message));
             System.out.println("✅ Email sent via Gmail SMTP to: " + toEmail);
             
         } catch (Exception e) {
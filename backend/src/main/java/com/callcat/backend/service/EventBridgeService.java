@@ -1,7 +1,9 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.config.AsyncConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
@@ -10,22 +12,66 @@ import software.amazon.awssdk.services.eventbridge.model.*;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 @Service
 public class EventBridgeService {
     
     private static final Logger logger = LoggerFactory.getLogger(EventBridgeService.class);
     
+    // Concurrent PutRule/PutTargets pairs during a bulk registration, to stay well under the API rate limits
+    private static final int BULK_SCHEDULE_CONCURRENCY = 8;
+
     private final EventBridgeClient eventBridgeClient;
+    private final Executor ioExecutor;
     
     @Value("${lambda.function.arn}")
     private String lambdaFunctionArn;
     
-    public EventBridgeService(EventBridgeClient eventBridgeClient) {
+    public EventBridgeService(EventBridgeClient eventBridgeClient, @Qualifier(AsyncConfig.IO_EXECUTOR) Executor ioExecutor) {
         this.eventBridgeClient = eventBridgeClient;
+        this.ioExecutor = ioExecutor;
     }
     
     public void scheduleCall(String callId, Long scheduledForMs) {
+        trySchedule(callId, scheduledForMs);
+    }
+
+    /**
+     * Registers many schedules at once. EventBridge has no batch API for rules, so the
+     * PutRule/PutTargets pairs run concurrently, a few at a time.
+     *
+     * @param scheduledForByCallId scheduled time (epoch ms) per call ID
+     * @return the call IDs whose schedule could not be registered
+     */
+    public Set<String> scheduleCalls(Map<String, Long> scheduledForByCallId) {
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        Semaphore permits = new Semaphore(BULK_SCHEDULE_CONCURRENCY);
+
+        List<CompletableFuture<Void>> registrations = scheduledForByCallId.entrySet().stream()
+                .map(entry -> CompletableFuture.runAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        if (!trySchedule(entry.getKey(), entry.getValue())) {
+                            failed.add(entry.getKey());
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }, ioExecutor))
+                .toList();
+        CompletableFuture.allOf(registrations.toArray(new CompletableFuture[0])).join();
+
+        return failed;
+    }
+
+    private boolean trySchedule(String callId, Long scheduledForMs) {
         try {
             String ruleName = "CallCat-" + callId;
             String cronExpression = createCronExpression(scheduledForMs);
@@ -54,9 +100,11 @@ public class EventBridgeService {
             
             logger.info("Successfully scheduled call {} for {}", callId, 
                     Instant.ofEpochMilli(scheduledForMs).toString());
+            return true;
             
         } catch (Exception e) {
             logger.error("Failed to schedule call {}: {}", callId, e.getMessage());
+            return false;
         }
     }
     
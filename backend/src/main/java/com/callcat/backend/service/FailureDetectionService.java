@@ -2,6 +2,7 @@ package com.callcat.backend.service;
 
 import com.callcat.backend.entity.CallRecord;
 import com.callcat.backend.repository.CallRecordRepository;
+import com.callcat.backend.repository.CallRecordUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +10,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class FailureDetectionService {
@@ -16,12 +18,14 @@ public class FailureDetectionService {
     private static final Logger logger = LoggerFactory.getLogger(FailureDetectionService.class);
 
     private final CallRecordRepository callRecordRepository;
+    private final CallEventService callEventService;
 
     @Value("${callcat.failure.timeout.minutes:15}")
     private int failureTimeoutMinutes;
 
-    public FailureDetectionService(CallRecordRepository callRecordRepository) {
+    public FailureDetectionService(CallRecordRepository callRecordRepository, CallEventService callEventService) {
         this.callRecordRepository = callRecordRepository;
+        this.callEventService = callEventService;
     }
 
     /**
@@ -34,6 +38,13 @@ public class FailureDetectionService {
      */
     @Scheduled(fixedRateString = "${callcat.failure.check.interval:300000}") // 5 minutes default
     public void detectFailedCalls() {
+        markOverdueCalls();
+    }
+
+    /**
+     * @return the number of calls marked as failed
+     */
+    private int markOverdueCalls() {
         try {
             long currentTime = System.currentTimeMillis();
             long timeoutMillis = failureTimeoutMinutes * 60 * 1000L;
@@ -44,57 +55,68 @@ public class FailureDetectionService {
             // Optimized: Only fetch calls that are actually overdue
             List<CallRecord> overdueCalls = callRecordRepository.findOverdueScheduledCalls(thresholdTime);
 
+            int marked = 0;
             for (CallRecord call : overdueCalls) {
                 long overdueTime = currentTime - (call.getScheduledFor() != null ? call.getScheduledFor() : currentTime);
-                markCallAsFailed(call, overdueTime);
+                if (markCallAsFailed(call, overdueTime)) {
+                    marked++;
+                }
             }
 
             if (!overdueCalls.isEmpty()) {
-                logger.info("Marked {} overdue calls as failed (COMPLETED with dialSuccessful=false)", overdueCalls.size());
+                logger.info("Marked {} overdue calls as failed (COMPLETED with dialSuccessful=false)", marked);
             } else {
                 logger.debug("No overdue calls found");
             }
+            return marked;
 
         } catch (Exception e) {
             logger.error("Error during failure detection: {}", e.getMessage(), e);
+            return 0;
         }
     }
 
     /**
      * Mark a specific call as failed due to timeout.
      * Sets status to COMPLETED with dialSuccessful = false to indicate failure.
+     * Skipped if the call left SCHEDULED since the scan (e.g. a webhook arrived meanwhile).
      */
-    private void markCallAsFailed(CallRecord call, long overdueTime) {
+    private boolean markCallAsFailed(CallRecord call, long overdueTime) {
         try {
-            call.setStatus("COMPLETED");
-            call.setCompletedAt(System.currentTimeMillis());
-            call.setUpdatedAt(System.currentTimeMillis());
-            call.setDialSuccessful(false);
-
-            callRecordRepository.save(call);
+            long now = System.currentTimeMillis();
+            CallRecordUpdate update = CallRecordUpdate.of(call)
+                    .status("COMPLETED")
+                    .completedAt(now)
+                    .updatedAt(now)
+                    .dialSuccessful(false)
+                    .ifStatus("SCHEDULED");
+
+            Optional<CallRecord> updated = callRecordRepository.update(update);
+            if (updated.isEmpty()) {
+                logger.info("Call {} is no longer scheduled, not marking it as failed", call.getCallId());
+                return false;
+            }
+            callEventService.publishStatus(updated.get());
 
             logger.warn("Marked call {} as failed (COMPLETED with dialSuccessful=false) - overdue by {} minutes (scheduled: {}, timeout: {} min)",
                     call.getCallId(),
                     overdueTime / (60 * 1000L),
                     call.getScheduledFor(),
                     failureTimeoutMinutes);
+            return true;
 
         } catch (Exception e) {
             logger.error("Failed to mark call {} as failed: {}", call.getCallId(), e.getMessage());
+            return false;
         }
     }
 
     /**
      * Manual method to trigger failure detection (useful for testing)
+     *
+     * @return the number of calls marked as failed
      */
     public int detectAndMarkFailedCalls() {
-        List<CallRecord> initialScheduledCalls = callRecordRepository.findAllByStatus("SCHEDULED");
-        int initialCount = initialScheduledCalls.size();
-
-        detectFailedCalls();
-
-        // Return count of newly failed calls
-        List<CallRecord> remainingScheduledCalls = callRecordRepository.findAllByStatus("SCHEDULED");
-        return initialCount - remainingScheduledCalls.size();
+        return markOverdueCalls();
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.util.BoundedTtlCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -8,20 +10,41 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
+    // Claims that let the authentication filter build the principal without a user lookup
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+    
+    // Upper bound on verified tokens kept in memory; roughly one per active session
+    private static final int MAX_CACHED_TOKENS = 1000;
+    
     @Value("${jwt.secret}")
     private String secretKey;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
     
+    // Built once on first use - decoding the secret and building a parser per call is wasted work
+    private volatile SecretKey signInKey;
+    private volatile JwtParser jwtParser;
+    
+    // Claims of tokens whose signature was already checked, keyed by SHA-256 of the token.
+    // Entries expire together with the token, so an expired token always goes back to the parser.
+    private final BoundedTtlCache<String, Claims> verifiedClaims = new BoundedTtlCache<>(MAX_CACHED_TOKENS);
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -40,12 +63,29 @@ public class JwtService {
     }
     
     public String generateToken(String email, Long userId, String fullName) {
-        Map<String, Object> claims = new HashMap<>();
+        return generateToken(email, userId, fullName, new HashMap<>());
+    }
+    
+    /**
+     * Issues a token for a stored user, embedding role, active flag and token version
+     * so the stateless principal mode can authenticate requests from the claims alone.
+     */
+    public String generateToken(UserDynamoDb user) {
+        Map<String, Object> principalClaims = new HashMap<>();
+        principalClaims.put(CLAIM_ROLE, user.getRole() != null ? user.getRole().name() : null);
+        principalClaims.put(CLAIM_ACTIVE, Boolean.TRUE.equals(user.getIsActive()));
+        principalClaims.put(CLAIM_TOKEN_VERSION, TokenVersionService.versionOf(user));
+        
+        return generateToken(user.getEmail(), null, user.getFullName(), principalClaims);
+    }
+    
+    private String generateToken(String email, Long userId, String fullName, Map<String, Object> claims) {
         claims.put("userId", userId);
         claims.put("fullName", fullName);
         
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
@@ -64,6 +104,7 @@ public class JwtService {
     ) {
         return Jwts.builder()
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
@@ -72,38 +113,96 @@ public class JwtService {
     }
     
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+    
+    /**
+     * Validates already verified claims against a user, so callers that hold the claims
+     * (e.g. the authentication filter) don't trigger another lookup.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null
+                && username.equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
     }
     
     public boolean isTokenValid(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            Claims claims = extractAllClaims(token);
+            return !claims.getExpiration().before(new Date());
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
     
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Claims extractAllClaims(String token) {
+        return verifyToken(token);
+    }
+    
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     * A token is only parsed and HMAC-checked the first time it is seen; later calls
+     * are served from the verified-claims cache until the token expires.
+     *
+     * @throws JwtException if the token is malformed, has a bad signature or is expired
+     * @throws IllegalArgumentException if the token is null or empty
+     */
+    public Claims verifyToken(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token must not be empty");
+        }
+        
+        String cacheKey = hashToken(token);
+        Claims cached = verifiedClaims.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = getParser().parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(cacheKey, claims, claims.getExpiration().getTime());
+        }
+        return claims;
     }
     
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Returns the identifier used to revoke a token: its jti claim, or the token itself for
+     * tokens issued before every token carried one.
+     */
+    public String extractTokenId(Claims claims, String token) {
+        String tokenId = claims.getId();
+        return tokenId != null && !tokenId.isEmpty() ? tokenId : token;
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSignInKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
     }
     
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signInKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = key;
+        }
+        return key;
+    }
+    
+    private static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
     
     public Long extractUserId(String token) {
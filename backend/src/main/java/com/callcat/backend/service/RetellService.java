@@ -1,30 +1,88 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.config.AsyncConfig;
+import com.callcat.backend.config.BulkheadConfig;
 import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.dto.RetellCall;
 import com.callcat.backend.entity.CallRecord;
-import com.callcat.backend.util.BeanUpdateUtils;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.mapper.CallMapper;
+import com.callcat.backend.repository.CallRecordUpdate;
+import com.callcat.backend.util.BoundedTtlCache;
+import com.callcat.backend.util.Bulkhead;
+import com.callcat.backend.util.CircuitBreaker;
+import com.callcat.backend.util.RetryBudget;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import jakarta.annotation.PostConstruct;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 /**
- * Boilerplate template for API service classes
- * This shows the standard pattern for making HTTP requests in Spring Boot
+ * Client for the Retell API.
+ *
+ * Requests go out asynchronously on the shared HTTP/2 client, so no thread waits while Retell
+ * responds, and each stays within the Retell bulkhead until its response has arrived.
+ *
+ * Every request passes the Retell circuit breaker first, so while Retell is failing calls are
+ * turned away at once (503 + Retry-After) rather than each waiting out its timeout. Each
+ * operation has a deadline, and each attempt a timeout shorter than it; failures that are safe
+ * to repeat are retried with jittered backoff while the deadline and the retry budget allow.
+ * Reads of a call are also hedged: a second request goes out if the first is slow to answer.
+ *
+ * Call reads are shared, too: concurrent reads of one call wait for the same request, and its
+ * result is cached briefly while the call is in progress and longer once it has ended, so
+ * several viewers of one call cost Retell about one request per TTL. Callers get their own copy.
  */
 @Service
 public class RetellService {
     
     private static final Logger logger = LoggerFactory.getLogger(RetellService.class);
+
+    private static final long BACKOFF_BASE_MS = 200;
+    private static final long BACKOFF_MAX_MS = 2000;
+    // Saving a call Retell has accepted is retried, since the phone is already ringing
+    private static final int SAVE_ATTEMPTS = 3;
+    private static final long SAVE_BACKOFF_MS = 100;
+
+    private static final int MAX_CACHED_CALLS = 500;
+    // Retell call_status values after which the call object only changes by post-call analysis
+    private static final Set<String> FINAL_CALL_STATUSES = Set.of("ended", "error", "not_connected");
     
     // Configuration from application.properties
     @Value("${retell.api.key}")
@@ -36,32 +94,63 @@ public class RetellService {
     @Value("${retell.phone.number}")
     private String phoneNumber;
 
-    // Spring beans for HTTP calls and JSON processing
-    private RestClient restClient;
+    @Value("${callcat.retell.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${callcat.retell.create-call.deadline-ms:30000}")
+    private long createCallDeadlineMs;
+
+    @Value("${callcat.retell.create-call.attempt-timeout-ms:10000}")
+    private long createCallAttemptTimeoutMs;
+
+    @Value("${callcat.retell.get-call.deadline-ms:15000}")
+    private long getCallDeadlineMs;
+
+    @Value("${callcat.retell.get-call.attempt-timeout-ms:5000}")
+    private long getCallAttemptTimeoutMs;
+
+    @Value("${callcat.retell.get-call.hedge-delay-ms:2000}")
+    private long getCallHedgeDelayMs;
+
+    // 0 disables caching
+    @Value("${callcat.cache.retell-calls.live-ttl-ms:1500}")
+    private long liveCallCacheTtlMs;
+
+    @Value("${callcat.cache.retell-calls.ended-ttl-ms:30000}")
+    private long endedCallCacheTtlMs;
+
+    private final BoundedTtlCache<String, JsonNode> callCache = new BoundedTtlCache<>(MAX_CACHED_CALLS);
+    private final Map<String, CompletableFuture<JsonNode>> callsInFlight = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final UserService userService;
     private final CallService callService;
-    private final HttpComponentsClientHttpRequestFactory httpRequestFactory;
+    private final Executor ioExecutor;
+    private final Bulkhead retellBulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
     
-    public RetellService(UserService userService, CallService callService, HttpComponentsClientHttpRequestFactory httpRequestFactory) {
-        this.objectMapper = new ObjectMapper();
+    public RetellService(UserService userService, CallService callService, HttpClient httpClient, ObjectMapper objectMapper,
+                         @Qualifier(AsyncConfig.IO_EXECUTOR) Executor ioExecutor,
+                         @Qualifier(BulkheadConfig.RETELL) Bulkhead retellBulkhead,
+                         CircuitBreaker retellCircuitBreaker, RetryBudget retellRetryBudget,
+                         MeterRegistry meterRegistry) {
         this.userService = userService;
         this.callService = callService;
-        this.httpRequestFactory = httpRequestFactory;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.ioExecutor = ioExecutor;
+        this.retellBulkhead = retellBulkhead;
+        this.circuitBreaker = retellCircuitBreaker;
+        this.retryBudget = retellRetryBudget;
+        FunctionCounter.builder("callcat.cache.hits", callCache, BoundedTtlCache::hitCount)
+                .tag("cache", "retell-calls")
+                .register(meterRegistry);
+        FunctionCounter.builder("callcat.cache.misses", callCache, BoundedTtlCache::missCount)
+                .tag("cache", "retell-calls")
+                .register(meterRegistry);
     }
-    
-    @PostConstruct
-    private void initializeRestClient() {
-        this.restClient = RestClient.builder()
-            .requestFactory(httpRequestFactory) // Use configured HTTP client with connection pooling
-            .baseUrl(baseUrl)
-            .defaultHeader("Authorization", "Bearer " + apiKey)
-            .defaultHeader("Content-Type", "application/json")
-            .build();
-            
-        logger.info("RestClient initialized with connection pooling - max 20 total connections, 10 per route");
-    }
-
 
     /**
      * Make a call using Retell API - optimized version that accepts CallRecord directly
@@ -72,43 +161,122 @@ public class RetellService {
      * @return CallResponse with updated provider information
      */
     public CallResponse makeCall(CallRecord callRecord, String systemPrompt) {
+        return join(makeCallAsync(callRecord, systemPrompt));
+    }
+
+    /**
+     * {@link #makeCall(CallRecord, String)} without blocking the caller: completes once Retell
+     * accepted the call and the record (with its providerId) was saved.
+     *
+     * @return completes with the call, or exceptionally with a {@link ThrottledException} if Retell
+     *         was not called (circuit breaker open, bulkhead full), a {@link CallNotSavedException} if
+     *         Retell placed the call but it could not be saved, or a "Failed to create call" exception
+     */
+    public CompletableFuture<CallResponse> makeCallAsync(CallRecord callRecord, String systemPrompt) {
+        return makeCallAsync(callRecord, systemPrompt, false);
+    }
+
+    /**
+     * {@link #makeCallAsync(CallRecord, String)} for a call that is already stored: instead of
+     * saving the whole record, only its providerId and duration are written, and only if the call
+     * still exists. A call deleted while Retell dialed it stays deleted, and nothing written to it
+     * meanwhile is overwritten.
+     */
+    public CompletableFuture<CallResponse> makeStoredCallAsync(CallRecord callRecord, String systemPrompt) {
+        return makeCallAsync(callRecord, systemPrompt, true);
+    }
+
+    private CompletableFuture<CallResponse> makeCallAsync(CallRecord callRecord, String systemPrompt, boolean stored) {
+        String callId = callRecord.getCallId();
+        logger.info("Making POST request to Retell API for phone: {}", callRecord.getPhoneNumber());
+
+        CompletableFuture<byte[]> response;
         try {
-            String callId = callRecord.getCallId();
-            Map<String, Object> requestBody = buildRetellRequestBody(callRecord, systemPrompt, callId);
-            logger.info("Making POST request to Retell API for phone: {}", callRecord.getPhoneNumber());
-
-            String responseBody = restClient.post()
-                .uri("/create-phone-call")
-                .body(requestBody)
-                .retrieve()
-                .body(String.class);
-
-            logger.info("Retell API call successful");
-
-            // Parse Retell response
-            JsonNode retellResponse = objectMapper.readTree(responseBody);
-
-            // Convert to CallResponse DTO
-            CallResponse response = convertToCallResponse(callRecord, retellResponse);
-
-            // Update the CallRecord with the providerId from Retell
-            callRecord.setProviderId(retellResponse.get("call_id").asText());
-            callRecord.setRetellCallData(objectMapper.writeValueAsString(retellResponse));
-            
-            // Only save if this has a userId (not a demo call)
-            // Demo calls are ephemeral and should not be persisted
-            if (callRecord.getUserId() != null) {
-                callService.saveCallRecord(callRecord);
-                logger.info("Updated call record with providerId: {}", callRecord.getProviderId());
-            } else {
-                logger.info("Demo call - skipping database save (ephemeral)");
-            }
+            byte[] requestBody = objectMapper.writeValueAsBytes(buildRetellRequestBody(callRecord, systemPrompt, callId));
+            response = sendWithRetries(
+                    request("/create-phone-call").POST(HttpRequest.BodyPublishers.ofByteArray(requestBody)),
+                    Duration.ofMillis(createCallAttemptTimeoutMs), deadline(createCallDeadlineMs),
+                    RetellService::isSafeToResendCreate, false);
+        } catch (JsonProcessingException | RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
 
-            return response;
+        // Saving blocks on DynamoDB, so it runs on the I/O executor
+        return response
+                .thenApplyAsync(body -> onCallCreated(callRecord, body, stored), ioExecutor)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof ThrottledException throttled) {
+                        logger.warn("Retell API not called for callId {}: {}", callId, throttled.getMessage());
+                        throw throttled;
+                    }
+                    if (cause instanceof CallNotSavedException notSaved) {
+                        throw notSaved;
+                    }
+                    logger.error("Retell API call failed for callId {}: {}", callId, cause.getMessage());
+                    throw new RuntimeException("Failed to create call", cause);
+                });
+    }
 
-        } catch (Exception e) {
-            logger.error("Retell API call failed for callId {}: {}", callRecord.getCallId(), e.getMessage());
-            throw new RuntimeException("Failed to create call", e);
+    private CallResponse onCallCreated(CallRecord callRecord, byte[] responseBody, boolean stored) {
+        logger.info("Retell API call successful");
+        RetellCall retellCall = parseCall(responseBody);
+
+        CallResponse response = convertToCallResponse(callRecord, retellCall.callId());
+
+        // Update the CallRecord with the providerId from Retell
+        callRecord.setProviderId(retellCall.callId());
+
+        // Only save if this has a userId (not a demo call)
+        // Demo calls are ephemeral and should not be persisted
+        if (callRecord.getUserId() != null) {
+            saveDialedCall(callRecord, retellCall, stored);
+        } else {
+            logger.info("Demo call - skipping database save (ephemeral)");
+        }
+
+        return response;
+    }
+
+    /**
+     * Saves a call Retell has accepted, retrying a failed save: until the record holds its
+     * providerId, the call's webhooks can't find it. A stored call is updated rather than saved,
+     * and is left alone if it was deleted meanwhile.
+     *
+     * @throws CallNotSavedException if the last attempt failed as well
+     */
+    private void saveDialedCall(CallRecord callRecord, RetellCall retellCall, boolean stored) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (stored) {
+                    Optional<CallRecord> updated = callService.updateDialedCall(
+                            CallRecordUpdate.of(callRecord).providerId(retellCall.callId()), retellCall);
+                    if (updated.isEmpty()) {
+                        logger.info("Call {} was deleted while Retell placed it as {}, not storing it",
+                                callRecord.getCallId(), retellCall.callId());
+                        return;
+                    }
+                } else {
+                    callService.storeRetellCallData(callRecord, retellCall);
+                    callService.saveCallRecord(callRecord);
+                }
+                logger.info("Updated call record with providerId: {}", callRecord.getProviderId());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= SAVE_ATTEMPTS) {
+                    logger.error("Call {} was placed with Retell as {} but could not be saved: {}",
+                            callRecord.getCallId(), retellCall.callId(), e.getMessage());
+                    throw new CallNotSavedException(callRecord.getCallId(), retellCall.callId(), e);
+                }
+                logger.warn("Saving placed call {} failed (attempt {} of {}), retrying: {}",
+                        callRecord.getCallId(), attempt, SAVE_ATTEMPTS, e.getMessage());
+            }
+            try {
+                Thread.sleep(SAVE_BACKOFF_MS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CallNotSavedException(callRecord.getCallId(), retellCall.callId(), e);
+            }
         }
     }
 
@@ -124,9 +292,11 @@ public class RetellService {
             CallRecord callRecord = callService.findCallByCallId(callId);
             String systemPrompt = userService.getUserPreferences(callRecord.getUserId()).getSystemPrompt();
 
-            // Delegate to the optimized method
-            return makeCall(callRecord, systemPrompt);
+            // Stored already, so only the providerId is written, and not if the call was deleted meanwhile
+            return join(makeStoredCallAsync(callRecord, systemPrompt));
 
+        } catch (ThrottledException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Retell API call failed for callId {}: {}", callId, e.getMessage());
             throw new RuntimeException("Failed to create call", e);
@@ -134,24 +304,313 @@ public class RetellService {
     }
 
     public JsonNode getCall(String retellCallId) {
+        return join(getCallAsync(retellCallId));
+    }
+
+    /**
+     * The call's current state from Retell (transcript so far, status, ...), at most a cache TTL old.
+     *
+     * @return completes with the call object, or exceptionally with a {@link ThrottledException} if
+     *         Retell was not called or a "Failed to get call details" exception
+     */
+    public CompletableFuture<JsonNode> getCallAsync(String retellCallId) {
+        JsonNode cached = callCache.get(retellCallId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.deepCopy());
+        }
+
+        CompletableFuture<JsonNode> call = new CompletableFuture<>();
+        CompletableFuture<JsonNode> inFlight = callsInFlight.putIfAbsent(retellCallId, call);
+        if (inFlight != null) {
+            logger.debug("Joining the in-flight Retell request for call ID: {}", retellCallId);
+            return inFlight.thenApply(JsonNode::deepCopy);
+        }
+
+        fetchCall(retellCallId).whenComplete((node, e) -> {
+            // Cached before the request leaves the in-flight map, so no reader misses both
+            if (e == null) {
+                callCache.put(retellCallId, node, callCacheTtl(node));
+            }
+            callsInFlight.remove(retellCallId, call);
+            if (e == null) {
+                call.complete(node);
+            } else {
+                call.completeExceptionally(unwrap(e));
+            }
+        });
+        return call.thenApply(JsonNode::deepCopy);
+    }
+
+    private CompletableFuture<JsonNode> fetchCall(String retellCallId) {
+        logger.info("Getting call details from Retell API for call ID: {}", retellCallId);
+
+        CompletableFuture<byte[]> response;
         try {
-            logger.info("Getting call details from Retell API for call ID: {}", retellCallId);
-            
-            String responseBody = restClient.get()
-                .uri("/get-call/{callId}", retellCallId)
-                .retrieve()
-                .body(String.class);
-            
-            logger.info("Retell API get call successful");
-            
-            return objectMapper.readTree(responseBody);
-            
-        } catch (Exception e) {
-            logger.error("Failed to get call from Retell API for callId {}: {}", retellCallId, e.getMessage());
-            throw new RuntimeException("Failed to get call details", e);
+            response = sendWithRetries(
+                    request("/get-call/" + URLEncoder.encode(retellCallId, StandardCharsets.UTF_8)).GET(),
+                    Duration.ofMillis(getCallAttemptTimeoutMs), deadline(getCallDeadlineMs),
+                    RetellService::isTransient, true);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
         }
+
+        return response
+                .thenApply(body -> {
+                    logger.info("Retell API get call successful");
+                    try {
+                        return objectMapper.readTree(body);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof ThrottledException throttled) {
+                        throw throttled;
+                    }
+                    logger.error("Failed to get call from Retell API for callId {}: {}", retellCallId, cause.getMessage());
+                    throw new RuntimeException("Failed to get call details", cause);
+                });
     }
-    
+
+    private Duration callCacheTtl(JsonNode call) {
+        boolean ended = FINAL_CALL_STATUSES.contains(call.path("call_status").asText());
+        return Duration.ofMillis(ended ? endedCallCacheTtlMs : liveCallCacheTtlMs);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json");
+    }
+
+    /**
+     * Sends a request, and sends it again after a jittered backoff while its failure is one that
+     * retryable accepts, attempts and time before the deadline are left, and the retry budget allows.
+     *
+     * @return the body of a 2xx response
+     */
+    private CompletableFuture<byte[]> sendWithRetries(HttpRequest.Builder request, Duration attemptTimeout,
+                                                      long deadline, Predicate<Throwable> retryable, boolean hedged) {
+        retryBudget.onCall();
+        return sendAttempt(request, attemptTimeout, deadline, retryable, hedged, 1);
+    }
+
+    private CompletableFuture<byte[]> sendAttempt(HttpRequest.Builder request, Duration attemptTimeout, long deadline,
+                                                  Predicate<Throwable> retryable, boolean hedged, int attempt) {
+        CompletableFuture<byte[]> response = hedged
+                ? sendHedged(request, attemptTimeout, deadline)
+                : send(request, attemptTimeout, deadline);
+        return response
+                .handle((body, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(body);
+                    }
+                    Throwable cause = unwrap(e);
+                    // Full jitter, so callers that failed together don't all come back together
+                    long backoffMs = ThreadLocalRandom.current().nextLong(
+                            Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << (attempt - 1)) + 1);
+                    if (attempt >= maxAttempts || !retryable.test(cause)
+                            || remainingMillis(deadline) <= backoffMs || !retryBudget.tryAcquire()) {
+                        return CompletableFuture.<byte[]>failedFuture(cause);
+                    }
+                    logger.warn("Retell request attempt {} failed ({}), retrying in {} ms", attempt, cause.getMessage(), backoffMs);
+                    return CompletableFuture.runAsync(() -> { },
+                                    CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS, ioExecutor))
+                            .thenCompose(ignored -> sendAttempt(request, attemptTimeout, deadline, retryable, hedged, attempt + 1));
+                })
+                .thenCompose(next -> next);
+    }
+
+    /**
+     * Sends one request through the circuit breaker and the Retell bulkhead, holding the bulkhead
+     * permit until the response is in. The request times out after attemptTimeout, or sooner if
+     * the deadline is closer. Cancelling the returned future aborts the exchange.
+     *
+     * @return the body of a 2xx response
+     */
+    private CompletableFuture<byte[]> send(HttpRequest.Builder request, Duration attemptTimeout, long deadline) {
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (ThrottledException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            retellBulkhead.acquire();
+        } catch (RuntimeException e) {
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // Taken after the bulkhead wait, which counts against the deadline too
+        long timeoutMs = Math.min(attemptTimeout.toMillis(), remainingMillis(deadline));
+        if (timeoutMs <= 0) {
+            retellBulkhead.release();
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(new HttpTimeoutException("Deadline passed before the request to Retell was sent"));
+        }
+        HttpRequest httpRequest = request.copy().timeout(Duration.ofMillis(timeoutMs)).build();
+
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            response = httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            retellBulkhead.release();
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((r, e) -> {
+            retellBulkhead.release();
+            recordOutcome(r, e);
+        });
+
+        CompletableFuture<byte[]> body = response.thenApply(r -> {
+            int status = r.statusCode();
+            if (status < 200 || status >= 300) {
+                throw new RetellStatusException(status, httpRequest);
+            }
+            return r.body();
+        });
+        body.whenComplete((b, e) -> {
+            if (body.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return body;
+    }
+
+    /**
+     * {@link #send} for idempotent requests: if no response has come within the hedge delay, the
+     * request goes out once more (retry budget permitting) and the first good response is used,
+     * the other request being cancelled. Fails only once every request sent has failed.
+     */
+    private CompletableFuture<byte[]> sendHedged(HttpRequest.Builder request, Duration attemptTimeout, long deadline) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        AtomicReference<CompletableFuture<byte[]>> hedge = new AtomicReference<>();
+
+        CompletableFuture<byte[]> primary = send(request, attemptTimeout, deadline);
+        primary.whenComplete((body, e) -> onHedgedResponse(result, pending, body, e));
+
+        CompletableFuture.delayedExecutor(getCallHedgeDelayMs, TimeUnit.MILLISECONDS, ioExecutor).execute(() -> {
+            if (result.isDone() || remainingMillis(deadline) <= 0 || !retryBudget.tryAcquire()) {
+                return;
+            }
+            // Counted before sending; if the primary already failed, the outcome is settled
+            if (pending.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                return;
+            }
+            logger.info("No response from Retell within {} ms, sending a hedged request", getCallHedgeDelayMs);
+            CompletableFuture<byte[]> second = send(request, attemptTimeout, deadline);
+            hedge.set(second);
+            second.whenComplete((body, e) -> onHedgedResponse(result, pending, body, e));
+            if (result.isDone()) {
+                second.cancel(true);
+            }
+        });
+
+        // The loser is cancelled before the caller sees the outcome
+        return result.whenComplete((body, e) -> {
+            primary.cancel(true);
+            CompletableFuture<byte[]> second = hedge.get();
+            if (second != null) {
+                second.cancel(true);
+            }
+        });
+    }
+
+    private static void onHedgedResponse(CompletableFuture<byte[]> result, AtomicInteger pending, byte[] body, Throwable e) {
+        if (e == null) {
+            result.complete(body);
+        } else if (pending.decrementAndGet() == 0) {
+            result.completeExceptionally(unwrap(e));
+        }
+    }
+
+    private void recordOutcome(HttpResponse<byte[]> response, Throwable e) {
+        if (e != null) {
+            if (unwrap(e) instanceof CancellationException) {
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onFailure();
+            }
+        } else if (response.statusCode() >= 500 || response.statusCode() == 429) {
+            circuitBreaker.onFailure();
+        } else {
+            // Other 4xx mean the request was wrong, not that Retell is unwell
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * Whether a failed create-phone-call can be sent again without risking a second phone call:
+     * the connection was never made, or Retell turned the request away (429, 503) before acting
+     * on it. Timeouts and other errors are not retried, as the call may have gone out.
+     */
+    private static boolean isSafeToResendCreate(Throwable e) {
+        if (e instanceof RetellStatusException status) {
+            return status.getStatusCode() == 429 || status.getStatusCode() == 503;
+        }
+        return hasCause(e, ConnectException.class) || hasCause(e, HttpConnectTimeoutException.class);
+    }
+
+    /**
+     * Whether a failed idempotent request may succeed if sent again: a network error or timeout,
+     * or a 429 or 5xx response.
+     */
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof RetellStatusException status) {
+            return status.getStatusCode() == 429 || status.getStatusCode() >= 500;
+        }
+        return hasCause(e, IOException.class);
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long deadline(long timeoutMs) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    /**
+     * Reads a Retell call object in one streaming pass, picking out the fields the backend needs
+     * and skipping everything else (transcript, analysis, ...) without building a tree.
+     */
+    RetellCall parseCall(byte[] json) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Retell response is not a JSON object");
+            }
+            String callId = null;
+            Long durationMs = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "call_id" -> callId = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    case "duration_ms" -> durationMs = value.isNumeric() ? parser.getLongValue() : null;
+                    default -> parser.skipChildren();
+                }
+            }
+            if (callId == null) {
+                throw new IllegalStateException("Retell response has no call_id");
+            }
+            return new RetellCall(callId, durationMs, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid JSON from Retell", e);
+        }
+    }
+
     /**
      * Build request body for Retell API call
      */
@@ -187,11 +646,66 @@ public class RetellService {
     /**
      * Convert Retell API response and CallRecord to CallResponse DTO
      */
-    private CallResponse convertToCallResponse(CallRecord callRecord, JsonNode retellResponse) {
-        CallResponse response = new CallResponse();
-        BeanUpdateUtils.copyNonNullProperties(callRecord, response);
-        response.setProviderId(retellResponse.get("call_id").asText());
+    private CallResponse convertToCallResponse(CallRecord callRecord, String retellCallId) {
+        CallResponse response = CallMapper.toResponse(callRecord);
+        response.setProviderId(retellCallId);
         response.setCallerNumber(phoneNumber);
         return response;
     }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Retell placed the call, but the record with its providerId could not be saved. The call is
+     * not a failed dial: the phone is ringing, only its webhooks won't find the record.
+     */
+    public static class CallNotSavedException extends IllegalStateException {
+
+        private final String callId;
+        private final String providerId;
+
+        public CallNotSavedException(String callId, String providerId, Throwable cause) {
+            super("Call was placed but could not be saved", cause);
+            this.callId = callId;
+            this.providerId = providerId;
+        }
+
+        public String getCallId() {
+            return callId;
+        }
+
+        public String getProviderId() {
+            return providerId;
+        }
+    }
+
+    /**
+     * A non-2xx response from Retell.
+     */
+    private static class RetellStatusException extends IllegalStateException {
+
+        private final int statusCode;
+
+        RetellStatusException(int statusCode, HttpRequest request) {
+            super("Retell responded with HTTP " + statusCode + " to " + request.method() + " " + request.uri().getPath());
+            this.statusCode = statusCode;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+    }
 }
\ No newline at end of file
@@ -2,43 +2,199 @@ package com.callcat.backend.service;
 
 import com.callcat.backend.entity.BlacklistedToken;
 import com.callcat.backend.repository.BlacklistedTokenRepository;
+import com.callcat.backend.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service to manage blacklisted JWT tokens for logout functionality.
  * Uses DynamoDB with TTL for automatic cleanup.
+ *
+ * Revocations are keyed by the token's jti claim and expire together with the token,
+ * so the table only ever holds tokens that could still be presented.
+ *
+ * Lookups are answered from memory: a Bloom filter rejects the common case (token never
+ * revoked) and an exact set confirms known revocations. Only Bloom false positives fall
+ * through to DynamoDB. The local copy is loaded at startup, updated on every logout, and
+ * refreshed from the table periodically so revocations made on other instances show up
+ * within one refresh interval. Until the first load succeeds every lookup goes to DynamoDB.
  */
 @Service
 public class TokenBlacklistService {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+
+    // Sized well above the number of live revocations; the filter is rebuilt on full reloads
+    private static final int EXPECTED_REVOCATIONS = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    // Full reloads drop expired entries, which the Bloom filter can't forget on its own
+    private static final long FULL_RELOAD_INTERVAL_SECONDS = 3600;
+
+    // Incremental refreshes look back a little further than the last one to tolerate clock skew
+    private static final long REFRESH_OVERLAP_SECONDS = 60;
+
     private final BlacklistedTokenRepository blacklistedTokenRepository;
-    
+    private final JwtService jwtService;
+
+    private final Object updateLock = new Object();
+    private volatile BloomFilter bloomFilter = newBloomFilter();
+    private volatile Map<String, Long> revokedTokens = new ConcurrentHashMap<>(); // token id -> expiresAt (epoch s)
+    private volatile boolean loaded = false;
+    private volatile long lastRefreshAt;
+    private volatile long lastFullReloadAt;
+
     @Autowired
-    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository) {
+    public TokenBlacklistService(BlacklistedTokenRepository blacklistedTokenRepository, JwtService jwtService) {
         this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.jwtService = jwtService;
+    }
+
+    /**
+     * Loads all live revocations into memory at startup.
+     * A failure here is not fatal - lookups fall back to DynamoDB until a refresh succeeds.
+     */
+    @PostConstruct
+    public void initialize() {
+        try {
+            reloadAll();
+        } catch (Exception e) {
+            logger.warn("Could not load token blacklist at startup, falling back to DynamoDB lookups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Picks up revocations written by other instances since the last refresh, with a Query on
+     * the byRevokedDay index. Once an hour the whole table is reloaded instead.
+     */
+    @Scheduled(fixedDelayString = "${callcat.blacklist.refresh.interval:30000}",
+               initialDelayString = "${callcat.blacklist.refresh.interval:30000}")
+    public void refreshRevocations() {
+        try {
+            long now = Instant.now().getEpochSecond();
+            if (!loaded || now - lastFullReloadAt >= FULL_RELOAD_INTERVAL_SECONDS) {
+                reloadAll();
+                return;
+            }
+
+            List<BlacklistedToken> recent = blacklistedTokenRepository.findRevokedSince(
+                    lastRefreshAt - REFRESH_OVERLAP_SECONDS, now);
+            for (BlacklistedToken revoked : recent) {
+                remember(revoked.getTokenId(), revoked.getExpiresAt());
+            }
+            lastRefreshAt = now;
+
+            if (!recent.isEmpty()) {
+                logger.debug("Picked up {} token revocations from DynamoDB", recent.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to refresh token blacklist: {}", e.getMessage());
+        }
     }
-    
+
     /**
-     * Adds a token to the blacklist
+     * Adds a token to the blacklist until it expires.
+     * Already expired tokens can't be used anyway and are not stored.
      * @param token The JWT token to blacklist
+     * @throws io.jsonwebtoken.JwtException if the token is not a valid JWT
      */
     public void blacklistToken(String token) {
-        // Set expiration to 24 hours from now (matching JWT expiration)
-        long expiresAt = Instant.now().plusSeconds(86400).getEpochSecond(); // 24 hours
-        
-        BlacklistedToken blacklistedToken = new BlacklistedToken(token, expiresAt);
+        Claims claims;
+        try {
+            claims = jwtService.verifyToken(token);
+        } catch (ExpiredJwtException e) {
+            return;
+        }
+
+        long now = Instant.now().getEpochSecond();
+        long expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().toInstant().getEpochSecond()
+                : now + jwtService.getExpirationTime() / 1000;
+        String tokenId = jwtService.extractTokenId(claims, token);
+
+        BlacklistedToken blacklistedToken = new BlacklistedToken(tokenId, expiresAt, now);
         blacklistedTokenRepository.save(blacklistedToken);
+        remember(tokenId, expiresAt);
     }
-    
+
     /**
-     * Checks if a token is blacklisted
-     * @param token The JWT token to check
+     * Checks if an already verified token is blacklisted
+     * @param claims The verified claims of the token
+     * @param token The JWT token the claims came from
      * @return true if token is blacklisted, false otherwise
      */
-    public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokenRepository.exists(token);
+    public boolean isTokenBlacklisted(Claims claims, String token) {
+        return isRevoked(jwtService.extractTokenId(claims, token));
+    }
+
+    /**
+     * Checks if a token id (jti) has been revoked
+     * @param tokenId The token id to check
+     * @return true if the token id is blacklisted, false otherwise
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!loaded) {
+            return blacklistedTokenRepository.exists(tokenId);
+        }
+        if (!bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        // Bloom filter false positive - ask DynamoDB. Revocations made on other instances are not
+        // in the filter until the next refresh, so they never get here.
+        return blacklistedTokenRepository.exists(tokenId);
+    }
+
+    private void reloadAll() {
+        long now = Instant.now().getEpochSecond();
+        List<BlacklistedToken> active = blacklistedTokenRepository.scanAllActiveRevocations(now);
+
+        BloomFilter freshFilter = newBloomFilter();
+        Map<String, Long> freshTokens = new ConcurrentHashMap<>();
+        for (BlacklistedToken revoked : active) {
+            freshFilter.put(revoked.getTokenId());
+            freshTokens.put(revoked.getTokenId(), revoked.getExpiresAt() != null ? revoked.getExpiresAt() : now);
+        }
+
+        synchronized (updateLock) {
+            // Keep local revocations made while the scan was running
+            revokedTokens.forEach((tokenId, expiresAt) -> {
+                if (expiresAt > now && !freshTokens.containsKey(tokenId)) {
+                    freshFilter.put(tokenId);
+                    freshTokens.put(tokenId, expiresAt);
+                }
+            });
+            bloomFilter = freshFilter;
+            revokedTokens = freshTokens;
+            lastRefreshAt = now;
+            lastFullReloadAt = now;
+            loaded = true;
+        }
+
+        logger.info("Loaded {} active token revocations into memory", freshTokens.size());
+    }
+
+    private void remember(String tokenId, Long expiresAt) {
+        synchronized (updateLock) {
+            bloomFilter.put(tokenId);
+            revokedTokens.put(tokenId, expiresAt != null ? expiresAt : Instant.now().getEpochSecond());
+        }
+    }
+
+    private static BloomFilter newBloomFilter() {
+        return new BloomFilter(EXPECTED_REVOCATIONS, FALSE_POSITIVE_RATE);
     }
-} 
\ No newline at end of file
+}
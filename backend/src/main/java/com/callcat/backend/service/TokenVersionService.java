@@ -0,0 +1,80 @@
+package com.callcat.backend.service;
+
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.util.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Tracks the per-user token version used to revoke every token a user holds at once.
+ *
+ * Tokens carry the version that was current when they were issued. Bumping the version
+ * (password change, password reset, deactivation) makes all older tokens stale. Current
+ * versions are cached for a short time so the stateless authentication path doesn't
+ * read the users table on every request; other instances see a bump within one TTL.
+ */
+@Service
+public class TokenVersionService {
+
+    private static final int MAX_CACHED_USERS = 1000;
+
+    // Version reported for missing or inactive users - no token is ever current for them
+    private static final long REVOKED = Long.MAX_VALUE;
+
+    private final UserRepositoryDynamoDb userRepository;
+    private final BoundedTtlCache<String, Long> currentVersions = new BoundedTtlCache<>(MAX_CACHED_USERS);
+
+    @Value("${callcat.auth.token-version.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds = 60;
+
+    public TokenVersionService(UserRepositoryDynamoDb userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Checks whether a token issued with the given version is still valid for the user.
+     */
+    public boolean isCurrent(String email, long tokenVersion) {
+        return tokenVersion >= currentVersion(email);
+    }
+
+    /**
+     * Returns the user's current token version, reading the users table only on a cache miss.
+     */
+    public long currentVersion(String email) {
+        String lowerCaseEmail = email.toLowerCase();
+        Long cached = currentVersions.get(lowerCaseEmail);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = userRepository.findByEmail(lowerCaseEmail)
+                .filter(user -> Boolean.TRUE.equals(user.getIsActive()))
+                .map(TokenVersionService::versionOf)
+                .orElse(REVOKED);
+        currentVersions.put(lowerCaseEmail, version, Duration.ofSeconds(cacheTtlSeconds));
+        return version;
+    }
+
+    /**
+     * Bumps the user's token version so every previously issued token becomes stale.
+     * Only updates the entity - the caller saves it and then calls {@link #evict(String)}.
+     */
+    public void revokeIssuedTokens(UserDynamoDb user) {
+        user.setTokenVersion(versionOf(user) + 1);
+    }
+
+    /**
+     * Drops the cached version after the user record changed on this instance.
+     */
+    public void evict(String email) {
+        currentVersions.invalidate(email.toLowerCase());
+    }
+
+    public static long versionOf(UserDynamoDb user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0L;
+    }
+}
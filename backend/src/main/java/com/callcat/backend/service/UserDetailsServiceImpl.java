@@ -3,20 +3,24 @@ package com.callcat.backend.service;
 import com.callcat.backend.entity.User;
 import com.callcat.backend.entity.dynamo.UserDynamoDb;
 import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.security.RequestUserContext;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     private final UserRepositoryDynamoDb userRepository;
+    private final RequestUserContext requestUserContext;
     
-    public UserDetailsServiceImpl(UserRepositoryDynamoDb userRepository) {
+    public UserDetailsServiceImpl(UserRepositoryDynamoDb userRepository, RequestUserContext requestUserContext) {
         this.userRepository = userRepository;
+        this.requestUserContext = requestUserContext;
     }
     
     @Override
@@ -24,7 +28,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         String lowerCaseEmail = email.toLowerCase();
         logger.debug("Loading user by username (email): {}", lowerCaseEmail);
         
-        UserDynamoDb userDynamo = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb userDynamo = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> {
                     logger.error("User not found in DynamoDB: {}", lowerCaseEmail);
                     return new UsernameNotFoundException("User not found: " + lowerCaseEmail);
@@ -48,4 +52,25 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         logger.debug("User loaded successfully: {}", lowerCaseEmail);
         return user;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Called by the authentication provider after a successful login when the stored hash
+     * was made with an outdated cost factor, so the hash is upgraded transparently.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        String lowerCaseEmail = user.getUsername().toLowerCase();
+        requestUserContext.findUser(lowerCaseEmail).ifPresent(userDynamo -> {
+            userDynamo.setPassword(newPassword);
+            userRepository.save(userDynamo);
+            requestUserContext.remember(userDynamo);
+            logger.info("Upgraded password hash for user: {}", lowerCaseEmail);
+        });
+        
+        if (user instanceof User domainUser) {
+            domainUser.setPassword(newPassword);
+            return domainUser;
+        }
+        return loadUserByUsername(lowerCaseEmail);
+    }
+}
@@ -8,6 +8,7 @@ import com.callcat.backend.entity.dynamo.UserDynamoDb;
 import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
 import com.callcat.backend.repository.dynamo.UserPreferencesRepositoryDynamoDb;
 import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.security.RequestUserContext;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +20,8 @@ public class UserService {
     private final UserRepositoryDynamoDb userRepository;
     private final UserPreferencesRepositoryDynamoDb userPreferencesRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionService tokenVersionService;
+    private final RequestUserContext requestUserContext;
     
     // Password pattern: 8+ chars, at least one uppercase, one lowercase, one digit
     private static final String PASSWORD_PATTERN = 
@@ -29,16 +32,20 @@ public class UserService {
     public UserService(
             UserRepositoryDynamoDb userRepository,
             UserPreferencesRepositoryDynamoDb userPreferencesRepository,
-            PasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder,
+            TokenVersionService tokenVersionService,
+            RequestUserContext requestUserContext
     ) {
         this.userRepository = userRepository;
         this.userPreferencesRepository = userPreferencesRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionService = tokenVersionService;
+        this.requestUserContext = requestUserContext;
     }
     
     public UserResponse getUserProfile(String email) {
         String lowerCaseEmail = email.toLowerCase();
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!Boolean.TRUE.equals(user.getIsActive())) {
@@ -55,7 +62,7 @@ public class UserService {
     
     public UserResponse updateProfile(String email, UpdateProfileRequest request) {
         String lowerCaseEmail = email.toLowerCase();
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!Boolean.TRUE.equals(user.getIsActive())) {
@@ -68,6 +75,7 @@ public class UserService {
         // Email cannot be changed - it's used as the unique identifier
         
         userRepository.save(user);
+        requestUserContext.remember(user);
         
         return new UserResponse(
                 null,
@@ -79,7 +87,7 @@ public class UserService {
     
     public void changePassword(String email, String currentPassword, String newPassword) {
         String lowerCaseEmail = email.toLowerCase();
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         if (!Boolean.TRUE.equals(user.getIsActive())) {
@@ -96,19 +104,22 @@ public class UserService {
             throw new RuntimeException("New password must be at least 8 characters long and contain at least one uppercase letter, one lowercase letter, and one number");
         }
         
-        // Update password
+        // Update password and revoke every token issued with the old one
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(java.time.LocalDateTime.now().toString());
+        tokenVersionService.revokeIssuedTokens(user);
         userRepository.save(user);
+        requestUserContext.remember(user);
+        tokenVersionService.evict(lowerCaseEmail);
     }
     
     public UserPreferencesResponse getUserPreferences(String email) {
         String lowerCaseEmail = email.toLowerCase();
         // Verify user exists first
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        UserPreferencesDynamoDb preferences = userPreferencesRepository.findByEmail(lowerCaseEmail)
+        UserPreferencesDynamoDb preferences = requestUserContext.findPreferences(lowerCaseEmail)
                 .orElseGet(() -> createDefaultPreferences(lowerCaseEmail));
         
         return new UserPreferencesResponse(
@@ -122,10 +133,10 @@ public class UserService {
     public UserPreferencesResponse updateUserPreferences(String email, UpdatePreferencesRequest request) {
         String lowerCaseEmail = email.toLowerCase();
         // Verify user exists
-        UserDynamoDb user = userRepository.findByEmail(lowerCaseEmail)
+        UserDynamoDb user = requestUserContext.findUser(lowerCaseEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        UserPreferencesDynamoDb preferences = userPreferencesRepository.findByEmail(lowerCaseEmail)
+        UserPreferencesDynamoDb preferences = requestUserContext.findPreferences(lowerCaseEmail)
                 .orElseGet(() -> createDefaultPreferences(lowerCaseEmail));
         
         // Update only non-null fields
@@ -143,6 +154,7 @@ public class UserService {
         }
         
         userPreferencesRepository.save(preferences);
+        requestUserContext.remember(preferences);
         
         return new UserPreferencesResponse(
                 preferences.getTimezone(),
@@ -156,6 +168,7 @@ public class UserService {
         UserPreferencesDynamoDb preferences = new UserPreferencesDynamoDb();
         preferences.setEmail(email);
         userPreferencesRepository.save(preferences);
+        requestUserContext.remember(preferences);
         return preferences;
     }
     
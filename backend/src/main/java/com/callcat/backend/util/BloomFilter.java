@@ -0,0 +1,82 @@
+package com.callcat.backend.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for string keys.
+ *
+ * mightContain() never returns false for a key that was added, and returns true for a key
+ * that was never added with roughly the configured false-positive probability.
+ * Bits can't be removed, so callers rebuild the filter to forget keys.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of keys the filter is sized for
+     * @param falsePositiveRate  target false-positive probability at that size, e.g. 0.01
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive, got: " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1, got: " + falsePositiveRate);
+        }
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    public void put(String key) {
+        long[] hashes = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            int index = bitIndex(hashes, i);
+            long mask = 1L << (index & 63);
+            int word = index >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long[] hashes = hash(key);
+        for (int i = 0; i < hashCount; i++) {
+            int index = bitIndex(hashes, i);
+            if ((bits.get(index >>> 6) & (1L << (index & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher): the i-th index is h1 + i * h2
+    private int bitIndex(long[] hashes, int i) {
+        long combined = hashes[0] + i * hashes[1];
+        return (int) Math.floorMod(combined, (long) bitCount);
+    }
+
+    private static long[] hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new long[] {buffer.getLong(), buffer.getLong()};
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.callcat.backend.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Small thread-safe in-process cache with a hard size bound and a per-entry expiry.
+ *
+ * Entries are kept in access order, so once the cache is full the least recently used
+ * entry is dropped. Expired entries are removed lazily when they are looked up.
+ * Sized for the handful of hot keys a single t3.micro instance sees, not as a general cache.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BoundedTtlCache(int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    BoundedTtlCache(int maxEntries, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive, got: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedTtlCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or null if it is absent or has expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.getAsLong()) {
+            entries.remove(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches a value until the given absolute time (epoch millis). Already expired values are ignored.
+     */
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.getAsLong()) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    /**
+     * Caches a value for the given time-to-live.
+     */
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, clock.getAsLong() + ttl.toMillis());
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of lookups answered from the cache since it was created.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that found no live entry since the cache was created.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+}
@@ -0,0 +1,119 @@
+package com.callcat.backend.util;
+
+import com.callcat.backend.exception.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many calls to one downstream service (DynamoDB, Retell, ...) are in flight at once.
+ *
+ * Callers over the limit wait on the calling thread - cheap on the virtual threads requests
+ * and I/O tasks run on - for at most maxWait, then get a {@link ThrottledException}
+ * (503 + Retry-After). A slow downstream therefore fills only its own bulkhead, and requests
+ * that don't need it carry on.
+ *
+ * Meters, tagged with the downstream's name: callcat.bulkhead.active and .waiting (gauges),
+ * .wait (time spent waiting for a permit) and .rejected.
+ */
+public class Bulkhead {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bulkhead.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        // Fair, so a waiting caller isn't overtaken until it times out
+        this.permits = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("callcat.bulkhead.active", this, Bulkhead::activeCount)
+                .description("Calls in flight to the downstream service")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        Gauge.builder("callcat.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Calls waiting for the downstream service's bulkhead")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("callcat.bulkhead.wait")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("callcat.bulkhead.rejected")
+                .description("Calls turned away because the downstream service's bulkhead stayed full")
+                .tag("downstream", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            release();
+        }
+    }
+
+    public void run(Runnable call) {
+        acquire();
+        try {
+            call.run();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Takes a permit, for calls whose start and end are reported separately (SDK interceptors).
+     * Every successful acquire must be followed by exactly one {@link #release()}.
+     *
+     * @throws ThrottledException (503) if no permit freed up within the wait limit
+     */
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            logger.warn("Bulkhead {} full ({} in flight, {} waiting), rejecting call", name, maxConcurrent, permits.getQueueLength());
+            throw new ThrottledException("Server is busy, please try again shortly",
+                    HttpStatus.SERVICE_UNAVAILABLE, RETRY_AFTER_SECONDS);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int activeCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,208 @@
+package com.callcat.backend.util;
+
+import com.callcat.backend.exception.ThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Failure-rate circuit breaker for one downstream service.
+ *
+ * While CLOSED, calls go through and their outcomes fill a window of the last windowSize calls.
+ * Once it holds at least minimumCalls outcomes and the share of failures reaches the threshold,
+ * the breaker OPENs: calls fail at once with a {@link ThrottledException} (503 + Retry-After)
+ * instead of waiting on a downstream that is known to be failing. The first call after
+ * openDuration moves it to HALF_OPEN, which lets halfOpenCalls trial calls through; if they
+ * all succeed it closes with an empty window, a single failure opens it again.
+ *
+ * Meters, tagged with the downstream's name: callcat.circuitbreaker.state (0 closed, 1 open,
+ * 2 half-open), .transitions (also tagged from and to) and .rejected.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    // Ring buffer of the last outcomes while CLOSED, true for a failure
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls, MeterRegistry meterRegistry) {
+        this(name, failureRateThreshold, windowSize, minimumCalls, openDuration, halfOpenCalls, meterRegistry,
+                System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, double failureRateThreshold, int windowSize, int minimumCalls,
+                   Duration openDuration, int halfOpenCalls, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1], got: " + failureRateThreshold);
+        }
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("need 0 < minimumCalls <= windowSize, got: " + minimumCalls + ", " + windowSize);
+        }
+        if (halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("halfOpenCalls must be positive, got: " + halfOpenCalls);
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openMillis = openDuration.toMillis();
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.window = new boolean[windowSize];
+
+        Gauge.builder("callcat.circuitbreaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("callcat.circuitbreaker.rejected")
+                .description("Calls failed fast because the downstream service's circuit breaker was open")
+                .tag("downstream", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lets a call through or turns it away. Every call let through must be followed by exactly
+     * one of {@link #onSuccess()}, {@link #onFailure()} or {@link #releasePermission()}.
+     *
+     * @throws ThrottledException (503) while the breaker is open, or half-open with all trial calls taken
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            long remaining = openedAt + openMillis - clock.getAsLong();
+            if (remaining > 0) {
+                throw reject(remaining);
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                throw reject(0);
+            }
+            trialsStarted++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        switch (state) {
+            case CLOSED -> record(false);
+            case HALF_OPEN -> {
+                if (++trialsSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> { } // a call from before the breaker opened
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED -> {
+                record(true);
+                if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> transitionTo(State.OPEN);
+            case OPEN -> { }
+        }
+    }
+
+    /**
+     * Ends a call that says nothing about the downstream's health (turned away locally, cancelled).
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && trialsStarted > trialsSucceeded) {
+            trialsStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void transitionTo(State target) {
+        State from = state;
+        state = target;
+        switch (target) {
+            case OPEN -> {
+                openedAt = clock.getAsLong();
+                if (from == State.HALF_OPEN) {
+                    logger.warn("Circuit breaker {} reopened after a failed trial call, failing calls fast for {} ms",
+                            name, openMillis);
+                } else {
+                    logger.warn("Circuit breaker {} opened ({} of the last {} calls failed), failing calls fast for {} ms",
+                            name, failures, recorded, openMillis);
+                }
+            }
+            case HALF_OPEN -> {
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+                logger.info("Circuit breaker {} half-open, letting {} trial calls through", name, halfOpenCalls);
+            }
+            case CLOSED -> logger.info("Circuit breaker {} closed", name);
+        }
+        // Outcomes from before a state change don't count towards the next decision
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        Counter.builder("callcat.circuitbreaker.transitions")
+                .description("Circuit breaker state changes")
+                .tag("downstream", name)
+                .tag("from", from.name())
+                .tag("to", target.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private ThrottledException reject(long remainingMillis) {
+        rejected.increment();
+        long retryAfterSeconds = Math.max(1, (remainingMillis + 999) / 1000);
+        return new ThrottledException("Service temporarily unavailable, please try again shortly",
+                HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,64 @@
+package com.callcat.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class CompressionUtils {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Deflate-compresses a string's UTF-8 bytes. Retell JSON payloads (mostly repeated keys
+     * and transcript text) typically shrink to a fifth of their size or less.
+     */
+    public static byte[] deflate(String text) {
+        return deflate(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deflate-compresses raw bytes, e.g. a JSON response body as received.
+     */
+    public static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Reverses {@link #deflate(String)}.
+     * @throws IllegalArgumentException if the data is not valid deflate output
+     */
+    public static String inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated or corrupt compressed data");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid compressed data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.callcat.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ETags {
+
+    // 128 bits of SHA-256 - collisions would need effort, not bad luck
+    private static final int TAG_BYTES = 16;
+
+    /**
+     * Weak entity tag (W/"...") identifying the given values, in order. Nulls are allowed and
+     * differ from empty strings. Weak, since equal tags mean an equivalent response rather than
+     * a byte-identical one.
+     */
+    public static String weak(Object... values) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Object value : values) {
+            if (value == null) {
+                digest.update((byte) 0);
+            } else {
+                digest.update((byte) 1);
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+        }
+        byte[] hash = digest.digest();
+        return "W/\"" + HexFormat.of().formatHex(hash, 0, TAG_BYTES) + "\"";
+    }
+}
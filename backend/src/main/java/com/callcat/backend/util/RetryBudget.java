@@ -0,0 +1,96 @@
+package com.callcat.backend.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps retries to a share of the calls made to one downstream service, so
+ * retrying can't multiply the load on a service that is already failing.
+ *
+ * Every call deposits ratio tokens (0.2 allows one retry per five calls) and every retry or
+ * hedged request takes a whole one. The bucket starts full and holds at most maxTokens, the
+ * largest burst of retries allowed after a quiet spell; minPerSecond tokens trickle in
+ * regardless, so retries stay possible when there is little traffic.
+ *
+ * Meters, tagged with the downstream's name: callcat.retry.budget.tokens (gauge) and
+ * callcat.retry.budget.exhausted (retries not made for lack of tokens).
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerMilli;
+    private final double maxTokens;
+    private final LongSupplier clock;
+    private final Counter exhausted;
+
+    private double tokens;
+    private long refilledAt;
+
+    public RetryBudget(String name, double ratio, double minPerSecond, int maxTokens, MeterRegistry meterRegistry) {
+        this(name, ratio, minPerSecond, maxTokens, meterRegistry, System::currentTimeMillis);
+    }
+
+    RetryBudget(String name, double ratio, double minPerSecond, int maxTokens, MeterRegistry meterRegistry,
+                LongSupplier clock) {
+        if (ratio < 0 || minPerSecond < 0) {
+            throw new IllegalArgumentException("ratio and minPerSecond must not be negative, got: " + ratio + ", " + minPerSecond);
+        }
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive, got: " + maxTokens);
+        }
+        this.ratio = ratio;
+        this.minPerMilli = minPerSecond / 1000.0;
+        this.maxTokens = maxTokens;
+        this.clock = clock;
+        this.tokens = maxTokens;
+        this.refilledAt = clock.getAsLong();
+
+        Gauge.builder("callcat.retry.budget.tokens", this, RetryBudget::available)
+                .description("Retries currently allowed to the downstream service")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("callcat.retry.budget.exhausted")
+                .description("Retries not made because the downstream service's retry budget was used up")
+                .tag("downstream", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a call (first attempt), earning part of a retry.
+     */
+    public synchronized void onCall() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Takes a token for a retry or hedged request.
+     *
+     * @return false if the budget is used up; the retry should then not be made
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            exhausted.increment();
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        if (now > refilledAt) {
+            tokens = Math.min(maxTokens, tokens + (now - refilledAt) * minPerMilli);
+            refilledAt = now;
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.callcat.backend.util;
+package com.callcat.backend.benchmark;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
@@ -7,6 +7,9 @@ import org.springframework.beans.BeanWrapperImpl;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * The reflective copy CallMapper replaced, kept as CallMappingBenchmark's baseline.
+ */
 public class BeanUpdateUtils {
 
     /**
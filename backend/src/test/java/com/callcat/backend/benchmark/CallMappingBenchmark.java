@@ -0,0 +1,99 @@
+package com.callcat.backend.benchmark;
+
+import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.dto.UpdateCallRequest;
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.mapper.CallMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares CallMapper with the reflective BeanUtils / BeanUpdateUtils copies it replaced,
+ * on a page of 100 calls (the largest list page) and on a single call update.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Dbenchmark.include=CallMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallMappingBenchmark {
+
+    private List<CallRecord> page;
+    private UpdateCallRequest update;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            CallRecord callRecord = new CallRecord();
+            callRecord.setUserId("user@example.com");
+            callRecord.setCallId("call-" + i);
+            callRecord.setCalleeName("Callee " + i);
+            callRecord.setPhoneNumber("+1555000" + String.format("%04d", i));
+            callRecord.setSubject("Appointment reminder");
+            callRecord.setPrompt("Remind them about tomorrow's appointment and confirm the time.");
+            callRecord.setStatus("COMPLETED");
+            callRecord.setScheduledFor(1_700_000_000_000L + i);
+            callRecord.setProviderId("provider-" + i);
+            callRecord.setAiLanguage("en");
+            callRecord.setCreatedAt(1_699_000_000_000L);
+            callRecord.setUpdatedAt(1_700_000_100_000L);
+            callRecord.setCompletedAt(1_700_000_200_000L);
+            callRecord.setDialSuccessful(true);
+            callRecord.setCallAnalyzed(true);
+            callRecord.setDurationSec(90);
+            page.add(callRecord);
+        }
+
+        update = new UpdateCallRequest();
+        update.setSubject("Rescheduled appointment");
+        update.setScheduledFor(1_800_000_000_000L);
+    }
+
+    @Benchmark
+    public void listWithBeanUtils(Blackhole blackhole) {
+        for (CallRecord callRecord : page) {
+            CallResponse response = new CallResponse();
+            BeanUtils.copyProperties(callRecord, response);
+            blackhole.consume(response);
+        }
+    }
+
+    @Benchmark
+    public void listWithCallMapper(Blackhole blackhole) {
+        for (CallRecord callRecord : page) {
+            blackhole.consume(CallMapper.toResponse(callRecord));
+        }
+    }
+
+    @Benchmark
+    public CallRecord updateWithBeanUpdateUtils() {
+        CallRecord callRecord = new CallRecord();
+        BeanUpdateUtils.copyNonNullProperties(update, callRecord);
+        return callRecord;
+    }
+
+    @Benchmark
+    public CallRecord updateWithCallMapper() {
+        CallRecord callRecord = new CallRecord();
+        CallMapper.applyUpdate(update, callRecord);
+        return callRecord;
+    }
+}
@@ -4,6 +4,8 @@ import com.callcat.backend.TestBackendApplication;
 import com.callcat.backend.config.TestSecurityConfig;
 import com.callcat.backend.dto.AuthResponse;
 import com.callcat.backend.entity.User;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.security.AuthRateLimiter;
 import com.callcat.backend.service.AuthenticationService;
 import com.callcat.backend.service.JwtService;
 import com.callcat.backend.service.VerificationService;
@@ -15,6 +17,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -23,6 +26,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,8 +53,14 @@ class AuthControllerTest {
     @MockitoBean
     private com.callcat.backend.service.TokenBlacklistService tokenBlacklistService;
     
+    @MockitoBean
+    private com.callcat.backend.service.TokenVersionService tokenVersionService;
+    
     @MockitoBean
     private VerificationService verificationService;
+    
+    @MockitoBean
+    private AuthRateLimiter authRateLimiter;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -175,5 +187,49 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").value("Invalid email or password"));
     }
 
+    // Tests that throttled login attempts never reach the password check
+    // Verifies the 429 status and Retry-After header from the rate limiter
+    @Test
+    void login_WhenRateLimited_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        Map<String, String> loginRequest = new HashMap<>();
+        loginRequest.put("email", "test@example.com");
+        loginRequest.put("password", "password");
+
+        doThrow(new ThrottledException("Too many requests, please try again later", HttpStatus.TOO_MANY_REQUESTS, 42))
+                .when(authRateLimiter).checkCredentialAttempt(anyString(), anyString());
 
-}
\ No newline at end of file
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"))
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(authenticationService, never()).authenticate(anyString(), anyString());
+    }
+
+    // Tests that throttled email verification never reaches the code check
+    // Code attempts are limited separately from logins, so they use their own check
+    @Test
+    void verifyEmail_WhenRateLimited_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        Map<String, String> verifyRequest = new HashMap<>();
+        verifyRequest.put("email", "test@example.com");
+        verifyRequest.put("code", "123456");
+
+        doThrow(new ThrottledException("Too many requests, please try again later", HttpStatus.TOO_MANY_REQUESTS, 42))
+                .when(authRateLimiter).checkCodeAttempt(anyString(), anyString());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/verify-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(verifyRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"));
+
+        verify(verificationService, never()).verifyEmailCode(anyString(), anyString());
+        verify(authRateLimiter, never()).checkCredentialAttempt(anyString(), anyString());
+    }
+}
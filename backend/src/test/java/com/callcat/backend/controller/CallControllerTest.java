@@ -3,8 +3,13 @@ package com.callcat.backend.controller;
 import com.callcat.backend.TestBackendApplication;
 import com.callcat.backend.config.TestSecurityConfig;
 import com.callcat.backend.dto.*;
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.service.CallBatchService;
+import com.callcat.backend.service.CallEventService;
 import com.callcat.backend.service.CallService;
 import com.callcat.backend.service.JwtService;
+import com.callcat.backend.service.RetellService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,12 +18,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -36,11 +48,20 @@ class CallControllerTest {
     @MockitoBean
     private CallService callService;
 
+    @MockitoBean
+    private CallBatchService callBatchService;
+
+    @MockitoBean
+    private CallEventService callEventService;
+
     @MockitoBean
     private JwtService jwtService;
 
     @MockitoBean
     private com.callcat.backend.service.TokenBlacklistService tokenBlacklistService;
+    
+    @MockitoBean
+    private com.callcat.backend.service.TokenVersionService tokenVersionService;
 
     @MockitoBean
     private com.callcat.backend.service.RetellService retellService;
@@ -151,11 +172,70 @@ class CallControllerTest {
         verify(callService, never()).createCall(anyString(), any(CallRequest.class));
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createCalls_WithJsonBatch_ShouldReturnPerRowResults() throws Exception {
+        // Arrange
+        BatchCallResult created = new BatchCallResult(1);
+        created.setSuccess(true);
+        created.setCallId("test-call-id");
+        BatchCallResult rejected = new BatchCallResult(2);
+        rejected.setError("Callee name is required");
+        when(callBatchService.createCalls(eq("test@example.com"), anyList()))
+                .thenReturn(new BatchCallResponse(List.of(created, rejected)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/calls/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchCallRequest(List.of(createRequest, new CallRequest())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].row").value(2))
+                .andExpect(jsonPath("$.results[1].error").value("Callee name is required"));
+
+        verify(callBatchService).createCalls(eq("test@example.com"), argThat(calls -> calls.size() == 2));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createCalls_WithCsvUpload_ShouldParseThenCreate() throws Exception {
+        // Arrange
+        List<CallRequest> parsed = List.of(createRequest);
+        when(callBatchService.parseCsv(any())).thenReturn(parsed);
+        when(callBatchService.createCalls("test@example.com", parsed))
+                .thenReturn(new BatchCallResponse(List.of()));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/calls/batch")
+                .contentType("text/csv")
+                .content("calleeName,phoneNumber,subject,prompt\nJohn Doe,+15551234567,Test Call,Test prompt\n"))
+                .andExpect(status().isOk());
+
+        verify(callBatchService).createCalls("test@example.com", parsed);
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createCalls_WithMalformedCsv_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(callBatchService.parseCsv(any())).thenThrow(new IllegalArgumentException("Unknown CSV column: color"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/calls/batch")
+                .contentType("text/csv")
+                .content("color\nblue\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown CSV column: color"));
+
+        verify(callBatchService, never()).createCalls(any(), any());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void getCalls_WithStatusFilter_ShouldReturnFilteredCalls() throws Exception {
         // Arrange
-        when(callService.getCalls("test@example.com", "SCHEDULED", 20))
+        when(callService.getCalls("test@example.com", "SCHEDULED", 20, null, null))
                 .thenReturn(callListResponse);
 
         // Act & Assert
@@ -166,14 +246,14 @@ class CallControllerTest {
                 .andExpect(jsonPath("$.calls[0].callId").value("test-call-id"))
                 .andExpect(jsonPath("$.calls[0].status").value("SCHEDULED"));
 
-        verify(callService).getCalls("test@example.com", "SCHEDULED", 20);
+        verify(callService).getCalls("test@example.com", "SCHEDULED", 20, null, null);
     }
 
     @Test
     @WithMockUser(username = "test@example.com")
     void getCalls_WithCustomLimit_ShouldUseProvidedLimit() throws Exception {
         // Arrange
-        when(callService.getCalls("test@example.com", "SCHEDULED", 50))
+        when(callService.getCalls("test@example.com", "SCHEDULED", 50, null, null))
                 .thenReturn(callListResponse);
 
         // Act & Assert
@@ -182,7 +262,45 @@ class CallControllerTest {
                 .param("limit", "50"))
                 .andExpect(status().isOk());
 
-        verify(callService).getCalls("test@example.com", "SCHEDULED", 50);
+        verify(callService).getCalls("test@example.com", "SCHEDULED", 50, null, null);
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCalls_WithCursor_ShouldPassCursorAndReturnNextCursor() throws Exception {
+        // Arrange
+        callListResponse.setNextCursor("cursor-2");
+        when(callService.getCalls("test@example.com", "COMPLETED", 20, "cursor-1", null))
+                .thenReturn(callListResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls")
+                .param("status", "COMPLETED")
+                .param("cursor", "cursor-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("cursor-2"));
+
+        verify(callService).getCalls("test@example.com", "COMPLETED", 20, "cursor-1", null);
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCalls_WithFields_ShouldReturnOnlySelectedFields() throws Exception {
+        // Arrange
+        PartialCallResponse partial = new PartialCallResponse();
+        partial.setCallId("test-call-id");
+        partial.setStatus("COMPLETED");
+        when(callService.getCalls("test@example.com", "COMPLETED", 20, null, List.of("callId", "status")))
+                .thenReturn(new CallListResponse(List.of(partial), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls")
+                .param("status", "COMPLETED")
+                .param("fields", "callId,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calls[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.calls[0].prompt").doesNotExist())
+                .andExpect(jsonPath("$.calls[0].retellCallData").doesNotExist());
     }
 
     @Test
@@ -195,6 +313,299 @@ class CallControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCallsByStatuses_ShouldQueryAllStatusesWithTheirCursors() throws Exception {
+        // Arrange
+        Map<String, String> nextCursors = new HashMap<>();
+        nextCursors.put("SCHEDULED", null);
+        nextCursors.put("COMPLETED", "completed-2");
+        nextCursors.put("FAILED", null);
+        when(callService.getCallsByStatuses(eq("test@example.com"), eq(List.of("SCHEDULED", "COMPLETED", "FAILED")), eq(20), anyMap(), isNull()))
+                .thenReturn(new MultiStatusCallListResponse(List.of(callResponse), nextCursors));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/all")
+                .param("completedCursor", "completed-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calls[0].callId").value("test-call-id"))
+                .andExpect(jsonPath("$.nextCursors.COMPLETED").value("completed-2"));
+
+        verify(callService).getCallsByStatuses(eq("test@example.com"), eq(List.of("SCHEDULED", "COMPLETED", "FAILED")), eq(20),
+                argThat(cursors -> "completed-1".equals(cursors.get("COMPLETED")) && cursors.get("SCHEDULED") == null), isNull());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCallsByStatuses_WithExcessiveLimit_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/all")
+                .param("limit", "200"))
+                .andExpect(status().isBadRequest());
+
+        verify(callService, never()).getCallsByStatuses(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCallSummary_ShouldReturnCountsPerStatus() throws Exception {
+        // Arrange
+        when(callService.getCallSummary("test@example.com"))
+                .thenReturn(new CallSummaryResponse(2, 7, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scheduled").value(2))
+                .andExpect(jsonPath("$.completed").value(7))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.total").value(10));
+
+        verify(callService, never()).getCall(anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCallSummary_WhenThrottled_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(callService.getCallSummary("test@example.com"))
+                .thenThrow(new ThrottledException("DynamoDB is busy", HttpStatus.SERVICE_UNAVAILABLE, 1));
+
+        // Act & Assert - not turned into a 400 like other failures
+        mockMvc.perform(get("/api/calls/summary"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_ShouldAnswerOnceRetellHasDialed() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, "Be brief"));
+        when(retellService.makeCallAsync(callRecord, "Be brief"))
+                .thenReturn(CompletableFuture.completedFuture(new CallResponse()));
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.callId").value("instant-call-id"));
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WhenRetellFails_ShouldStoreTheCallAsFailed() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeCallAsync(callRecord, null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to create call")));
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Failed to create call"));
+        verify(callService).saveCallRecord(argThat(saved -> "FAILED".equals(saved.getStatus())
+                && Boolean.FALSE.equals(saved.getDialSuccessful())));
+        verify(callEventService).publishStatus(callRecord);
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WhenRetellCircuitIsOpen_ShouldAnswer503WithoutStoringTheCall() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeCallAsync(callRecord, null))
+                .thenReturn(CompletableFuture.failedFuture(new ThrottledException(
+                        "Service temporarily unavailable, please try again shortly", HttpStatus.SERVICE_UNAVAILABLE, 12)));
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "12"));
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WithAsync_ShouldAcceptBeforeRetellAnswers() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeStoredCallAsync(any(CallRecord.class), isNull())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andReturn();
+
+        // Assert - RetellService dials with its own copy of the record
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.callId").value("instant-call-id"))
+                .andExpect(jsonPath("$.status").value("SCHEDULED"));
+        verify(callService).saveCallRecord(callRecord);
+        verify(retellService).makeStoredCallAsync(argThat(dialed -> dialed != callRecord
+                && "instant-call-id".equals(dialed.getCallId())), isNull());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WithAsync_WhenRetellFails_ShouldStoreTheCallAsFailed() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeStoredCallAsync(any(CallRecord.class), isNull()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to create call")));
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isAccepted());
+
+        // Assert - the stored call is updated, not written again as a whole
+        verify(callService).markDialFailed(argThat(dialed -> "instant-call-id".equals(dialed.getCallId())));
+        verify(callService, times(1)).saveCallRecord(any(CallRecord.class));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WithAsync_WhenCallIsDeletedBeforeDialFails_ShouldNotPublishIt() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeStoredCallAsync(any(CallRecord.class), isNull()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Failed to create call")));
+        when(callService.markDialFailed(any(CallRecord.class))).thenReturn(Optional.empty());
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isAccepted());
+
+        // Assert
+        verify(callEventService, never()).publishStatus(any(CallRecord.class));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WithAsync_WhenPlacedCallIsNotSaved_ShouldNotStoreItAsFailed() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeStoredCallAsync(any(CallRecord.class), isNull()))
+                .thenReturn(CompletableFuture.failedFuture(new RetellService.CallNotSavedException(
+                        "instant-call-id", "retell-call-123", new RuntimeException("DynamoDB unavailable"))));
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isAccepted());
+
+        // Assert - only the SCHEDULED record saved before dialing
+        verify(callService, times(1)).saveCallRecord(any(CallRecord.class));
+        verify(callService, never()).markDialFailed(any(CallRecord.class));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WhenPlacedCallIsNotSaved_ShouldAnswer500WithoutStoringItAsFailed() throws Exception {
+        // Arrange
+        CallRecord callRecord = instantCallRecord();
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenReturn(new CallService.InstantCallResult(callRecord, null, null));
+        when(retellService.makeCallAsync(callRecord, null))
+                .thenReturn(CompletableFuture.failedFuture(new RetellService.CallNotSavedException(
+                        "instant-call-id", "retell-call-123", new RuntimeException("DynamoDB unavailable"))));
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/calls/instant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Call was placed but could not be saved"));
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createInstantCall_WhenUserIsInactive_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(callService.createInstantCall(eq("test@example.com"), any(CallRequest.class)))
+                .thenThrow(new RuntimeException("User is inactive"));
+
+        // Act & Assert - fails before anything is dialed, so the answer is not deferred
+        mockMvc.perform(post("/api/calls/instant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User is inactive"));
+        verify(retellService, never()).makeCallAsync(any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "Test@Example.com")
+    void streamCallEvents_ShouldSubscribeWithLastEventId() throws Exception {
+        // Arrange
+        when(callEventService.subscribe("test@example.com", "42")).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/stream")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(callEventService).subscribe("test@example.com", "42");
+        verify(callService, never()).getCall(anyString());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void getCall_WithValidId_ShouldReturnCall() throws Exception {
@@ -211,6 +622,74 @@ class CallControllerTest {
         verify(callService).getCall("test-call-id");
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCall_ShouldSendETag() throws Exception {
+        // Arrange
+        when(callService.getCallETag("test-call-id")).thenReturn("W/\"abc123\"");
+        when(callService.getCall("test-call-id")).thenReturn(callResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/test-call-id"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc123\""))
+                .andExpect(jsonPath("$.callId").value("test-call-id"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCall_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutReadingCall() throws Exception {
+        // Arrange
+        when(callService.getCallETag("test-call-id")).thenReturn("W/\"abc123\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/test-call-id")
+                .header("If-None-Match", "W/\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc123\""))
+                .andExpect(content().string(""));
+
+        verify(callService, never()).getCall(anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCall_WithStaleIfNoneMatch_ShouldReturnCall() throws Exception {
+        // Arrange
+        when(callService.getCallETag("test-call-id")).thenReturn("W/\"def456\"");
+        when(callService.getCall("test-call-id")).thenReturn(callResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls/test-call-id")
+                .header("If-None-Match", "W/\"abc123\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"def456\""))
+                .andExpect(jsonPath("$.callId").value("test-call-id"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCalls_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        callListResponse.setETag("W/\"list-1\"");
+        when(callService.getCalls("test@example.com", "SCHEDULED", 20, null, null))
+                .thenReturn(callListResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/calls")
+                .param("status", "SCHEDULED")
+                .header("If-None-Match", "W/\"list-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/calls")
+                .param("status", "SCHEDULED"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"list-1\""))
+                .andExpect(jsonPath("$.eTag").doesNotExist())
+                .andExpect(jsonPath("$.etag").doesNotExist());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void getCall_WithNonExistentCall_ShouldReturnBadRequest() throws Exception {
@@ -313,4 +792,14 @@ class CallControllerTest {
                 .content("{}")).andExpect(status().isForbidden());
         mockMvc.perform(delete("/api/calls/test-id")).andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    private static CallRecord instantCallRecord() {
+        CallRecord callRecord = new CallRecord();
+        callRecord.setCallId("instant-call-id");
+        callRecord.setUserId("test@example.com");
+        callRecord.setPhoneNumber("+15551234567");
+        callRecord.setStatus("SCHEDULED");
+        callRecord.setScheduledFor(System.currentTimeMillis());
+        return callRecord;
+    }
+}
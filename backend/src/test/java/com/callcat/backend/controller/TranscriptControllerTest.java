@@ -35,6 +35,9 @@ class TranscriptControllerTest {
     
     @MockitoBean
     private com.callcat.backend.service.TokenBlacklistService tokenBlacklistService;
+    
+    @MockitoBean
+    private com.callcat.backend.service.TokenVersionService tokenVersionService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -64,6 +67,29 @@ class TranscriptControllerTest {
         verify(transcriptService).getTranscriptByProviderId("test-provider-id");
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getTranscript_WithUnchangedTranscript_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        when(transcriptService.getTranscriptByProviderId("test-provider-id"))
+                .thenReturn(transcriptResponse);
+        String eTag = mockMvc.perform(get("/api/live_transcripts/test-provider-id"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/live_transcripts/test-provider-id")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        transcriptResponse.setTranscriptText(transcriptResponse.getTranscriptText() + "\nUser: Thanks!");
+        mockMvc.perform(get("/api/live_transcripts/test-provider-id")
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transcriptText").value(transcriptResponse.getTranscriptText()));
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void getTranscript_WithEmptyTranscript_ShouldReturnEmptyTranscript() throws Exception {
@@ -40,6 +40,9 @@ class UserControllerTest {
     
     @MockitoBean
     private com.callcat.backend.service.TokenBlacklistService tokenBlacklistService;
+    
+    @MockitoBean
+    private com.callcat.backend.service.TokenVersionService tokenVersionService;
 
     private UserResponse testUserResponse;
     private UserPreferencesResponse testPreferencesResponse;
@@ -1,20 +1,28 @@
 package com.callcat.backend.controller;
 
 import com.callcat.backend.config.TestSecurityConfig;
+import com.callcat.backend.service.CallEventService;
 import com.callcat.backend.service.CallService;
 import com.callcat.backend.service.TranscriptService;
 import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.repository.CallRecordUpdate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -41,12 +49,18 @@ class WebhookControllerTest {
     @MockitoBean
     private com.callcat.backend.service.LiveTranscriptService liveTranscriptService;
 
+    @MockitoBean
+    private CallEventService callEventService;
+
     // Mock security-related services that are autowired in the application context
     @MockitoBean
     private com.callcat.backend.service.JwtService jwtService;
     
     @MockitoBean
     private com.callcat.backend.service.TokenBlacklistService tokenBlacklistService;
+    
+    @MockitoBean
+    private com.callcat.backend.service.TokenVersionService tokenVersionService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -61,6 +75,7 @@ class WebhookControllerTest {
         mockCallRecord.setProviderId("retell-call-123");
         mockCallRecord.setStatus("SCHEDULED");
         mockCallRecord.setPhoneNumber("+1234567890");
+        mockCallRecord.setScheduledFor(1693123000000L);
     }
 
     @Test
@@ -78,6 +93,7 @@ class WebhookControllerTest {
             """;
 
         when(callService.findCallByProviderId("retell-call-123")).thenReturn(mockCallRecord);
+        when(callService.updateCallRecord(any(CallRecordUpdate.class), any())).thenReturn(Optional.of(mockCallRecord));
 
         // When & Then
         mockMvc.perform(post("/webhooks/retell")
@@ -87,7 +103,12 @@ class WebhookControllerTest {
 
         // Verify call service interactions
         verify(callService).findCallByProviderId("retell-call-123");
-        verify(callService).saveCallRecord(any(CallRecord.class));
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callService).updateCallRecord(update.capture(), any());
+        assertTrue(update.getValue().getChanges().get("dialSuccessful").bool());
+        assertFalse(update.getValue().getChanges().containsKey("status"));
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        verify(callEventService).publishStatus(mockCallRecord);
         // Live polling is currently disabled, so no service call expected
         // verify(liveTranscriptService).startPolling("retell-call-123");
     }
@@ -115,7 +136,11 @@ class WebhookControllerTest {
 
         // Verify call service interactions
         verify(callService).findCallByProviderId("retell-call-123");
-        verify(callService).saveCallRecord(any(CallRecord.class));
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callService).updateCallRecord(update.capture(), any());
+        assertEquals("COMPLETED", update.getValue().getChanges().get("status").s());
+        assertEquals("1693123456789", update.getValue().getChanges().get("completedAt").n());
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
         // Live polling is currently disabled, so no service call expected
         // verify(liveTranscriptService).stopPolling("retell-call-123");
     }
@@ -145,7 +170,11 @@ class WebhookControllerTest {
 
         // Verify call service interactions
         verify(callService).findCallByProviderId("retell-call-123");
-        verify(callService).saveCallRecord(any(CallRecord.class));
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callService).updateCallRecord(update.capture(), any());
+        assertTrue(update.getValue().getChanges().get("callAnalyzed").bool());
+        // The update did not apply, so there is nothing to announce
+        verify(callEventService, never()).publishTranscriptReady(any());
     }
 
     @Test
@@ -168,7 +197,7 @@ class WebhookControllerTest {
 
         // Verify no service calls were made for unknown events
         verify(callService, never()).findCallByProviderId(anyString());
-        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        verify(callService, never()).updateCallRecord(any(CallRecordUpdate.class), any());
     }
 
     @Test
@@ -194,7 +223,34 @@ class WebhookControllerTest {
 
         // Verify the service was called but exception was handled
         verify(callService).findCallByProviderId("retell-call-123");
-        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        verify(callService, never()).updateCallRecord(any(CallRecordUpdate.class), any());
+    }
+
+    @Test
+    void testHandleRetellWebhook_WhenThrottled_ShouldAskRetellToRetry() throws Exception {
+        // Given
+        String payload = """
+            {
+                "event": "call_ended",
+                "call": {
+                    "call_id": "retell-call-123",
+                    "end_timestamp": 1693123456789
+                }
+            }
+            """;
+
+        when(callService.findCallByProviderId("retell-call-123")).thenReturn(mockCallRecord);
+        when(callService.updateCallRecord(any(CallRecordUpdate.class), any()))
+                .thenThrow(new ThrottledException("DynamoDB is busy", HttpStatus.SERVICE_UNAVAILABLE, 1));
+
+        // When & Then - 503 instead of 204, so Retell redelivers the webhook
+        mockMvc.perform(post("/webhooks/retell")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payload))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(callEventService, never()).publishStatus(any(CallRecord.class));
     }
 
     @Test
@@ -210,7 +266,7 @@ class WebhookControllerTest {
 
         // Verify no service calls were made
         verify(callService, never()).findCallByProviderId(anyString());
-        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        verify(callService, never()).updateCallRecord(any(CallRecordUpdate.class), any());
     }
 
     @Test
@@ -222,6 +278,6 @@ class WebhookControllerTest {
 
         // Verify no service calls were made
         verify(callService, never()).findCallByProviderId(anyString());
-        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        verify(callService, never()).updateCallRecord(any(CallRecordUpdate.class), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,294 @@
+package com.callcat.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test of a running backend, with {@link RetellSimulator} standing in for Retell.
+ * Each scenario sends a fixed number of requests from a fixed number of concurrent clients
+ * (closed loop) and reports throughput and latency percentiles, so raising concurrency step by
+ * step shows where the backend saturates:
+ *
+ *   instant   POST /api/calls/instant (async=true for the 202 mode); the simulator then sends
+ *             each call's webhooks on its timeline
+ *   trigger   POST /api/calls/{callId}/trigger on scheduled calls created beforehand
+ *   webhooks  bursts of call_started, then call_ended, then call_analyzed for calls created beforehand
+ *   simulator only runs the simulator, for manual testing
+ *
+ * The backend has to run with --retell.base.url=http://localhost:8089 --retell.api.key=sim, and the
+ * user logging in must exist. Options are key=value: base-url (http://localhost:5000), requests
+ * (200), concurrency (20), email, password, api-key (the backend's lambda.api.key, for trigger),
+ * phone-number, plus the simulator's settings (see {@link RetellSimulator.Settings#from}).
+ * Trigger creates its calls without scheduledFor, so no EventBridge schedule is registered for them
+ * and nothing is left behind in AWS; the scenario dials them through /trigger itself.
+ *
+ * Run with: ./mvnw -Pload-test test -DskipTests -Dloadtest.args="instant concurrency=50 email=... password=..."
+ */
+public class LoadTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final URI baseUrl;
+    private final int requests;
+    private final int concurrency;
+    private final HttpClient client;
+    private String token;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:5000"));
+        this.requests = Integer.parseInt(options.getOrDefault("requests", "200"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "20"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTest instant|trigger|webhooks|simulator [key=value ...]");
+            System.exit(2);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : Arrays.copyOfRange(args, 1, args.length)) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Options are key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        String scenario = args[0];
+        if ("webhooks".equals(scenario)) {
+            // The scenario sends the webhooks itself
+            options.put("webhooks", "false");
+        }
+
+        RetellSimulator.Settings settings = RetellSimulator.Settings.from(options);
+        try (RetellSimulator simulator = new RetellSimulator(settings)) {
+            simulator.start();
+            LoadTest loadTest = new LoadTest(options);
+            switch (scenario) {
+                case "instant" -> loadTest.instantCalls();
+                case "trigger" -> loadTest.triggers();
+                case "webhooks" -> loadTest.webhookBursts(simulator);
+                case "simulator" -> {
+                    Thread.currentThread().join(); // until interrupted
+                }
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            }
+            Duration lifecycle = Duration.ofMillis(settings.ringMs() + settings.talkMs() + settings.analysisMs());
+            if (!simulator.awaitWebhooks(lifecycle.plusSeconds(30))) {
+                System.out.println("Gave up waiting for the simulator's last webhooks");
+            }
+            System.out.println("Simulator: " + simulator.summary());
+        }
+    }
+
+    private void instantCalls() throws IOException, InterruptedException {
+        login();
+        // async=true measures the 202 mode, which answers before Retell does
+        String path = Boolean.parseBoolean(options.get("async")) ? "/api/calls/instant?async=true" : "/api/calls/instant";
+        run("instant", i -> authorized(path)
+                .POST(json(callRequest(i, null)))
+                .build());
+    }
+
+    private void triggers() throws IOException, InterruptedException {
+        login();
+        String apiKey = option("api-key");
+        // Unscheduled calls: a scheduledFor would register a real EventBridge schedule per call
+        List<String> callIds = setUp("scheduled calls", i -> authorized("/api/calls")
+                .POST(json(callRequest(i, null)))
+                .build(), "callId");
+
+        run("trigger", i -> HttpRequest.newBuilder(baseUrl.resolve("/api/calls/" + callIds.get(i % callIds.size()) + "/trigger"))
+                .header("X-API-Key", apiKey)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    private void webhookBursts(RetellSimulator simulator) throws IOException, InterruptedException {
+        login();
+        List<String> providerIds = setUp("instant calls", i -> authorized("/api/calls/instant")
+                .POST(json(callRequest(i, null)))
+                .build(), "providerId");
+
+        for (String event : List.of("call_started", "call_ended", "call_analyzed")) {
+            List<byte[]> payloads = new ArrayList<>(providerIds.size());
+            for (String providerId : providerIds) {
+                payloads.add(simulator.advance(providerId, event));
+            }
+            run(event, i -> HttpRequest.newBuilder(baseUrl.resolve("/webhooks/retell"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payloads.get(i % payloads.size())))
+                    .build());
+        }
+    }
+
+    private void login() throws IOException, InterruptedException {
+        Map<String, String> credentials = Map.of("email", option("email"), "password", option("password"));
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(baseUrl.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(json(credentials))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with HTTP " + response.statusCode() + ": " + new String(response.body()));
+        }
+        token = objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private Map<String, Object> callRequest(int i, Long scheduledFor) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("calleeName", "Load Test " + i);
+        request.put("phoneNumber", options.getOrDefault("phone-number", "+15555550100"));
+        request.put("subject", "Load test");
+        request.put("prompt", "Say hello and hang up.");
+        request.put("scheduledFor", scheduledFor);
+        return request;
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json");
+    }
+
+    private String option(String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Option " + name + "=... is required");
+        }
+        return value;
+    }
+
+    private interface Requests {
+        HttpRequest get(int i) throws IOException;
+    }
+
+    /**
+     * Sends the requests a scenario needs before it is measured and collects a field from each
+     * successful response.
+     */
+    private List<String> setUp(String what, Requests requestsToSend, String field) throws InterruptedException {
+        System.out.printf("Creating %d %s...%n", requests, what);
+        Map<Integer, String> values = new ConcurrentHashMap<>();
+        Result result = send(requestsToSend, (i, body) -> {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            if (value != null) {
+                values.put(i, value.asText());
+            }
+        });
+        if (values.isEmpty()) {
+            throw new IllegalStateException("Could not create any " + what + ": " + result.statuses());
+        }
+        return new ArrayList<>(values.values());
+    }
+
+    private void run(String scenario, Requests requestsToSend) throws InterruptedException {
+        System.out.println(send(requestsToSend, (i, body) -> { }).report(scenario));
+    }
+
+    private interface ResponseHandler {
+        void accept(int i, byte[] body) throws IOException;
+    }
+
+    private Result send(Requests requestsToSend, ResponseHandler onSuccess) throws InterruptedException {
+        Result result = new Result(requests);
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        long started = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            clients.add(Thread.ofVirtual().start(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        HttpResponse<byte[]> response = client.send(requestsToSend.get(i), HttpResponse.BodyHandlers.ofByteArray());
+                        status = response.statusCode();
+                        if (status / 100 == 2) {
+                            onSuccess.accept(i, response.body());
+                        }
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    result.record(i, status, System.nanoTime() - sent);
+                }
+            }));
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        result.elapsedNanos = System.nanoTime() - started;
+        return result;
+    }
+
+    private static <T> HttpRequest.BodyPublisher json(T body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    /**
+     * Latencies and response statuses of one measured run; status -1 counts I/O errors.
+     */
+    private static class Result {
+
+        private final long[] latencyNanos;
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final AtomicInteger completed = new AtomicInteger();
+        private long elapsedNanos;
+
+        Result(int requests) {
+            this.latencyNanos = new long[requests];
+        }
+
+        void record(int i, int status, long nanos) {
+            latencyNanos[i] = nanos;
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            completed.incrementAndGet();
+        }
+
+        Map<Integer, Long> statuses() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+
+        String report(String scenario) {
+            int count = completed.get();
+            long[] sorted = Arrays.copyOf(latencyNanos, count);
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%-14s %6d requests in %6.1f s  %8.1f req/s  p50 %6d ms  p99 %6d ms  max %6d ms  responses %s",
+                    scenario, count, seconds, count / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 1.0), statuses());
+        }
+
+        private static long millis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.callcat.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the Retell API, so the backend can be load tested without placing real calls.
+ *
+ * Serves POST /create-phone-call and GET /get-call/{id} on localhost after a configurable
+ * latency (and, if asked, fails a share of them with 503), then plays each created call through
+ * Retell's lifecycle: call_started after ring-ms, call_ended after another talk-ms and
+ * call_analyzed after another analysis-ms, each POSTed to the backend's webhook endpoint.
+ * Calls are kept in memory for the simulator's lifetime.
+ *
+ * Point the backend at it with --retell.base.url=http://localhost:8089 --retell.api.key=sim;
+ * see {@link LoadTest} for the options and for running it on its own.
+ */
+public class RetellSimulator implements AutoCloseable {
+
+    /**
+     * @param latencyJitterMs up to this much is added at random to each response's latency
+     * @param failureRate     share of API requests answered with 503 instead of being served
+     * @param webhooks        whether created calls play through their lifecycle on their own
+     */
+    public record Settings(int port, URI webhookUrl, long createLatencyMs, long getLatencyMs, long latencyJitterMs,
+                           long ringMs, long talkMs, long analysisMs, double failureRate, boolean webhooks) {
+
+        static Settings from(Map<String, String> options) {
+            return new Settings(
+                    Integer.parseInt(options.getOrDefault("port", "8089")),
+                    URI.create(options.getOrDefault("webhook-url", "http://localhost:5000/webhooks/retell")),
+                    Long.parseLong(options.getOrDefault("create-latency-ms", "300")),
+                    Long.parseLong(options.getOrDefault("get-latency-ms", "100")),
+                    Long.parseLong(options.getOrDefault("latency-jitter-ms", "100")),
+                    Long.parseLong(options.getOrDefault("ring-ms", "2000")),
+                    Long.parseLong(options.getOrDefault("talk-ms", "10000")),
+                    Long.parseLong(options.getOrDefault("analysis-ms", "3000")),
+                    Double.parseDouble(options.getOrDefault("failure-rate", "0")),
+                    Boolean.parseBoolean(options.getOrDefault("webhooks", "true")));
+        }
+    }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timeline = Executors.newSingleThreadScheduledExecutor();
+    private final HttpClient webhookClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, ObjectNode> calls = new ConcurrentHashMap<>();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong webhooksDelivered = new AtomicLong();
+    private final AtomicLong webhooksFailed = new AtomicLong();
+    private final AtomicLong webhooksPending = new AtomicLong();
+
+    public RetellSimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", settings.port()), 1024);
+        server.createContext("/create-phone-call",
+                exchange -> handle(exchange, "POST", settings.createLatencyMs(), this::createPhoneCall));
+        server.createContext("/get-call/",
+                exchange -> handle(exchange, "GET", settings.getLatencyMs(), this::getCall));
+        server.setExecutor(handlers);
+    }
+
+    public void start() {
+        server.start();
+        System.out.printf("Retell simulator listening on http://localhost:%d, webhooks %s%n", settings.port(),
+                settings.webhooks() ? "to " + settings.webhookUrl() : "off");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        timeline.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Waits until the webhooks of the calls created so far have all been answered, or the timeout passed.
+     *
+     * @return whether none are left
+     */
+    public boolean awaitWebhooks(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (webhooksPending.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(100);
+        }
+        return true;
+    }
+
+    public String summary() {
+        return String.format("calls created %d, fetched %d, failed with 503 %d; webhooks delivered %d, failed %d",
+                created.get(), fetched.get(), failed.get(), webhooksDelivered.get(), webhooksFailed.get());
+    }
+
+    /**
+     * Moves a call to the state the event reports and returns the webhook payload for it,
+     * without sending it. Used by the timeline and by the webhook burst scenario.
+     *
+     * @param event call_started, call_ended or call_analyzed
+     */
+    byte[] advance(String callId, String event) throws IOException {
+        ObjectNode call = calls.get(callId);
+        if (call == null) {
+            throw new IllegalArgumentException("Unknown call: " + callId);
+        }
+        synchronized (call) {
+            long now = System.currentTimeMillis();
+            switch (event) {
+                case "call_started" -> {
+                    call.put("call_status", "ongoing");
+                    call.put("start_timestamp", now);
+                }
+                case "call_ended" -> {
+                    long startedAt = call.path("start_timestamp").asLong(now);
+                    call.put("call_status", "ended");
+                    call.put("end_timestamp", now);
+                    call.put("duration_ms", now - startedAt);
+                    call.put("disconnection_reason", "user_hangup");
+                    call.put("transcript", "Agent: Hi, this is a simulated call.\nUser: Thanks, goodbye.\n");
+                }
+                case "call_analyzed" -> {
+                    ObjectNode analysis = call.putObject("call_analysis");
+                    analysis.put("call_summary", "A simulated call that ended normally.");
+                    analysis.put("user_sentiment", "Neutral");
+                    analysis.put("call_successful", true);
+                    analysis.put("in_voicemail", false);
+                }
+                default -> throw new IllegalArgumentException("Unknown event: " + event);
+            }
+            ObjectNode payload = objectMapper.createObjectNode();
+            payload.put("event", event);
+            payload.set("call", call);
+            return objectMapper.writeValueAsBytes(payload);
+        }
+    }
+
+    private void createPhoneCall(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+        String callId = "call_sim_" + UUID.randomUUID().toString().replace("-", "");
+        ObjectNode call = objectMapper.createObjectNode();
+        call.put("call_id", callId);
+        call.put("call_type", "phone_call");
+        call.put("agent_id", "agent_sim");
+        call.put("call_status", "registered");
+        call.put("direction", "outbound");
+        call.set("from_number", request.get("from_number"));
+        call.set("to_number", request.get("to_number"));
+        call.set("metadata", request.get("metadata"));
+        call.set("retell_llm_dynamic_variables", request.get("retell_llm_dynamic_variables"));
+        calls.put(callId, call);
+        created.incrementAndGet();
+
+        if (settings.webhooks()) {
+            schedule(callId, "call_started", settings.ringMs());
+            schedule(callId, "call_ended", settings.ringMs() + settings.talkMs());
+            schedule(callId, "call_analyzed", settings.ringMs() + settings.talkMs() + settings.analysisMs());
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        synchronized (call) {
+            respond(exchange, 201, objectMapper.writeValueAsBytes(call));
+        }
+    }
+
+    private void getCall(HttpExchange exchange) throws IOException {
+        String callId = exchange.getRequestURI().getPath().substring("/get-call/".length());
+        ObjectNode call = calls.get(callId);
+        if (call == null) {
+            respond(exchange, 404, error("Call not found"));
+            return;
+        }
+        fetched.incrementAndGet();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        synchronized (call) {
+            respond(exchange, 200, objectMapper.writeValueAsBytes(call));
+        }
+    }
+
+    private void schedule(String callId, String event, long delayMs) {
+        webhooksPending.incrementAndGet();
+        timeline.schedule(() -> {
+            try {
+                sendWebhook(advance(callId, event));
+            } catch (IOException | RuntimeException e) {
+                webhooksFailed.incrementAndGet();
+                webhooksPending.decrementAndGet();
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void sendWebhook(byte[] payload) {
+        HttpRequest request = HttpRequest.newBuilder(settings.webhookUrl())
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+        webhookClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    if (e == null && response.statusCode() / 100 == 2) {
+                        webhooksDelivered.incrementAndGet();
+                    } else {
+                        webhooksFailed.incrementAndGet();
+                    }
+                    webhooksPending.decrementAndGet();
+                });
+    }
+
+    private interface Endpoint {
+        void serve(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, String method, long latencyMs, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            if (!method.equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Method not allowed"));
+                return;
+            }
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.startsWith("Bearer ")) {
+                respond(exchange, 401, error("Missing API key"));
+                return;
+            }
+            sleep(latencyMs);
+            if (ThreadLocalRandom.current().nextDouble() < settings.failureRate()) {
+                failed.incrementAndGet();
+                respond(exchange, 503, error("Simulated outage"));
+                return;
+            }
+            endpoint.serve(exchange);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Retell simulator failed to answer " + exchange.getRequestURI() + ": " + e);
+        }
+    }
+
+    private void sleep(long latencyMs) {
+        long jitter = settings.latencyJitterMs() > 0 ? ThreadLocalRandom.current().nextLong(settings.latencyJitterMs() + 1) : 0;
+        try {
+            Thread.sleep(latencyMs + jitter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] error(String message) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of("error_message", message));
+    }
+}
@@ -0,0 +1,119 @@
+package com.callcat.backend.mapper;
+
+import com.callcat.backend.dto.CallRequest;
+import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.dto.UpdateCallRequest;
+import com.callcat.backend.entity.CallRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallMapperTest {
+
+    @Test
+    void toResponse_ShouldCopyEverythingBeanUtilsWould() {
+        CallRecord callRecord = populated(new CallRecord());
+
+        CallResponse expected = new CallResponse();
+        BeanUtils.copyProperties(callRecord, expected);
+        CallResponse actual = CallMapper.toResponse(callRecord);
+
+        // Fails when a field is added to both classes but not to the mapper
+        assertSameProperties(expected, actual);
+    }
+
+    @Test
+    void toRecord_ShouldCopyEveryRequestField() {
+        CallRequest request = populated(new CallRequest());
+
+        CallRecord expected = new CallRecord();
+        BeanUtils.copyProperties(request, expected);
+        CallRecord actual = CallMapper.toRecord(request);
+
+        assertSameProperties(expected, actual);
+        assertNull(actual.getCallId());
+        assertNull(actual.getStatus());
+    }
+
+    @Test
+    void applyUpdate_ShouldOnlyOverwriteNonNullFields() {
+        CallRecord callRecord = populated(new CallRecord());
+        String originalPhone = callRecord.getPhoneNumber();
+        UpdateCallRequest update = new UpdateCallRequest();
+        update.setCalleeName("New Name");
+        update.setScheduledFor(42L);
+
+        CallMapper.applyUpdate(update, callRecord);
+
+        assertEquals("New Name", callRecord.getCalleeName());
+        assertEquals(42L, callRecord.getScheduledFor());
+        assertEquals(originalPhone, callRecord.getPhoneNumber());
+    }
+
+    @Test
+    void applyUpdate_ShouldCopyEveryUpdateField() {
+        UpdateCallRequest update = populated(new UpdateCallRequest());
+
+        CallRecord expected = new CallRecord();
+        BeanUtils.copyProperties(update, expected);
+        CallRecord actual = new CallRecord();
+        CallMapper.applyUpdate(update, actual);
+
+        assertSameProperties(expected, actual);
+    }
+
+    @Test
+    void copy_ShouldCopyEveryProperty() {
+        CallRecord callRecord = populated(new CallRecord());
+        callRecord.setSk("0000000001000#call-1");
+
+        CallRecord copy = CallMapper.copy(callRecord);
+
+        assertNotSame(callRecord, copy);
+        assertSameProperties(callRecord, copy);
+    }
+
+    // Sets every writable property to a distinct non-null value (status to a valid one, setStatus checks it)
+    private static <T> T populated(T bean) {
+        BeanWrapper wrapper = new BeanWrapperImpl(bean);
+        int i = 0;
+        for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+            if (property.getWriteMethod() == null) {
+                continue;
+            }
+            i++;
+            Class<?> type = property.getPropertyType();
+            if ("status".equals(property.getName())) {
+                wrapper.setPropertyValue("status", "COMPLETED");
+            } else if (type == String.class) {
+                wrapper.setPropertyValue(property.getName(), property.getName() + "-" + i);
+            } else if (type == Long.class) {
+                wrapper.setPropertyValue(property.getName(), 1_000L + i);
+            } else if (type == Integer.class) {
+                wrapper.setPropertyValue(property.getName(), i);
+            } else if (type == Boolean.class) {
+                wrapper.setPropertyValue(property.getName(), i % 2 == 0);
+            } else {
+                fail("Unhandled property type " + type + " for " + property.getName());
+            }
+        }
+        return bean;
+    }
+
+    private static void assertSameProperties(Object expected, Object actual) {
+        BeanWrapper expectedWrapper = new BeanWrapperImpl(expected);
+        BeanWrapper actualWrapper = new BeanWrapperImpl(actual);
+        for (PropertyDescriptor property : expectedWrapper.getPropertyDescriptors()) {
+            if (property.getReadMethod() == null || "class".equals(property.getName())) {
+                continue;
+            }
+            assertEquals(expectedWrapper.getPropertyValue(property.getName()),
+                    actualWrapper.getPropertyValue(property.getName()), property.getName());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallCounterRepositoryTest {
+
+    @Mock
+    private DynamoDbEnhancedClient dynamoDb;
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+
+    @Mock
+    private DynamoDbTable<CallCounters> table;
+
+    private CallCounterRepository callCounterRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(dynamoDb.table(anyString(), any(TableSchema.class))).thenReturn(table);
+        callCounterRepository = new CallCounterRepository(dynamoDb, dynamoDbClient);
+    }
+
+    @Test
+    void recordTransition_ShouldMoveOneCallOnUserAndOneGlobalShard() {
+        callCounterRepository.recordTransition("test@example.com", "SCHEDULED", "COMPLETED");
+
+        ArgumentCaptor<UpdateItemRequest> requests = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient, times(2)).updateItem(requests.capture());
+        List<String> ids = requests.getAllValues().stream().map(request -> request.key().get("id").s()).toList();
+        assertEquals("test@example.com", ids.get(0));
+        assertTrue(ids.get(1).matches("GLOBAL#([0-9]|1[0-5])"), ids.get(1));
+
+        UpdateItemRequest request = requests.getAllValues().get(0);
+        assertEquals(request.updateExpression(), requests.getAllValues().get(1).updateExpression());
+        assertEquals("ADD #scheduled :scheduled, #completed :completed", request.updateExpression());
+        assertEquals("-1", request.expressionAttributeValues().get(":scheduled").n());
+        assertEquals("1", request.expressionAttributeValues().get(":completed").n());
+    }
+
+    @Test
+    void recordTransition_WithoutStatusChange_ShouldNotWrite() {
+        callCounterRepository.recordTransition("test@example.com", "COMPLETED", "COMPLETED");
+        callCounterRepository.recordTransition("test@example.com", null, null);
+
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    void add_WhenCounterWriteFails_ShouldNotThrow() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenThrow(new RuntimeException("Throttled"));
+
+        assertDoesNotThrow(() -> callCounterRepository.add("test@example.com", Map.of("SCHEDULED", 3L)));
+        verify(dynamoDbClient, times(2)).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    void findGlobal_ShouldSumBaseAndShardsInOneBatchGet() {
+        when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(BatchGetItemResponse.builder()
+                .responses(Map.of("callcat-call-counters", List.of(
+                        Map.of("id", AttributeValue.builder().s("GLOBAL").build(),
+                                "scheduled", AttributeValue.builder().n("10").build(),
+                                "seeded", AttributeValue.builder().bool(true).build()),
+                        Map.of("id", AttributeValue.builder().s("GLOBAL#3").build(),
+                                "scheduled", AttributeValue.builder().n("-2").build(),
+                                "completed", AttributeValue.builder().n("2").build()),
+                        Map.of("id", AttributeValue.builder().s("GLOBAL#7").build(),
+                                "failed", AttributeValue.builder().n("1").build()))))
+                .build());
+
+        CallCounters global = callCounterRepository.findGlobal();
+
+        ArgumentCaptor<BatchGetItemRequest> request = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(dynamoDbClient).batchGetItem(request.capture());
+        assertEquals(CallCounterRepository.GLOBAL_SHARDS + 1,
+                request.getValue().requestItems().get("callcat-call-counters").keys().size());
+        assertEquals(8L, global.getScheduled());
+        assertEquals(2L, global.getCompleted());
+        assertEquals(1L, global.getFailed());
+        assertTrue(global.getSeeded());
+    }
+
+    @Test
+    void seed_ShouldSetCountsOnlyOnceAndOnlyIfUnchangedSinceRead() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of(
+                        "id", AttributeValue.builder().s("test@example.com").build(),
+                        "scheduled", AttributeValue.builder().n("2").build(),
+                        "completed", AttributeValue.builder().n("5").build(),
+                        "failed", AttributeValue.builder().n("1").build(),
+                        "seeded", AttributeValue.builder().bool(true).build()))
+                .build());
+        CallCounters before = new CallCounters();
+        before.setScheduled(1L); // Incremented before the count
+
+        CallCounters counters = callCounterRepository.seed("test@example.com", before, 2, 5, 1).orElseThrow();
+
+        ArgumentCaptor<UpdateItemRequest> request = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(request.capture());
+        assertEquals("attribute_not_exists(#seeded) AND #scheduled = :before_scheduled "
+                        + "AND attribute_not_exists(#completed) AND attribute_not_exists(#failed)",
+                request.getValue().conditionExpression());
+        assertEquals("1", request.getValue().expressionAttributeValues().get(":before_scheduled").n());
+        assertEquals(5L, counters.getCompleted());
+        assertTrue(counters.getSeeded());
+    }
+
+    @Test
+    void seed_WhenSeededOrChangedSinceRead_ShouldWriteNothing() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().message("The conditional request failed").build());
+
+        assertTrue(callCounterRepository.seed("test@example.com", null, 2, 5, 1).isEmpty());
+    }
+
+    @Test
+    void findLatestById_ShouldReadConsistently() {
+        callCounterRepository.findLatestById("test@example.com");
+
+        ArgumentCaptor<GetItemEnhancedRequest> request = ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        verify(table).getItem(request.capture());
+        assertTrue(request.getValue().consistentRead());
+    }
+}
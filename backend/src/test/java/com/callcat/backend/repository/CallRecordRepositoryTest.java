@@ -0,0 +1,442 @@
+package com.callcat.backend.repository;
+
+import com.callcat.backend.entity.CallRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallRecordRepositoryTest {
+
+    @Mock
+    private DynamoDbEnhancedClient dynamoDb;
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+
+    @Mock
+    private CallCounterRepository callCounterRepository;
+
+    @Mock
+    private DynamoDbTable<CallRecord> table;
+
+    @Mock
+    private DynamoDbIndex<CallRecord> index;
+
+    private CallRecordRepository callRecordRepository;
+    private CallRecord testCall;
+
+    @BeforeEach
+    void setUp() {
+        when(dynamoDb.table(anyString(), any(TableSchema.class))).thenReturn(table);
+        when(table.index(anyString())).thenReturn(index);
+        callRecordRepository = new CallRecordRepository(dynamoDb, dynamoDbClient, callCounterRepository,
+                new CallKeyResolver(new SimpleMeterRegistry()));
+
+        testCall = new CallRecord();
+        testCall.setUserId("test@example.com");
+        testCall.setCallId("call-1");
+        testCall.setStatus("COMPLETED");
+        testCall.setScheduledFor(1_700_000_000_000L);
+    }
+
+    @Test
+    void findByUserIdAndStatus_ShouldReadOnePageAndReturnCursor() {
+        Iterator<Page<CallRecord>> pages = pagesOf(
+                Page.create(List.of(testCall), lastEvaluatedKeyOf(testCall)),
+                Page.create(List.of(new CallRecord()), null));
+        when(index.query(any(QueryEnhancedRequest.class))).thenReturn(iterableOf(pages));
+
+        CallRecordPage page = callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 1, null);
+
+        assertEquals(1, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        assertTrue(pages.hasNext(), "only the first page may be fetched");
+    }
+
+    @Test
+    void findByUserIdAndStatus_WithCursor_ShouldStartAfterLastKey() {
+        Map<String, AttributeValue> lastKey = lastEvaluatedKeyOf(testCall);
+        when(index.query(any(QueryEnhancedRequest.class)))
+                .thenReturn(iterableOf(pagesOf(Page.create(List.of(testCall), lastKey))))
+                .thenReturn(iterableOf(pagesOf(Page.create(List.of(), null))));
+        String cursor = callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 1, null).getNextCursor();
+
+        CallRecordPage next = callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 1, cursor);
+
+        ArgumentCaptor<QueryEnhancedRequest> request = ArgumentCaptor.forClass(QueryEnhancedRequest.class);
+        verify(index, times(2)).query(request.capture());
+        assertEquals(lastKey, request.getAllValues().get(1).exclusiveStartKey());
+        assertFalse(request.getAllValues().get(1).scanIndexForward());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void findByUserIdAndStatus_WithCursorOfAnotherUser_ShouldReject() {
+        when(index.query(any(QueryEnhancedRequest.class)))
+                .thenReturn(iterableOf(pagesOf(Page.create(List.of(testCall), lastEvaluatedKeyOf(testCall)))));
+        String cursor = callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 1, null).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> callRecordRepository.findByUserIdAndStatus("other@example.com", "COMPLETED", 1, cursor));
+        assertThrows(IllegalArgumentException.class,
+                () -> callRecordRepository.findByUserIdAndStatus("test@example.com", "FAILED", 1, cursor));
+        assertThrows(IllegalArgumentException.class,
+                () -> callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 1, "not-a-cursor"));
+    }
+
+    @Test
+    void findByUserIdAndStatus_WithAttributes_ShouldProjectThemAndTheKeys() {
+        when(index.query(any(QueryEnhancedRequest.class)))
+                .thenReturn(iterableOf(pagesOf(Page.create(List.of(testCall), null))));
+
+        callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 20, null, List.of("status", "callId"));
+
+        ArgumentCaptor<QueryEnhancedRequest> request = ArgumentCaptor.forClass(QueryEnhancedRequest.class);
+        verify(index).query(request.capture());
+        assertEquals(List.of("userId", "sk", "callId", "status"), request.getValue().attributesToProject());
+    }
+
+    @Test
+    void findByUserIdAndStatus_WithoutAttributes_ShouldReadWholeItems() {
+        when(index.query(any(QueryEnhancedRequest.class)))
+                .thenReturn(iterableOf(pagesOf(Page.create(List.of(testCall), null))));
+
+        callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 20, null);
+
+        ArgumentCaptor<QueryEnhancedRequest> request = ArgumentCaptor.forClass(QueryEnhancedRequest.class);
+        verify(index).query(request.capture());
+        assertNull(request.getValue().attributesToProject());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_ShouldWriteInChunksOf25AndRetryUnprocessedItems() {
+        lenient().when(table.tableName()).thenReturn("callcat-calls");
+        lenient().when(table.tableSchema()).thenReturn(TableSchema.fromBean(CallRecord.class));
+        List<CallRecord> calls = IntStream.range(0, 30).mapToObj(CallRecordRepositoryTest::callNumbered).toList();
+
+        BatchWriteResult throttled = mock(BatchWriteResult.class);
+        when(throttled.unprocessedPutItemsForTable(table)).thenReturn(List.of(calls.get(3)));
+        BatchWriteResult done = mock(BatchWriteResult.class);
+        when(done.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+        when(dynamoDb.batchWriteItem(any(Consumer.class))).thenReturn(throttled, done, done);
+
+        List<CallRecord> failed = callRecordRepository.saveAll(calls);
+
+        assertTrue(failed.isEmpty());
+        verify(dynamoDb, times(3)).batchWriteItem(any(Consumer.class)); // 25, retry of 1, then 5
+        assertTrue(calls.stream().allMatch(call -> call.getVersion() == 1L), "retries must not bump the version again");
+        verify(callCounterRepository).add("test@example.com", Map.of("SCHEDULED", 30L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_WhenItemsStayUnprocessed_ShouldReturnThem() {
+        lenient().when(table.tableName()).thenReturn("callcat-calls");
+        lenient().when(table.tableSchema()).thenReturn(TableSchema.fromBean(CallRecord.class));
+        BatchWriteResult throttled = mock(BatchWriteResult.class);
+        when(throttled.unprocessedPutItemsForTable(table)).thenReturn(List.of(testCall));
+        when(dynamoDb.batchWriteItem(any(Consumer.class))).thenReturn(throttled);
+
+        List<CallRecord> failed = callRecordRepository.saveAll(List.of(testCall));
+
+        assertEquals(List.of(testCall), failed);
+        verify(dynamoDb, times(5)).batchWriteItem(any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_WhenAChunkThrows_ShouldReturnItAndKeepWritingTheRest() {
+        lenient().when(table.tableName()).thenReturn("callcat-calls");
+        lenient().when(table.tableSchema()).thenReturn(TableSchema.fromBean(CallRecord.class));
+        List<CallRecord> calls = IntStream.range(0, 60).mapToObj(CallRecordRepositoryTest::callNumbered).toList();
+
+        BatchWriteResult done = mock(BatchWriteResult.class);
+        when(done.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+        when(dynamoDb.batchWriteItem(any(Consumer.class)))
+                .thenReturn(done)
+                .thenThrow(ProvisionedThroughputExceededException.builder().message("Throttled").build())
+                .thenReturn(done);
+
+        List<CallRecord> failed = callRecordRepository.saveAll(calls);
+
+        assertEquals(calls.subList(25, 50), failed);
+        verify(dynamoDb, times(3)).batchWriteItem(any(Consumer.class));
+        verify(callCounterRepository).add("test@example.com", Map.of("SCHEDULED", 35L));
+    }
+
+    @Test
+    void update_ShouldSendOnlyChangedAttributesAndConditions() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of(
+                        "status", AttributeValue.builder().s("SCHEDULED").build(),
+                        "userStatus", AttributeValue.builder().s("test@example.com#SCHEDULED").build(),
+                        "retellCallData", AttributeValue.builder().s("{}").build(),
+                        "version", AttributeValue.builder().n("3").build()))
+                .build());
+        testCall.setStatus("SCHEDULED");
+        testCall.setPrompt("Remind them");
+        testCall.setRetellCallData("{}");
+
+        Optional<CallRecord> updated = callRecordRepository.update(CallRecordUpdate.of(testCall)
+                .status("COMPLETED")
+                .dialSuccessful(false)
+                .removeRetellCallData()
+                .ifStatus("SCHEDULED")
+                .ifVersion(3L));
+
+        ArgumentCaptor<UpdateItemRequest> request = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(request.capture());
+        UpdateItemRequest sent = request.getValue();
+        assertEquals("callcat-calls", sent.tableName());
+        assertEquals(testCall.getSk(), sent.key().get("sk").s());
+        assertEquals("SET #status = :status, #userStatus = :userStatus, #dialSuccessful = :dialSuccessful "
+                + "REMOVE #retellCallData ADD #version :versionIncrement", sent.updateExpression());
+        assertEquals("attribute_exists(#userId) AND #status = :expectedStatus AND #version = :expectedVersion",
+                sent.conditionExpression());
+        assertEquals("test@example.com#COMPLETED", sent.expressionAttributeValues().get(":userStatus").s());
+        assertFalse(sent.expressionAttributeValues().containsKey(":prompt"));
+        assertEquals(ReturnValue.UPDATED_OLD, sent.returnValues());
+
+        // Only the replaced attributes come back; the result is the record read with the update applied
+        CallRecord result = updated.orElseThrow();
+        assertEquals(4L, result.getVersion());
+        assertEquals("COMPLETED", result.getStatus());
+        assertEquals("Remind them", result.getPrompt());
+        assertNull(result.getRetellCallData());
+        verify(callCounterRepository).recordTransition("test@example.com", "SCHEDULED", "COMPLETED");
+    }
+
+    @Test
+    void update_WithoutStatusChange_ShouldNotCountTransition() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of("version", AttributeValue.builder().n("1").build()))
+                .build());
+
+        Optional<CallRecord> updated = callRecordRepository.update(CallRecordUpdate.of(testCall).callAnalyzed(true));
+
+        assertEquals(2L, updated.orElseThrow().getVersion());
+        assertEquals("COMPLETED", updated.get().getStatus());
+        verifyNoInteractions(callCounterRepository);
+    }
+
+    @Test
+    void update_WhenConditionFails_ShouldReturnEmpty() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().message("The conditional request failed").build());
+
+        Optional<CallRecord> updated = callRecordRepository.update(CallRecordUpdate.of(testCall)
+                .callAnalyzed(true)
+                .ifNotAnalyzed());
+
+        assertTrue(updated.isEmpty());
+        verifyNoInteractions(callCounterRepository);
+    }
+
+    @Test
+    void save_ShouldCountTransitionFromStoredStatus() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder()
+                .attributes(Map.of("status", AttributeValue.builder().s("SCHEDULED").build()))
+                .build());
+
+        callRecordRepository.save(testCall);
+
+        ArgumentCaptor<PutItemRequest> request = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(request.capture());
+        assertEquals("test@example.com#COMPLETED", request.getValue().item().get("userStatus").s());
+        verify(callCounterRepository).recordTransition("test@example.com", "SCHEDULED", "COMPLETED");
+    }
+
+    @Test
+    void save_OfNewCall_ShouldCountItsStatus() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+
+        callRecordRepository.save(testCall);
+
+        verify(callCounterRepository).recordTransition("test@example.com", null, "COMPLETED");
+    }
+
+    @Test
+    void delete_ShouldUncountDeletedCall() {
+        when(table.deleteItem(any(Key.class))).thenReturn(testCall);
+
+        callRecordRepository.delete(testCall);
+
+        verify(callCounterRepository).recordTransition("test@example.com", "COMPLETED", null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replace_WhenVersionChanged_ShouldReturnFalseAndKeepRecordVersion() {
+        String previousSk = testCall.getSk();
+        testCall.setVersion(2L);
+        testCall.setScheduledFor(1_800_000_000_000L);
+        doThrow(TransactionCanceledException.builder().message("Transaction cancelled").build())
+                .when(dynamoDb).transactWriteItems(any(Consumer.class));
+
+        assertFalse(callRecordRepository.replace(previousSk, testCall, 2L));
+        assertEquals(2L, testCall.getVersion());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replace_ShouldBumpVersion() {
+        String previousSk = testCall.getSk();
+        testCall.setScheduledFor(1_800_000_000_000L);
+
+        assertTrue(callRecordRepository.replace(previousSk, testCall, null));
+        assertEquals(1L, testCall.getVersion());
+        verify(dynamoDb).transactWriteItems(any(Consumer.class));
+    }
+
+    @Test
+    void findByCallId_OfUnknownCall_ShouldQueryIndexAndRememberKey() {
+        when(index.query(any(QueryEnhancedRequest.class))).thenReturn(iterableOf(pagesOf(Page.create(List.of(testCall)))));
+        when(table.getItem(any(GetItemEnhancedRequest.class))).thenReturn(testCall);
+
+        assertTrue(callRecordRepository.findByCallId("call-1").isPresent());
+        assertTrue(callRecordRepository.findByCallId("call-1").isPresent());
+
+        verify(index, times(1)).query(any(QueryEnhancedRequest.class));
+        ArgumentCaptor<GetItemEnhancedRequest> request = ArgumentCaptor.forClass(GetItemEnhancedRequest.class);
+        verify(table).getItem(request.capture());
+        assertTrue(request.getValue().consistentRead());
+        assertEquals(testCall.getSk(), request.getValue().key().sortKeyValue().orElseThrow().s());
+    }
+
+    @Test
+    void findByCallId_AfterSave_ShouldReadConsistentlyWithoutIndex() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+        when(table.getItem(any(GetItemEnhancedRequest.class))).thenReturn(testCall);
+
+        callRecordRepository.save(testCall);
+        Optional<CallRecord> found = callRecordRepository.findByCallId("call-1");
+
+        assertSame(testCall, found.orElseThrow());
+        verify(index, never()).query(any(QueryEnhancedRequest.class));
+    }
+
+    @Test
+    void findByCallId_WhenRememberedKeyIsGone_ShouldFallBackToIndex() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+        callRecordRepository.save(testCall);
+
+        CallRecord rescheduled = new CallRecord();
+        rescheduled.setUserId("test@example.com");
+        rescheduled.setCallId("call-1");
+        rescheduled.setScheduledFor(1_800_000_000_000L);
+        when(table.getItem(any(GetItemEnhancedRequest.class))).thenReturn(null);
+        when(index.query(any(QueryEnhancedRequest.class))).thenReturn(iterableOf(pagesOf(Page.create(List.of(rescheduled)))));
+
+        assertSame(rescheduled, callRecordRepository.findByCallId("call-1").orElseThrow());
+        verify(index).query(any(QueryEnhancedRequest.class));
+    }
+
+    @Test
+    void findByCallId_AfterDelete_ShouldNotUseRememberedKey() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+        when(index.query(any(QueryEnhancedRequest.class))).thenReturn(iterableOf(pagesOf(Page.create(List.of()))));
+        callRecordRepository.save(testCall);
+
+        callRecordRepository.delete(testCall);
+
+        assertTrue(callRecordRepository.findByCallId("call-1").isEmpty());
+        verify(table, never()).getItem(any(GetItemEnhancedRequest.class));
+    }
+
+    @Test
+    void findByCallId_WithAttributes_ShouldProjectConsistentGetItem() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class))).thenReturn(PutItemResponse.builder().build());
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder()
+                .item(Map.of(
+                        "userId", AttributeValue.builder().s("test@example.com").build(),
+                        "sk", AttributeValue.builder().s(testCall.getSk()).build(),
+                        "callId", AttributeValue.builder().s("call-1").build(),
+                        "version", AttributeValue.builder().n("5").build()))
+                .build());
+        callRecordRepository.save(testCall);
+
+        CallRecord found = callRecordRepository.findByCallId("call-1", List.of("version")).orElseThrow();
+
+        ArgumentCaptor<GetItemRequest> request = ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(dynamoDbClient).getItem(request.capture());
+        assertTrue(request.getValue().consistentRead());
+        assertEquals("#userId, #sk, #callId, #version", request.getValue().projectionExpression());
+        assertEquals(5L, found.getVersion());
+        assertNull(found.getStatus());
+        verify(table, never()).getItem(any(GetItemEnhancedRequest.class));
+    }
+
+    @Test
+    void findByUserIdAndStatus_WithUnknownStatus_ShouldNotQuery() {
+        CallRecordPage page = callRecordRepository.findByUserIdAndStatus("test@example.com", "UNKNOWN", 20, null);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(index, never()).query(any(QueryEnhancedRequest.class));
+    }
+
+    private static CallRecord callNumbered(int i) {
+        CallRecord call = new CallRecord();
+        call.setUserId("test@example.com");
+        call.setCallId("call-" + i);
+        call.setStatus("SCHEDULED");
+        call.setScheduledFor(1_700_000_000_000L + i);
+        return call;
+    }
+
+    private static Map<String, AttributeValue> lastEvaluatedKeyOf(CallRecord call) {
+        return Map.of(
+                "userStatus", AttributeValue.builder().s(call.getUserStatus()).build(),
+                "userStatusSk", AttributeValue.builder().s(call.getUserStatusSk()).build(),
+                "userId", AttributeValue.builder().s(call.getUserId()).build(),
+                "sk", AttributeValue.builder().s(call.getSk()).build());
+    }
+
+    @SafeVarargs
+    private static Iterator<Page<CallRecord>> pagesOf(Page<CallRecord>... pages) {
+        return List.of(pages).iterator();
+    }
+
+    private static SdkIterable<Page<CallRecord>> iterableOf(Iterator<Page<CallRecord>> pages) {
+        return () -> pages;
+    }
+}
@@ -0,0 +1,99 @@
+package com.callcat.backend.repository.dynamo;
+
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRepositoryDynamoDbTest {
+
+    @Mock
+    private DynamoDbEnhancedClient dynamoDb;
+
+    @Mock
+    private DynamoDbTable<UserDynamoDb> table;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserRepositoryDynamoDb userRepository;
+    private UserDynamoDb testUser;
+
+    @BeforeEach
+    void setUp() {
+        when(dynamoDb.table(anyString(), any(TableSchema.class))).thenReturn(table);
+        meterRegistry = new SimpleMeterRegistry();
+        userRepository = new UserRepositoryDynamoDb(dynamoDb, meterRegistry);
+
+        testUser = new UserDynamoDb();
+        testUser.setEmail("test@example.com");
+        testUser.setFirstName("John");
+        testUser.setIsActive(true);
+    }
+
+    @Test
+    void findByEmail_CalledTwice_ShouldReadTableOnce() {
+        when(table.getItem(any(Key.class))).thenReturn(testUser);
+
+        userRepository.findByEmail("test@example.com");
+        Optional<UserDynamoDb> second = userRepository.findByEmail("test@example.com");
+
+        assertTrue(second.isPresent());
+        assertEquals("John", second.get().getFirstName());
+        verify(table, times(1)).getItem(any(Key.class));
+        assertEquals(1.0, meterRegistry.get("callcat.cache.hits").tag("cache", "users").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("callcat.cache.misses").tag("cache", "users").functionCounter().count());
+    }
+
+    @Test
+    void findByEmail_ShouldReturnCopiesCallersCanMutate() {
+        when(table.getItem(any(Key.class))).thenReturn(testUser);
+
+        userRepository.findByEmail("test@example.com").get().setFirstName("Changed");
+        userRepository.findByEmail("test@example.com").get().setFirstName("Changed again");
+
+        assertEquals("John", userRepository.findByEmail("test@example.com").get().getFirstName());
+    }
+
+    @Test
+    void findByEmail_WithMissingUser_ShouldNotCacheAbsence() {
+        when(table.getItem(any(Key.class))).thenReturn(null, testUser);
+
+        assertTrue(userRepository.findByEmail("test@example.com").isEmpty());
+        assertTrue(userRepository.findByEmail("test@example.com").isPresent());
+    }
+
+    @Test
+    void save_ShouldInvalidateCachedUser() {
+        when(table.getItem(any(Key.class))).thenReturn(testUser);
+        userRepository.findByEmail("test@example.com");
+
+        userRepository.save(testUser);
+        userRepository.findByEmail("test@example.com");
+
+        verify(table, times(2)).getItem(any(Key.class));
+    }
+
+    @Test
+    void deleteByEmail_ShouldInvalidateCachedUser() {
+        when(table.getItem(any(Key.class))).thenReturn(testUser, (UserDynamoDb) null);
+        userRepository.findByEmail("test@example.com");
+
+        userRepository.deleteByEmail("test@example.com");
+
+        assertTrue(userRepository.findByEmail("test@example.com").isEmpty());
+    }
+}
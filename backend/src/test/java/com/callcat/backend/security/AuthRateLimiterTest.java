@@ -0,0 +1,33 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.exception.ThrottledException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    // 2 attempts per email for logins and for codes, plenty per IP
+    private final AuthRateLimiter authRateLimiter = new AuthRateLimiter(true, 100,
+            300, 30, 2,
+            900, 30, 2,
+            900, 10, 3);
+
+    @Test
+    void checkCodeAttempt_OverLimit_ShouldNotLockOutLogin() {
+        authRateLimiter.checkCodeAttempt("1.2.3.4", "test@example.com");
+        authRateLimiter.checkCodeAttempt("1.2.3.4", "Test@Example.com ");
+
+        assertThrows(ThrottledException.class, () -> authRateLimiter.checkCodeAttempt("1.2.3.4", "test@example.com"));
+        assertDoesNotThrow(() -> authRateLimiter.checkCredentialAttempt("1.2.3.4", "test@example.com"));
+    }
+
+    @Test
+    void checkCredentialAttempt_OverLimit_ShouldNotBlockEmailVerification() {
+        authRateLimiter.checkCredentialAttempt("1.2.3.4", "test@example.com");
+        authRateLimiter.checkCredentialAttempt("1.2.3.4", "test@example.com");
+
+        assertThrows(ThrottledException.class, () -> authRateLimiter.checkCredentialAttempt("1.2.3.4", "test@example.com"));
+        assertDoesNotThrow(() -> authRateLimiter.checkCodeAttempt("1.2.3.4", "test@example.com"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.exception.ThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("Password123");
+
+        assertTrue(encoder.matches("Password123", hash));
+        assertFalse(encoder.matches("WrongPassword", hash));
+        assertEquals(1, meterRegistry.get("callcat.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("callcat.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void upgradeEncoding_WithWeakerStoredHash_ShouldReturnTrue() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        String weakHash = new BCryptPasswordEncoder(4).encode("Password123");
+
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("Password123")));
+    }
+
+    @Test
+    void encode_WhenPoolAndQueueAreFull_ShouldRejectImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueueDepth(1);
+
+        ThrottledException exception = assertThrows(ThrottledException.class, () -> encoder.encode("third"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(1.0, meterRegistry.get("callcat.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed-first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed-second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_WhenHashCannotStartInTime_ShouldThrowThrottledAndDropIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ThrottledException.class, () -> encoder.encode("second"));
+        assertEquals(0.0, meterRegistry.get("callcat.password.hash.queue").gauge().value());
+
+        // The first hash started in time, so its caller waits past the 50ms for it
+        release.countDown();
+        assertEquals("hashed-first", running.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_WhenHashStartsInTime_ShouldWaitForItToFinish() {
+        encoder = new BoundedPasswordEncoder(slowEncoder(200), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertEquals("hashed-slow", encoder.encode("slow"));
+        assertEquals(0.0, meterRegistry.get("callcat.password.hash.rejected").counter().count());
+    }
+
+    private void waitForQueueDepth(double depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("callcat.password.hash.queue").gauge().value() < depth) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Queue never reached depth " + depth);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static PasswordEncoder slowEncoder(long millis) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.service.JwtService;
+import com.callcat.backend.service.TokenBlacklistService;
+import com.callcat.backend.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private Claims claims;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenBlacklistService, tokenVersionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WhenUserLookupIsThrottled_ShouldAnswer503WithRetryAfter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calls");
+        request.addHeader("Authorization", "Bearer token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(jwtService.verifyToken("token")).thenReturn(claims);
+        when(claims.getSubject()).thenReturn("test@example.com");
+        when(userDetailsService.loadUserByUsername("test@example.com"))
+                .thenThrow(new ThrottledException("DynamoDB is busy", HttpStatus.SERVICE_UNAVAILABLE, 1));
+
+        filter.doFilter(request, response, filterChain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"success\":false"));
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+}
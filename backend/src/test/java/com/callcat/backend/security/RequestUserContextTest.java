@@ -0,0 +1,91 @@
+package com.callcat.backend.security;
+
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
+import com.callcat.backend.repository.dynamo.UserPreferencesRepositoryDynamoDb;
+import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestUserContextTest {
+
+    @Mock
+    private UserRepositoryDynamoDb userRepository;
+
+    @Mock
+    private UserPreferencesRepositoryDynamoDb userPreferencesRepository;
+
+    private RequestUserContext requestUserContext;
+    private UserDynamoDb testUser;
+
+    @BeforeEach
+    void setUp() {
+        requestUserContext = new RequestUserContext(userRepository, userPreferencesRepository);
+        testUser = new UserDynamoDb();
+        testUser.setEmail("test@example.com");
+        testUser.setIsActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findUser_WithinRequest_ShouldLoadOnce() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        Optional<UserDynamoDb> first = requestUserContext.findUser("test@example.com");
+        Optional<UserDynamoDb> second = requestUserContext.findUser("test@example.com");
+
+        assertSame(first.get(), second.get());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void findPreferences_WithinRequest_ShouldRememberMissingRecord() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userPreferencesRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(requestUserContext.findPreferences("test@example.com").isEmpty());
+        assertTrue(requestUserContext.findPreferences("test@example.com").isEmpty());
+
+        verify(userPreferencesRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void remember_WithinRequest_ShouldServeSavedEntity() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        UserPreferencesDynamoDb preferences = new UserPreferencesDynamoDb();
+        preferences.setEmail("test@example.com");
+
+        requestUserContext.remember(preferences);
+
+        assertSame(preferences, requestUserContext.findPreferences("test@example.com").get());
+        verifyNoInteractions(userPreferencesRepository);
+    }
+
+    @Test
+    void findUser_OutsideRequest_ShouldAlwaysUseRepository() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        requestUserContext.findUser("test@example.com");
+        requestUserContext.findUser("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+}
@@ -0,0 +1,63 @@
+package com.callcat.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowRateLimiterTest {
+
+    // Aligned to a window boundary so the tests control how far into the window they are
+    private final AtomicLong now = new AtomicLong(60_000L * 1000);
+
+    @Test
+    void tryAcquire_WithinLimit_ShouldAllow() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, Duration.ofMinutes(1), 100, now::get);
+
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+    }
+
+    @Test
+    void tryAcquire_OverLimit_ShouldReturnRetryAfter() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, Duration.ofMinutes(1), 100, now::get);
+        limiter.tryAcquire("1.2.3.4");
+        limiter.tryAcquire("1.2.3.4");
+        now.addAndGet(20_000);
+
+        assertEquals(40, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("5.6.7.8"), "other keys have their own budget");
+    }
+
+    @Test
+    void tryAcquire_InNextWindow_ShouldStillCountOverlappingRequests() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, Duration.ofMinutes(1), 100, now::get);
+        limiter.tryAcquire("1.2.3.4");
+        limiter.tryAcquire("1.2.3.4");
+
+        // 15s into the next window three quarters of the previous window still count (1.5 requests)
+        now.addAndGet(75_000);
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertTrue(limiter.tryAcquire("1.2.3.4") > 0);
+
+        // Two windows later nothing overlaps any more
+        now.addAndGet(120_000);
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+    }
+
+    @Test
+    void tryAcquire_WithManyDistinctKeys_ShouldStayBounded() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, Duration.ofMinutes(1), 32, now::get);
+        limiter.tryAcquire("first");
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        // The oldest key was evicted and starts over instead of the map growing without bound
+        assertEquals(0, limiter.tryAcquire("first"));
+    }
+}
@@ -45,6 +45,9 @@ class AuthenticationServiceTest {
     @Mock
     private VerificationService verificationService;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -83,8 +86,7 @@ class AuthenticationServiceTest {
         when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
         when(passwordEncoder.encode(password)).thenReturn("encodedPassword");
         // save is void
-        // Use any() for the second argument (userId) which is Long but can be null
-        when(jwtService.generateToken(anyString(), any(), anyString())).thenReturn(expectedToken);
+        when(jwtService.generateToken(any(UserDynamoDb.class))).thenReturn(expectedToken);
         when(jwtService.getExpirationTime()).thenReturn(expectedExpiration);
 
         // Act
@@ -101,7 +103,8 @@ class AuthenticationServiceTest {
         verify(userRepository).findByEmail(email);
         verify(passwordEncoder).encode(password);
         verify(userRepository).save(any(UserDynamoDb.class));
-        verify(jwtService).generateToken(eq(email), any(), eq(firstName + " " + lastName));
+        verify(jwtService).generateToken(argThat((UserDynamoDb user) ->
+            user.getEmail().equals(email) && user.getFullName().equals(firstName + " " + lastName)));
     }
 
     // Tests that registration requires email verification first
@@ -172,7 +175,7 @@ class AuthenticationServiceTest {
         long expectedExpiration = 86400000L;
 
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
-        when(jwtService.generateToken(anyString(), any(), anyString())).thenReturn(expectedToken);
+        when(jwtService.generateToken(testUser)).thenReturn(expectedToken);
         when(jwtService.getExpirationTime()).thenReturn(expectedExpiration);
 
         // Act
@@ -273,7 +276,7 @@ class AuthenticationServiceTest {
         when(verificationService.isEmailVerified(lowerEmail)).thenReturn(true);
         when(userRepository.findByEmail(lowerEmail)).thenReturn(Optional.empty());
         when(passwordEncoder.encode(password)).thenReturn("encodedPassword");
-        when(jwtService.generateToken(eq(lowerEmail), any(), anyString())).thenReturn("token");
+        when(jwtService.generateToken(argThat((UserDynamoDb user) -> user.getEmail().equals(lowerEmail)))).thenReturn("token");
         when(jwtService.getExpirationTime()).thenReturn(86400000L);
 
         // Act
@@ -295,7 +298,7 @@ class AuthenticationServiceTest {
         String password = "password";
         
         when(userRepository.findByEmail(lowerEmail)).thenReturn(Optional.of(testUser));
-        when(jwtService.generateToken(any(), any(), any())).thenReturn("token");
+        when(jwtService.generateToken(any(UserDynamoDb.class))).thenReturn("token");
         when(jwtService.getExpirationTime()).thenReturn(86400000L);
 
         // Act
@@ -367,6 +370,9 @@ class AuthenticationServiceTest {
         assertEquals("encodedNewPassword", testUser.getPassword());
         assertNull(testUser.getPasswordResetToken());
         assertNull(testUser.getResetTokenExpires());
+        // Tokens issued before the reset must stop working
+        verify(tokenVersionService).revokeIssuedTokens(testUser);
+        verify(tokenVersionService).evict(testUser.getEmail());
     }
 
     // Tests password reset with invalid token
@@ -0,0 +1,196 @@
+package com.callcat.backend.service;
+
+import com.callcat.backend.dto.BatchCallResponse;
+import com.callcat.backend.dto.BatchCallResult;
+import com.callcat.backend.dto.CallRequest;
+import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.repository.CallRecordRepository;
+import com.callcat.backend.repository.dynamo.UserPreferencesRepositoryDynamoDb;
+import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.security.RequestUserContext;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallBatchServiceTest {
+
+    @Mock
+    private CallRecordRepository callRecordRepository;
+
+    @Mock
+    private UserRepositoryDynamoDb userRepository;
+
+    @Mock
+    private UserPreferencesRepositoryDynamoDb userPreferencesRepository;
+
+    @Mock
+    private EventBridgeService eventBridgeService;
+
+    private CallBatchService callBatchService;
+    private UserDynamoDb testUser;
+
+    @BeforeEach
+    void setUp() {
+        callBatchService = new CallBatchService(callRecordRepository,
+                new RequestUserContext(userRepository, userPreferencesRepository), eventBridgeService,
+                Validation.buildDefaultValidatorFactory().getValidator(), 3);
+
+        testUser = new UserDynamoDb();
+        testUser.setEmail("test@example.com");
+        testUser.setIsActive(true);
+    }
+
+    @Test
+    void createCalls_ShouldWriteValidRowsInOneBatchAndReportEachRow() {
+        // Arrange
+        long inOneHour = System.currentTimeMillis() + 3600000;
+        CallRequest scheduled = validRequest(inOneHour);
+        CallRequest invalidPhone = validRequest(null);
+        invalidPhone.setPhoneNumber("555-1234");
+        CallRequest unscheduled = validRequest(null);
+
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callRecordRepository.saveAll(anyList())).thenReturn(List.of());
+        when(eventBridgeService.scheduleCalls(any())).thenReturn(Set.of());
+
+        // Act
+        BatchCallResponse response = callBatchService.createCalls("test@example.com",
+                List.of(scheduled, invalidPhone, unscheduled));
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getFailed());
+
+        BatchCallResult first = response.getResults().get(0);
+        assertTrue(first.isSuccess());
+        assertNotNull(first.getCallId());
+        assertEquals(Boolean.TRUE, first.getScheduled());
+
+        BatchCallResult second = response.getResults().get(1);
+        assertEquals(2, second.getRow());
+        assertFalse(second.isSuccess());
+        assertEquals("Phone number must be in E.164 format (+1XXXXXXXXXX)", second.getError());
+
+        assertNull(response.getResults().get(2).getScheduled());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CallRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(callRecordRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertTrue(saved.getValue().stream().allMatch(call -> "test@example.com".equals(call.getUserId())
+                && "SCHEDULED".equals(call.getStatus()) && "en".equals(call.getAiLanguage())));
+        verify(eventBridgeService).scheduleCalls(Map.of(first.getCallId(), inOneHour));
+    }
+
+    @Test
+    void createCalls_WithUnprocessedItems_ShouldFailOnlyThoseRowsAndNotScheduleThem() {
+        // Arrange
+        long inOneHour = System.currentTimeMillis() + 3600000;
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callRecordRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> List.of(invocation.<List<CallRecord>>getArgument(0).get(1)));
+        when(eventBridgeService.scheduleCalls(any())).thenReturn(Set.of());
+
+        // Act
+        BatchCallResponse response = callBatchService.createCalls("test@example.com",
+                List.of(validRequest(inOneHour), validRequest(inOneHour)));
+
+        // Assert
+        assertTrue(response.getResults().get(0).isSuccess());
+        BatchCallResult unsaved = response.getResults().get(1);
+        assertFalse(unsaved.isSuccess());
+        assertNull(unsaved.getCallId());
+        assertEquals("Failed to save call, please retry", unsaved.getError());
+        verify(eventBridgeService).scheduleCalls(Map.of(response.getResults().get(0).getCallId(), inOneHour));
+    }
+
+    @Test
+    void createCalls_WithPastScheduledTime_ShouldRejectRow() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callRecordRepository.saveAll(anyList())).thenReturn(List.of());
+
+        // Act
+        BatchCallResponse response = callBatchService.createCalls("test@example.com",
+                List.of(validRequest(System.currentTimeMillis() - 1000)));
+
+        // Assert
+        assertEquals("Scheduled time must be in the future", response.getResults().get(0).getError());
+        verify(callRecordRepository).saveAll(Collections.emptyList());
+        verifyNoInteractions(eventBridgeService);
+    }
+
+    @Test
+    void createCalls_OverMaxSize_ShouldThrowException() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        List<CallRequest> requests = new ArrayList<>(Collections.nCopies(4, validRequest(null)));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> callBatchService.createCalls("test@example.com", requests));
+        assertEquals("Batch cannot exceed 3 calls", exception.getMessage());
+        verifyNoInteractions(callRecordRepository);
+    }
+
+    @Test
+    void parseCsv_ShouldMapColumnsByHeaderName() throws Exception {
+        // Arrange
+        String csv = "\uFEFFPhoneNumber,calleeName,subject,prompt,scheduledFor\r\n"
+                + "+15551234567,\"Doe, Jane\",Reminder,\"Say \"\"hi\"\"\",2030-01-31T15:00:00Z\r\n"
+                + "\r\n"
+                + "+15557654321,John,Follow-up,Ask about the order,1893456000000\r\n";
+
+        // Act
+        List<CallRequest> requests = callBatchService.parseCsv(new StringReader(csv));
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertEquals("Doe, Jane", requests.get(0).getCalleeName());
+        assertEquals("+15551234567", requests.get(0).getPhoneNumber());
+        assertEquals("Say \"hi\"", requests.get(0).getPrompt());
+        assertEquals(Instant.parse("2030-01-31T15:00:00Z").toEpochMilli(), requests.get(0).getScheduledFor());
+        assertEquals(1893456000000L, requests.get(1).getScheduledFor());
+    }
+
+    @Test
+    void parseCsv_WithUnknownColumnOrTooManyRows_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> callBatchService.parseCsv(new StringReader("calleeName,favoriteColor\nJane,blue\n")));
+
+        String tooMany = "calleeName\nA\nB\nC\nD\n";
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> callBatchService.parseCsv(new StringReader(tooMany)));
+        assertEquals("Batch cannot exceed 3 calls", exception.getMessage());
+    }
+
+    private static CallRequest validRequest(Long scheduledFor) {
+        CallRequest request = new CallRequest();
+        request.setCalleeName("Jane Doe");
+        request.setPhoneNumber("+15551234567");
+        request.setSubject("Reminder");
+        request.setPrompt("Remind Jane about her appointment");
+        request.setScheduledFor(scheduledFor);
+        return request;
+    }
+}
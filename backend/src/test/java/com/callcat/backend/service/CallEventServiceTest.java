@@ -0,0 +1,221 @@
+package com.callcat.backend.service;
+
+import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.entity.CallRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallEventServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    private CallEventService callEventService;
+
+    @BeforeEach
+    void setUp() {
+        // 30 min timeout, 60 s heartbeat (out of the way), buffer 3, replay 4 events for 5 min, 2 connections
+        callEventService = new CallEventService(30, 60, 3, 4, 300, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callEventService.closeAll();
+    }
+
+    @Test
+    void publishStatus_ShouldReachOnlyTheOwnersStreams() throws Exception {
+        // Arrange
+        RecordingEmitter owner = subscribe("user@example.com", null);
+        RecordingEmitter other = subscribe("other@example.com", null);
+
+        // Act
+        callEventService.publishStatus(call("call-1", "user@example.com", "COMPLETED"));
+
+        // Assert
+        String event = owner.next();
+        assertTrue(event.contains("event:" + CallEventService.STATUS_EVENT));
+        assertTrue(event.contains("call-1:COMPLETED"));
+        assertNull(other.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publishTranscriptReady_ShouldUseItsOwnEventName() throws Exception {
+        // Arrange
+        RecordingEmitter owner = subscribe("user@example.com", null);
+
+        // Act
+        callEventService.publishTranscriptReady(call("call-1", "user@example.com", "COMPLETED"));
+
+        // Assert
+        assertTrue(owner.next().contains("event:" + CallEventService.TRANSCRIPT_READY_EVENT));
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedEvents() throws Exception {
+        // Arrange
+        RecordingEmitter first = subscribe("user@example.com", null);
+        callEventService.publishStatus(call("call-1", "user@example.com", "SCHEDULED"));
+        callEventService.publishStatus(call("call-2", "user@example.com", "SCHEDULED"));
+        callEventService.publishStatus(call("call-3", "user@example.com", "SCHEDULED"));
+        String seen = first.next();
+        first.complete();
+
+        // Act
+        RecordingEmitter reconnected = subscribe("user@example.com", eventId(seen));
+
+        // Assert
+        assertTrue(reconnected.next().contains("call-2:SCHEDULED"));
+        assertTrue(reconnected.next().contains("call-3:SCHEDULED"));
+        assertNull(reconnected.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_WhenNothingWasMissed_ShouldReplayNothing() throws Exception {
+        // Arrange
+        RecordingEmitter first = subscribe("user@example.com", null);
+        callEventService.publishStatus(call("call-1", "user@example.com", "SCHEDULED"));
+        String seen = first.next();
+
+        // Act
+        RecordingEmitter reconnected = subscribe("user@example.com", eventId(seen));
+
+        // Assert
+        assertNull(reconnected.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_WithUnknownLastEventId_ShouldAskToResync() throws Exception {
+        // Arrange
+        callEventService.publishStatus(call("call-1", "user@example.com", "SCHEDULED"));
+
+        // Act
+        RecordingEmitter stale = subscribe("user@example.com", "1");
+        RecordingEmitter garbled = subscribe("user@example.com", "not-an-id");
+
+        // Assert
+        assertTrue(stale.next().contains("event:" + CallEventService.RESYNC_EVENT));
+        assertTrue(garbled.next().contains("event:" + CallEventService.RESYNC_EVENT));
+    }
+
+    @Test
+    void subscribe_WhenMissedEventsLeftTheHistory_ShouldAskToResync() throws Exception {
+        // Arrange - 6 events with a history of 4 drops the first two
+        RecordingEmitter first = subscribe("user@example.com", null);
+        callEventService.publishStatus(call("call-1", "user@example.com", "SCHEDULED"));
+        String seen = first.next();
+        first.complete();
+        for (int i = 2; i <= 6; i++) {
+            callEventService.publishStatus(call("call-" + i, "user@example.com", "SCHEDULED"));
+        }
+
+        // Act
+        RecordingEmitter reconnected = subscribe("user@example.com", eventId(seen));
+
+        // Assert
+        assertTrue(reconnected.next().contains("event:" + CallEventService.RESYNC_EVENT));
+        assertNull(reconnected.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publish_WhenClientIsNotKeepingUp_ShouldCloseItsStream() throws Exception {
+        // Arrange - the writer is stuck sending the opening comment
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.blocked = new CountDownLatch(1);
+        callEventService.subscribe("user@example.com", null, slow);
+
+        // Act - one more event than the buffer holds
+        for (int i = 1; i <= 4; i++) {
+            callEventService.publishStatus(call("call-" + i, "user@example.com", "SCHEDULED"));
+        }
+
+        // Assert
+        assertTrue(slow.completed);
+        assertEquals(0, callEventService.connectionCount());
+        slow.blocked.countDown();
+    }
+
+    @Test
+    void subscribe_OverConnectionLimit_ShouldCloseTheOldestStream() throws Exception {
+        // Act
+        RecordingEmitter oldest = subscribe("user@example.com", null);
+        RecordingEmitter second = subscribe("user@example.com", null);
+        RecordingEmitter newest = subscribe("user@example.com", null);
+
+        // Assert
+        assertTrue(oldest.completed);
+        assertFalse(second.completed);
+        assertFalse(newest.completed);
+        assertEquals(2, callEventService.connectionCount());
+    }
+
+    private RecordingEmitter subscribe(String userId, String lastEventId) throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        callEventService.subscribe(userId, lastEventId, emitter);
+        assertTrue(emitter.next().contains("connected"));
+        return emitter;
+    }
+
+    private static String eventId(String event) {
+        Matcher matcher = EVENT_ID.matcher(event);
+        assertTrue(matcher.find(), event);
+        return matcher.group(1);
+    }
+
+    private static CallRecord call(String callId, String userId, String status) {
+        CallRecord callRecord = new CallRecord();
+        callRecord.setCallId(callId);
+        callRecord.setUserId(userId);
+        callRecord.setStatus(status);
+        return callRecord;
+    }
+
+    /**
+     * Collects what would be written to the client, one string per event.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        volatile CountDownLatch blocked;
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> part.getData() instanceof CallResponse response
+                            ? response.getCallId() + ":" + response.getStatus()
+                            : part.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event was sent");
+            return event;
+        }
+    }
+}
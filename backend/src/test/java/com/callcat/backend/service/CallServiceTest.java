@@ -3,18 +3,33 @@ package com.callcat.backend.service;
 import com.callcat.backend.dto.*;
 import com.callcat.backend.entity.CallRecord;
 import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
+import com.callcat.backend.entity.CallCounters;
+import com.callcat.backend.entity.CallPayload;
+import com.callcat.backend.repository.CallCounterRepository;
+import com.callcat.backend.repository.CallPayloadRepository;
+import com.callcat.backend.repository.CallRecordPage;
 import com.callcat.backend.repository.CallRecordRepository;
+import com.callcat.backend.repository.CallRecordUpdate;
+import com.callcat.backend.repository.dynamo.UserPreferencesRepositoryDynamoDb;
 import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.security.RequestUserContext;
+import com.callcat.backend.util.CompressionUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mockito.ArgumentCaptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,13 +44,21 @@ class CallServiceTest {
     @Mock
     private CallRecordRepository callRecordRepository;
 
+    @Mock
+    private CallPayloadRepository callPayloadRepository;
+
+    @Mock
+    private CallCounterRepository callCounterRepository;
+
     @Mock
     private UserRepositoryDynamoDb userRepository;
 
+    @Mock
+    private UserPreferencesRepositoryDynamoDb userPreferencesRepository;
+
     @Mock
     private EventBridgeService eventBridgeService;
 
-    @InjectMocks
     private CallService callService;
 
     private UserDynamoDb testUser;
@@ -45,6 +68,10 @@ class CallServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Real context over the mocked repositories - no request is bound, so every lookup hits the mock
+        callService = new CallService(callRecordRepository, callPayloadRepository, callCounterRepository,
+                new RequestUserContext(userRepository, userPreferencesRepository), eventBridgeService, Runnable::run);
+
         testUser = new UserDynamoDb();
         testUser.setEmail("test@example.com");
         testUser.setIsActive(true);
@@ -179,6 +206,43 @@ class CallServiceTest {
         assertEquals("en", result.getAiLanguage());
     }
 
+    @Test
+    void createInstantCall_ShouldReturnUnsavedCallWithSystemPrompt() {
+        // Arrange
+        UserPreferencesDynamoDb preferences = new UserPreferencesDynamoDb();
+        preferences.setEmail("test@example.com");
+        preferences.setSystemPrompt("Be brief");
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        when(userPreferencesRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(preferences));
+
+        // Act
+        CallService.InstantCallResult result = callService.createInstantCall("Test@Example.com", createRequest);
+
+        // Assert
+        assertEquals("Be brief", result.getSystemPrompt());
+        assertEquals("SCHEDULED", result.getCallRecord().getStatus());
+        assertEquals("test@example.com", result.getCallRecord().getUserId());
+        verify(callRecordRepository, never()).save(any(CallRecord.class));
+    }
+
+    @Test
+    void createInstantCall_WithoutPreferences_ShouldHaveNoSystemPrompt() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        when(userPreferencesRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.empty());
+
+        // Act
+        CallService.InstantCallResult result = callService.createInstantCall("test@example.com", createRequest);
+
+        // Assert
+        assertNull(result.getSystemPrompt());
+        verify(userPreferencesRepository, never()).save(any());
+    }
+
     @Test
     void getCalls_WithoutStatusFilter_ShouldThrowException() {
         // Arrange
@@ -187,7 +251,7 @@ class CallServiceTest {
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            callService.getCalls("test@example.com", null, 20);
+            callService.getCalls("test@example.com", null, 20, null, null);
         });
         
         assertEquals("Status parameter is required", exception.getMessage());
@@ -200,18 +264,19 @@ class CallServiceTest {
         
         when(userRepository.findByEmail("test@example.com"))
                 .thenReturn(Optional.of(testUser));
-        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "SCHEDULED", 20))
-                .thenReturn(scheduledCalls);
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "SCHEDULED", 20, null, CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenReturn(new CallRecordPage(scheduledCalls, "next-page"));
 
         // Act
-        CallListResponse result = callService.getCalls("test@example.com", "SCHEDULED", 20);
+        CallListResponse result = callService.getCalls("test@example.com", "SCHEDULED", 20, null, null);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getCalls().size());
         assertEquals("SCHEDULED", result.getCalls().get(0).getStatus());
+        assertEquals("next-page", result.getNextCursor());
 
-        verify(callRecordRepository).findByUserIdAndStatus("test@example.com", "SCHEDULED", 20);
+        verify(callRecordRepository).findByUserIdAndStatus("test@example.com", "SCHEDULED", 20, null, CallService.DEFAULT_LIST_ATTRIBUTES);
     }
 
     @Test
@@ -231,6 +296,45 @@ class CallServiceTest {
         verify(callRecordRepository).findByCallId("test-call-id");
     }
 
+    @Test
+    void getCall_WithStoredPayload_ShouldInflateRetellCallData() {
+        // Arrange
+        testCall.setProviderId("retell-call-123");
+        CallPayload payload = new CallPayload();
+        payload.setCallId("test-call-id");
+        payload.setData(CompressionUtils.deflate("{\"call_id\":\"retell-call-123\"}"));
+        when(callRecordRepository.findByCallId("test-call-id"))
+                .thenReturn(Optional.of(testCall));
+        when(callPayloadRepository.findByCallId("test-call-id"))
+                .thenReturn(Optional.of(payload));
+
+        // Act
+        CallResponse result = callService.getCall("test-call-id");
+
+        // Assert
+        assertEquals("{\"call_id\":\"retell-call-123\"}", result.getRetellCallData());
+    }
+
+    @Test
+    void storeRetellCallData_ShouldCompressPayloadAndKeepOnlyDurationOnRecord() {
+        // Arrange
+        testCall.setRetellCallData("{\"legacy\":true}");
+        String json = "{\"call_id\":\"retell-call-123\",\"duration_ms\":61400,\"transcript\":\"Agent: Hi\"}";
+
+        // Act
+        callService.storeRetellCallData(testCall,
+                new RetellCall("retell-call-123", 61400L, json.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        ArgumentCaptor<CallPayload> payload = ArgumentCaptor.forClass(CallPayload.class);
+        verify(callPayloadRepository).save(payload.capture());
+        assertEquals("test-call-id", payload.getValue().getCallId());
+        assertEquals(json, CompressionUtils.inflate(payload.getValue().getData()));
+        assertEquals(61, testCall.getDurationSec());
+        assertNull(testCall.getRetellCallData());
+        verify(callRecordRepository, never()).save(any());
+    }
+
     @Test
     void getCall_WithNonExistentCall_ShouldThrowException() {
         // Arrange
@@ -244,26 +348,111 @@ class CallServiceTest {
         assertEquals("Call not found with ID: nonexistent-id", exception.getMessage());
     }
 
+    @Test
+    void getCallETag_ShouldReadOnlyVersionAndUpdatedAt() {
+        // Arrange
+        CallRecord projected = new CallRecord();
+        projected.setCallId("test-call-id");
+        projected.setVersion(3L);
+        projected.setUpdatedAt(1_700_000_000_000L);
+        when(callRecordRepository.findByCallId("test-call-id", List.of("version", "updatedAt", "providerId")))
+                .thenReturn(Optional.of(projected));
+
+        // Act
+        String eTag = callService.getCallETag("test-call-id");
+        projected.setVersion(4L);
+        String changed = callService.getCallETag("test-call-id");
+
+        // Assert
+        assertTrue(eTag.startsWith("W/\""));
+        assertNotEquals(eTag, changed);
+        verify(callRecordRepository, never()).findByCallId("test-call-id");
+        verifyNoInteractions(callPayloadRepository); // Not sent to Retell yet, so no payload
+    }
+
+    @Test
+    void getCallETag_ShouldChangeWhenPayloadIsWritten() {
+        // Arrange
+        CallRecord projected = new CallRecord();
+        projected.setCallId("test-call-id");
+        projected.setProviderId("retell-call-123");
+        projected.setVersion(3L);
+        projected.setUpdatedAt(1_700_000_000_000L);
+        when(callRecordRepository.findByCallId("test-call-id", List.of("version", "updatedAt", "providerId")))
+                .thenReturn(Optional.of(projected));
+        when(callPayloadRepository.findUpdatedAtByCallId("test-call-id"))
+                .thenReturn(Optional.empty(), Optional.of(1_700_000_000_050L));
+
+        // Act
+        String beforePayload = callService.getCallETag("test-call-id");
+        String afterPayload = callService.getCallETag("test-call-id");
+
+        // Assert
+        assertNotEquals(beforePayload, afterPayload);
+        verify(callPayloadRepository, never()).findByCallId(anyString());
+    }
+
     @Test
     void updateCall_WithValidRequest_ShouldUpdateAndReturnCall() {
         // Arrange
+        testCall.setVersion(3L);
         when(callRecordRepository.findByCallId("test-call-id"))
                 .thenReturn(Optional.of(testCall));
-        when(callRecordRepository.save(any(CallRecord.class)))
-                .thenReturn(testCall);
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.of(testCall));
 
         // Act
         CallResponse result = callService.updateCall("test-call-id", updateRequest);
 
         // Assert
         assertNotNull(result);
-        verify(callRecordRepository).save(testCall);
-        
-        // Verify fields were updated
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callRecordRepository).update(update.capture());
+        verify(callRecordRepository, never()).save(any(CallRecord.class));
+
+        // Verify only the requested fields are written
+        assertEquals(Set.of("calleeName", "subject", "updatedAt"), update.getValue().getChanges().keySet());
+        assertEquals("Jane Doe", update.getValue().getChanges().get("calleeName").s());
+        assertEquals("Updated Call", update.getValue().getChanges().get("subject").s());
         assertEquals("Jane Doe", testCall.getCalleeName());
         assertEquals("Updated Call", testCall.getSubject());
     }
 
+    @Test
+    void updateCall_WhenChangedConcurrently_ShouldThrowException() {
+        // Arrange
+        when(callRecordRepository.findByCallId("test-call-id"))
+                .thenReturn(Optional.of(testCall));
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> callService.updateCall("test-call-id", updateRequest));
+
+        assertEquals("Call was changed by another request, please retry", exception.getMessage());
+    }
+
+    @Test
+    void updateCall_WithNewScheduledTime_ShouldMoveCallToNewKey() {
+        // Arrange
+        testCall.setVersion(3L);
+        String previousSk = testCall.getSk();
+        updateRequest.setScheduledFor(System.currentTimeMillis() + 7200000);
+        when(callRecordRepository.findByCallId("test-call-id"))
+                .thenReturn(Optional.of(testCall));
+        when(callRecordRepository.replace(eq(previousSk), eq(testCall), eq(3L)))
+                .thenReturn(true);
+
+        // Act
+        CallResponse result = callService.updateCall("test-call-id", updateRequest);
+
+        // Assert
+        assertEquals(updateRequest.getScheduledFor(), result.getScheduledFor());
+        assertNotEquals(previousSk, testCall.getSk());
+        verify(callRecordRepository, never()).update(any(CallRecordUpdate.class));
+    }
+
     @Test
     void updateCall_WithInvalidPhoneNumber_ShouldThrowException() {
         // Arrange
@@ -306,6 +495,7 @@ class CallServiceTest {
 
         // Assert
         verify(callRecordRepository).delete(testCall);
+        verify(callPayloadRepository).deleteByCallId("test-call-id");
     }
 
     @Test
@@ -342,21 +532,24 @@ class CallServiceTest {
         // Arrange
         when(callRecordRepository.findByCallId("test-call-id"))
                 .thenReturn(Optional.of(testCall));
-        when(callRecordRepository.save(any(CallRecord.class)))
-                .thenReturn(testCall);
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.of(testCall));
 
         // Act
         callService.updateCallStatusWithRetellData("test-call-id", "COMPLETED", 1693123456789L, "retell-123", true);
 
         // Assert
         verify(callRecordRepository).findByCallId("test-call-id");
-        verify(callRecordRepository).save(testCall);
-        
-        assertEquals("COMPLETED", testCall.getStatus());
-        assertEquals("retell-123", testCall.getProviderId());
-        assertEquals(1693123456789L, testCall.getCompletedAt());
-        assertTrue(testCall.getDialSuccessful());
-        assertTrue(testCall.getUpdatedAt() > 0);
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callRecordRepository).update(update.capture());
+        Map<String, AttributeValue> changes = update.getValue().getChanges();
+
+        assertEquals("COMPLETED", changes.get("status").s());
+        assertEquals("test@example.com#COMPLETED", changes.get("userStatus").s());
+        assertEquals("retell-123", changes.get("providerId").s());
+        assertEquals("1693123456789", changes.get("completedAt").n());
+        assertTrue(changes.get("dialSuccessful").bool());
+        assertTrue(Long.parseLong(changes.get("updatedAt").n()) > 0);
     }
 
     @Test
@@ -364,19 +557,21 @@ class CallServiceTest {
         // Arrange
         when(callRecordRepository.findByCallId("test-call-id"))
                 .thenReturn(Optional.of(testCall));
-        when(callRecordRepository.save(any(CallRecord.class)))
-                .thenReturn(testCall);
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.of(testCall));
 
         // Act
         callService.updateCallStatusWithRetellData("test-call-id", "COMPLETED", null, "retell-123", null);
 
         // Assert
-        verify(callRecordRepository).save(testCall);
-        
-        assertEquals("COMPLETED", testCall.getStatus());
-        assertEquals("retell-123", testCall.getProviderId());
-        assertNull(testCall.getCompletedAt()); // Should remain null
-        assertNull(testCall.getDialSuccessful()); // Should remain original value (null)
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callRecordRepository).update(update.capture());
+
+        assertEquals("COMPLETED", update.getValue().getChanges().get("status").s());
+        assertEquals("retell-123", update.getValue().getChanges().get("providerId").s());
+        assertFalse(update.getValue().getChanges().containsKey("completedAt")); // Left as stored
+        assertFalse(update.getValue().getChanges().containsKey("dialSuccessful")); // Left as stored
+        assertTrue(update.getValue().getRemovals().isEmpty());
     }
 
     @Test
@@ -384,8 +579,8 @@ class CallServiceTest {
         // Arrange
         when(callRecordRepository.findByCallId("test-call-id"))
                 .thenReturn(Optional.of(testCall));
-        when(callRecordRepository.save(any(CallRecord.class)))
-                .thenReturn(testCall);
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.of(testCall));
 
         com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
         com.fasterxml.jackson.databind.JsonNode retellData = mapper.readTree("{\"call_id\":\"retell-123\",\"status\":\"completed\"}");
@@ -395,11 +590,31 @@ class CallServiceTest {
 
         // Assert
         verify(callRecordRepository).findByCallId("test-call-id");
-        verify(callRecordRepository).save(testCall);
-        
-        assertNotNull(testCall.getRetellCallData());
-        assertTrue(testCall.getRetellCallData().contains("retell-123"));
-        assertTrue(testCall.getUpdatedAt() > 0);
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callRecordRepository).update(update.capture());
+        assertTrue(update.getValue().getRemovals().contains("retellCallData"));
+        assertTrue(update.getValue().getChanges().containsKey("updatedAt"));
+
+        ArgumentCaptor<CallPayload> payload = ArgumentCaptor.forClass(CallPayload.class);
+        verify(callPayloadRepository).save(payload.capture());
+        assertTrue(CompressionUtils.inflate(payload.getValue().getData()).contains("retell-123"));
+    }
+
+    @Test
+    void updateCallRecord_WhenConditionFails_ShouldNotStorePayload() throws Exception {
+        // Arrange
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.empty());
+        CallRecordUpdate update = CallRecordUpdate.of(testCall).dialSuccessful(true).ifStatus("SCHEDULED");
+
+        // Act
+        Optional<CallRecord> applied = callService.updateCallRecord(update,
+                new ObjectMapper().readTree("{\"call_id\":\"retell-123\",\"duration_ms\":2500}"));
+
+        // Assert
+        assertTrue(applied.isEmpty());
+        assertEquals("3", update.getChanges().get("durationSec").n());
+        verify(callPayloadRepository, never()).save(any());
     }
 
     @Test
@@ -494,6 +709,280 @@ class CallServiceTest {
 
     // Tests case-insensitive email handling for retrieving calls
     // Verifies that mixed-case emails are converted to lowercase
+    @Test
+    void getCalls_WithFields_ShouldReadOnlyThoseAttributes() {
+        // Arrange
+        CallRecord projected = new CallRecord();
+        projected.setCallId("test-call-id");
+        projected.setStatus("COMPLETED");
+        projected.setVersion(2L);
+        projected.setUpdatedAt(1_700_000_000_000L);
+
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        // version and updatedAt are always read too, for the ETag
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 20, null,
+                Set.of("callId", "status", "version", "updatedAt")))
+                .thenReturn(new CallRecordPage(List.of(projected), null));
+
+        // Act
+        CallListResponse result = callService.getCalls("test@example.com", "COMPLETED", 20, null, List.of("callId", " status"));
+
+        // Assert
+        CallResponse call = result.getCalls().get(0);
+        assertInstanceOf(PartialCallResponse.class, call);
+        assertEquals("COMPLETED", call.getStatus());
+        assertNull(call.getRetellCallData());
+        assertNull(call.getUpdatedAt());
+        assertNotNull(result.getETag());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCalls_WithoutFields_ShouldReadEverythingButRetellCallData() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        when(callRecordRepository.findByUserIdAndStatus(eq("test@example.com"), eq("SCHEDULED"), eq(20), isNull(), anySet()))
+                .thenReturn(new CallRecordPage(List.of(testCall), null));
+
+        // Act
+        CallListResponse result = callService.getCalls("test@example.com", "SCHEDULED", 20, null, null);
+
+        // Assert
+        ArgumentCaptor<Set<String>> attributes = ArgumentCaptor.forClass(Set.class);
+        verify(callRecordRepository).findByUserIdAndStatus(eq("test@example.com"), eq("SCHEDULED"), eq(20), isNull(),
+                attributes.capture());
+        assertFalse(attributes.getValue().contains("retellCallData"));
+        assertTrue(attributes.getValue().containsAll(Set.of("prompt", "status", "scheduledFor", "version", "updatedAt")));
+        assertFalse(result.getCalls().get(0) instanceof PartialCallResponse);
+    }
+
+    @Test
+    void getCalls_ETag_ShouldChangeOnlyWhenACallChanges() {
+        // Arrange
+        testCall.setVersion(1L);
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "SCHEDULED", 20, null, CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenReturn(new CallRecordPage(List.of(testCall), null));
+
+        // Act
+        String first = callService.getCalls("test@example.com", "SCHEDULED", 20, null, null).getETag();
+        String unchanged = callService.getCalls("test@example.com", "SCHEDULED", 20, null, null).getETag();
+        testCall.setVersion(2L);
+        String changed = callService.getCalls("test@example.com", "SCHEDULED", 20, null, null).getETag();
+
+        // Assert
+        assertEquals(first, unchanged);
+        assertNotEquals(first, changed);
+    }
+
+    @Test
+    void getCalls_WithUnknownField_ShouldThrowException() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> callService.getCalls("test@example.com", "COMPLETED", 20, null, List.of("userId")));
+        assertEquals("Unknown field: userId", exception.getMessage());
+        verifyNoInteractions(callRecordRepository);
+    }
+
+    @Test
+    void getCallsByStatuses_ShouldMergeNewestFirstAndReturnCursorPerStatus() {
+        // Arrange
+        CallRecord upcoming = callAt("upcoming", "SCHEDULED", 3_000L);
+        CallRecord completed = callAt("completed", "COMPLETED", 2_000L);
+        CallRecord failed = callAt("failed", "FAILED", 1_000L);
+
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "SCHEDULED", 10, null, CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenReturn(new CallRecordPage(List.of(upcoming), null));
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 10, "completed-1", CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenReturn(new CallRecordPage(List.of(completed), "completed-2"));
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "FAILED", 10, null, CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenReturn(new CallRecordPage(List.of(failed), "failed-2"));
+
+        // Act
+        MultiStatusCallListResponse result = callService.getCallsByStatuses("test@example.com",
+                List.of("FAILED", "SCHEDULED", "COMPLETED"), 10, Map.of("COMPLETED", "completed-1"), null);
+
+        // Assert
+        assertEquals(List.of("upcoming", "completed", "failed"),
+                result.getCalls().stream().map(CallResponse::getCallId).toList());
+        assertNull(result.getNextCursors().get("SCHEDULED"));
+        assertEquals("completed-2", result.getNextCursors().get("COMPLETED"));
+        assertEquals("failed-2", result.getNextCursors().get("FAILED"));
+    }
+
+    @Test
+    void getCallsByStatuses_WithInvalidCursor_ShouldSurfaceRepositoryException() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        when(callRecordRepository.findByUserIdAndStatus("test@example.com", "COMPLETED", 20, "bogus", CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> callService.getCallsByStatuses("test@example.com", List.of("COMPLETED"), 20, Map.of("COMPLETED", "bogus"), null));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void getCallsByStatuses_WithoutStatuses_ShouldThrowException() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> callService.getCallsByStatuses("test@example.com", List.of(), 20, Map.of(), null));
+        verifyNoInteractions(callRecordRepository);
+    }
+
+    @Test
+    void getCallSummary_WithSeededCounters_ShouldReadThemOnly() {
+        // Arrange
+        CallCounters counters = new CallCounters();
+        counters.setScheduled(2L);
+        counters.setCompleted(7L);
+        counters.setFailed(-1L); // Drifted below zero
+        counters.setSeeded(true);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callCounterRepository.findById("test@example.com")).thenReturn(Optional.of(counters));
+
+        // Act
+        CallSummaryResponse summary = callService.getCallSummary("test@example.com");
+
+        // Assert
+        assertEquals(2, summary.getScheduled());
+        assertEquals(7, summary.getCompleted());
+        assertEquals(0, summary.getFailed());
+        assertEquals(9, summary.getTotal());
+        verify(callRecordRepository, never()).countByUserIdAndStatus(anyString(), anyString());
+    }
+
+    @Test
+    void getCallSummary_WithoutSeededCounters_ShouldSeedFromStoredCalls() {
+        // Arrange
+        CallCounters partial = new CallCounters();
+        partial.setScheduled(1L); // Incremented before the first summary
+        CallCounters seeded = new CallCounters();
+        seeded.setScheduled(3L);
+        seeded.setCompleted(4L);
+        seeded.setFailed(0L);
+        seeded.setSeeded(true);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callCounterRepository.findById("test@example.com")).thenReturn(Optional.of(partial));
+        when(callCounterRepository.findLatestById("test@example.com")).thenReturn(Optional.of(partial));
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "SCHEDULED")).thenReturn(3L);
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "COMPLETED")).thenReturn(4L);
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "FAILED")).thenReturn(0L);
+        when(callCounterRepository.seed("test@example.com", partial, 3L, 4L, 0L)).thenReturn(Optional.of(seeded));
+
+        // Act
+        CallSummaryResponse summary = callService.getCallSummary("test@example.com");
+
+        // Assert
+        assertEquals(3, summary.getScheduled());
+        assertEquals(4, summary.getCompleted());
+        assertEquals(7, summary.getTotal());
+    }
+
+    @Test
+    void getCallSummary_WhenCountersChangeWhileCounting_ShouldCountAgain() {
+        // Arrange
+        CallCounters beforeFirstCount = new CallCounters();
+        beforeFirstCount.setScheduled(1L);
+        CallCounters beforeSecondCount = new CallCounters();
+        beforeSecondCount.setScheduled(2L); // A call was created during the first count
+        CallCounters seeded = new CallCounters();
+        seeded.setScheduled(4L);
+        seeded.setCompleted(4L);
+        seeded.setFailed(0L);
+        seeded.setSeeded(true);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callCounterRepository.findById("test@example.com")).thenReturn(Optional.of(beforeFirstCount));
+        when(callCounterRepository.findLatestById("test@example.com"))
+                .thenReturn(Optional.of(beforeFirstCount), Optional.of(beforeSecondCount));
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "SCHEDULED")).thenReturn(3L, 4L);
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "COMPLETED")).thenReturn(4L);
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "FAILED")).thenReturn(0L);
+        when(callCounterRepository.seed("test@example.com", beforeFirstCount, 3L, 4L, 0L)).thenReturn(Optional.empty());
+        when(callCounterRepository.seed("test@example.com", beforeSecondCount, 4L, 4L, 0L)).thenReturn(Optional.of(seeded));
+
+        // Act
+        CallSummaryResponse summary = callService.getCallSummary("test@example.com");
+
+        // Assert
+        assertEquals(4, summary.getScheduled());
+        assertEquals(8, summary.getTotal());
+    }
+
+    @Test
+    void getCallSummary_WhenCountersKeepChanging_ShouldAnswerLastCountWithoutSeeding() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(callCounterRepository.findById("test@example.com")).thenReturn(Optional.empty());
+        when(callCounterRepository.findLatestById("test@example.com")).thenReturn(Optional.empty());
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "SCHEDULED")).thenReturn(5L);
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "COMPLETED")).thenReturn(1L);
+        when(callRecordRepository.countByUserIdAndStatus("test@example.com", "FAILED")).thenReturn(2L);
+        when(callCounterRepository.seed("test@example.com", null, 5L, 1L, 2L)).thenReturn(Optional.empty());
+
+        // Act
+        CallSummaryResponse summary = callService.getCallSummary("test@example.com");
+
+        // Assert
+        assertEquals(8, summary.getTotal());
+        verify(callCounterRepository, times(3)).seed("test@example.com", null, 5L, 1L, 2L);
+    }
+
+    @Test
+    void getGlobalCallSummary_WithSeededCounters_ShouldReadThemOnly() {
+        // Arrange
+        CallCounters global = new CallCounters();
+        global.setScheduled(20L);
+        global.setCompleted(50L);
+        global.setFailed(3L);
+        global.setSeeded(true);
+        when(callCounterRepository.findGlobal()).thenReturn(global);
+
+        // Act
+        CallSummaryResponse summary = callService.getGlobalCallSummary();
+
+        // Assert
+        assertEquals(73, summary.getTotal());
+        verify(callRecordRepository, never()).countAllByStatus();
+    }
+
+    @Test
+    void getGlobalCallSummary_WithoutSeed_ShouldStoreCountMinusShards() {
+        // Arrange
+        CallCounters shards = new CallCounters();
+        shards.setScheduled(-1L); // Completions of calls created before counting began
+        shards.setCompleted(4L);
+        shards.setFailed(0L);
+        when(callCounterRepository.findGlobal()).thenReturn(shards);
+        when(callRecordRepository.countAllByStatus()).thenReturn(Map.of("SCHEDULED", 6L, "COMPLETED", 9L));
+        when(callCounterRepository.seed(CallCounterRepository.GLOBAL_ID, null, 7L, 5L, 0L))
+                .thenReturn(Optional.of(new CallCounters()));
+
+        // Act
+        CallSummaryResponse summary = callService.getGlobalCallSummary();
+
+        // Assert
+        assertEquals(6, summary.getScheduled());
+        assertEquals(9, summary.getCompleted());
+        assertEquals(0, summary.getFailed());
+        verify(callCounterRepository).seed(CallCounterRepository.GLOBAL_ID, null, 7L, 5L, 0L);
+    }
+
     @Test
     void getCalls_WithMixedCaseEmail_ShouldReturnCalls() {
         // Arrange
@@ -502,17 +991,26 @@ class CallServiceTest {
         List<CallRecord> scheduledCalls = Arrays.asList(testCall);
         
         when(userRepository.findByEmail(lowerEmail)).thenReturn(Optional.of(testUser));
-        when(callRecordRepository.findByUserIdAndStatus(testUser.getEmail(), "SCHEDULED", 20))
-                .thenReturn(scheduledCalls);
+        when(callRecordRepository.findByUserIdAndStatus(testUser.getEmail(), "SCHEDULED", 20, null, CallService.DEFAULT_LIST_ATTRIBUTES))
+                .thenReturn(new CallRecordPage(scheduledCalls, null));
 
         // Act
-        CallListResponse result = callService.getCalls(email, "SCHEDULED", 20);
+        CallListResponse result = callService.getCalls(email, "SCHEDULED", 20, null, null);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getCalls().size());
         verify(userRepository).findByEmail(lowerEmail);
-        verify(callRecordRepository).findByUserIdAndStatus(testUser.getEmail(), "SCHEDULED", 20);
+        verify(callRecordRepository).findByUserIdAndStatus(testUser.getEmail(), "SCHEDULED", 20, null, CallService.DEFAULT_LIST_ATTRIBUTES);
     }
 
-}
\ No newline at end of file
+
+    private static CallRecord callAt(String callId, String status, long scheduledFor) {
+        CallRecord call = new CallRecord();
+        call.setUserId("test@example.com");
+        call.setCallId(callId);
+        call.setStatus(status);
+        call.setScheduledFor(scheduledFor);
+        return call;
+    }
+}
@@ -1,5 +1,7 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.util.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +11,8 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.services.ses.SesClient;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 // Unit tests for EmailService functionality
@@ -26,7 +30,8 @@ class EmailServiceTest {
 
     @BeforeEach
     void setUp() {
-        emailService = new EmailService(sesClient, gmailSender);
+        emailService = new EmailService(sesClient, gmailSender,
+                new Bulkhead("smtp", 1, Duration.ofSeconds(1), new SimpleMeterRegistry()));
         // Set email disabled for testing (dev mode)
         ReflectionTestUtils.setField(emailService, "emailEnabled", false);
     }
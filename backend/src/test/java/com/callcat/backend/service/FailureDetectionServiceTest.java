@@ -2,6 +2,7 @@ package com.callcat.backend.service;
 
 import com.callcat.backend.entity.CallRecord;
 import com.callcat.backend.repository.CallRecordRepository;
+import com.callcat.backend.repository.CallRecordUpdate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +13,12 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +27,9 @@ class FailureDetectionServiceTest {
     @Mock
     private CallRecordRepository callRecordRepository;
 
+    @Mock
+    private CallEventService callEventService;
+
     @InjectMocks
     private FailureDetectionService failureDetectionService;
 
@@ -45,6 +51,7 @@ class FailureDetectionServiceTest {
         List<CallRecord> overdueCalls = Arrays.asList(overdueCall);
 
         when(callRecordRepository.findOverdueScheduledCalls(anyLong())).thenReturn(overdueCalls);
+        when(callRecordRepository.update(any(CallRecordUpdate.class))).thenReturn(Optional.of(overdueCall));
 
         // Act
         failureDetectionService.detectFailedCalls();
@@ -52,16 +59,34 @@ class FailureDetectionServiceTest {
         // Assert
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
 
-        // Verify that the overdue call was updated and saved
-        verify(callRecordRepository, times(1)).save(any(CallRecord.class));
+        // Verify that the overdue call was updated in place
+        verify(callRecordRepository, times(1)).update(any(CallRecordUpdate.class));
+        verify(callRecordRepository, never()).save(any(CallRecord.class));
 
         // Verify that the overdue call was marked as failed (COMPLETED with dialSuccessful=false)
-        verify(callRecordRepository).save(argThat(call ->
-            call.getCallId().equals("overdue-call-1") &&
-            "COMPLETED".equals(call.getStatus()) &&
-            call.getDialSuccessful() == Boolean.FALSE &&
-            call.getCompletedAt() != null
+        verify(callRecordRepository).update(argThat(update ->
+            update.getCallId().equals("overdue-call-1") &&
+            "COMPLETED".equals(update.getChanges().get("status").s()) &&
+            Boolean.FALSE.equals(update.getChanges().get("dialSuccessful").bool()) &&
+            update.getChanges().containsKey("completedAt")
         ));
+        verify(callEventService).publishStatus(overdueCall);
+    }
+
+    @Test
+    void testDetectFailedCalls_WhenCallLeftScheduled_ShouldSkipIt() {
+        // Arrange - a webhook completed the call between the scan and the update
+        CallRecord overdueCall = createTestCall("overdue-call-1", "SCHEDULED");
+        when(callRecordRepository.findOverdueScheduledCalls(anyLong())).thenReturn(List.of(overdueCall));
+        when(callRecordRepository.update(any(CallRecordUpdate.class))).thenReturn(Optional.empty());
+
+        // Act
+        failureDetectionService.detectFailedCalls();
+
+        // Assert - the update was conditional and nothing else was written
+        verify(callRecordRepository).update(any(CallRecordUpdate.class));
+        verify(callRecordRepository, never()).save(any(CallRecord.class));
+        verify(callEventService, never()).publishStatus(any());
     }
 
     @Test
@@ -76,7 +101,7 @@ class FailureDetectionServiceTest {
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
 
         // Verify that no calls were saved (no failures detected)
-        verify(callRecordRepository, never()).save(any(CallRecord.class));
+        verify(callRecordRepository, never()).update(any(CallRecordUpdate.class));
     }
 
     @Test
@@ -91,7 +116,7 @@ class FailureDetectionServiceTest {
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
 
         // Verify that no calls were saved
-        verify(callRecordRepository, never()).save(any(CallRecord.class));
+        verify(callRecordRepository, never()).update(any(CallRecordUpdate.class));
     }
 
     @Test
@@ -106,7 +131,7 @@ class FailureDetectionServiceTest {
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
 
         // Verify that no calls were saved (just before boundary should not fail)
-        verify(callRecordRepository, never()).save(any(CallRecord.class));
+        verify(callRecordRepository, never()).update(any(CallRecordUpdate.class));
     }
 
     @Test
@@ -124,6 +149,7 @@ class FailureDetectionServiceTest {
         List<CallRecord> overdueCalls = Arrays.asList(overdueCall1, overdueCall2);
 
         when(callRecordRepository.findOverdueScheduledCalls(anyLong())).thenReturn(overdueCalls);
+        when(callRecordRepository.update(any(CallRecordUpdate.class))).thenReturn(Optional.of(overdueCall1));
 
         // Act
         failureDetectionService.detectFailedCalls();
@@ -131,30 +157,26 @@ class FailureDetectionServiceTest {
         // Assert
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
 
-        // Verify that both calls were saved
-        verify(callRecordRepository, times(2)).save(any(CallRecord.class));
+        // Verify that both calls were updated
+        verify(callRecordRepository, times(2)).update(any(CallRecordUpdate.class));
     }
 
     @Test
     void testDetectAndMarkFailedCalls_ShouldReturnCorrectCount() {
-        // Arrange
-        CallRecord scheduledCall1 = createTestCall("scheduled-1", "SCHEDULED");
-        CallRecord scheduledCall2 = createTestCall("scheduled-2", "SCHEDULED");
-
-        // Mock findAllByStatus for initial and final counts
-        when(callRecordRepository.findAllByStatus("SCHEDULED"))
-                .thenReturn(Arrays.asList(scheduledCall1, scheduledCall2)) // Initial count
-                .thenReturn(Arrays.asList(scheduledCall1, scheduledCall2)); // Final count
-        
-        // Mock findOverdueScheduledCalls for detectFailedCalls() - no overdue calls
-        when(callRecordRepository.findOverdueScheduledCalls(anyLong())).thenReturn(Arrays.asList());
+        // Arrange - one overdue call is marked, the other was completed by a webhook meanwhile
+        CallRecord overdueCall1 = createTestCall("overdue-1", "SCHEDULED");
+        CallRecord overdueCall2 = createTestCall("overdue-2", "SCHEDULED");
+        when(callRecordRepository.findOverdueScheduledCalls(anyLong())).thenReturn(List.of(overdueCall1, overdueCall2));
+        when(callRecordRepository.update(any(CallRecordUpdate.class)))
+                .thenReturn(Optional.of(overdueCall1))
+                .thenReturn(Optional.empty());
 
         // Act
         int failedCount = failureDetectionService.detectAndMarkFailedCalls();
 
-        // Assert
-        assertEquals(0, failedCount); // No failures expected since no overdue calls
-        verify(callRecordRepository, times(2)).findAllByStatus("SCHEDULED");
+        // Assert - counted from the updates, without scanning the table for SCHEDULED calls
+        assertEquals(1, failedCount);
+        verify(callRecordRepository, never()).findAllByStatus(anyString());
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
     }
 
@@ -168,7 +190,7 @@ class FailureDetectionServiceTest {
 
         // Assert
         verify(callRecordRepository).findOverdueScheduledCalls(anyLong());
-        verify(callRecordRepository, never()).save(any(CallRecord.class));
+        verify(callRecordRepository, never()).update(any(CallRecordUpdate.class));
     }
 
     private CallRecord createTestCall(String callId, String status) {
@@ -2,6 +2,7 @@ package com.callcat.backend.service;
 
 import com.callcat.backend.TestBackendApplication;
 import com.callcat.backend.entity.User;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -288,4 +289,65 @@ class JwtServiceTest {
         // Assert
         assertTrue(isValid);
     }
-}
\ No newline at end of file
+
+    // Tests that a verified token is served from the claims cache on repeat lookups
+    // Verifies the filter's repeated checks don't re-parse the same token
+    @Test
+    void verifyToken_CalledTwice_ShouldReturnCachedClaims() {
+        // Arrange
+        String token = jwtService.generateToken(testUser);
+
+        // Act
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        // Assert
+        assertEquals("test@example.com", first.getSubject());
+        assertSame(first, second);
+    }
+
+    // Tests that a token with a tampered signature is never accepted from the cache
+    // Ensures the cache is keyed by the full token, not just its payload
+    @Test
+    void verifyToken_WithTamperedSignature_ShouldThrowException() {
+        // Arrange
+        String token = jwtService.generateToken(testUser);
+        jwtService.verifyToken(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(tampered));
+    }
+
+    // Tests claims-based validation used by the authentication filter
+    // Verifies that validation against already verified claims honours the subject
+    @Test
+    void isTokenValid_WithClaims_ShouldCheckSubject() {
+        // Arrange
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(testUser));
+        User differentUser = new User();
+        differentUser.setEmail("different@example.com");
+
+        // Act & Assert
+        assertTrue(jwtService.isTokenValid(claims, testUser));
+        assertFalse(jwtService.isTokenValid(claims, differentUser));
+    }
+
+    // Tests that every token carries its own id for revocation
+    // Verifies that the jti claim is unique per token and used as the revocation key
+    @Test
+    void extractTokenId_ShouldReturnUniqueJti() {
+        // Arrange
+        String first = jwtService.generateToken("test@example.com", null, "John Doe");
+        String second = jwtService.generateToken("test@example.com", null, "John Doe");
+        Claims firstClaims = jwtService.verifyToken(first);
+
+        // Act
+        String tokenId = jwtService.extractTokenId(firstClaims, first);
+
+        // Assert
+        assertNotNull(firstClaims.getId());
+        assertEquals(firstClaims.getId(), tokenId);
+        assertNotEquals(tokenId, jwtService.extractTokenId(jwtService.verifyToken(second), second));
+    }
+}
@@ -34,6 +34,9 @@ class PasswordResetServiceTest {
     @Mock
     private VerificationService verificationService;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -1,18 +1,38 @@
 package com.callcat.backend.service;
 
 import com.callcat.backend.dto.CallResponse;
+import com.callcat.backend.dto.RetellCall;
 import com.callcat.backend.dto.UserPreferencesResponse;
 import com.callcat.backend.entity.CallRecord;
+import com.callcat.backend.exception.ThrottledException;
+import com.callcat.backend.repository.CallRecordUpdate;
+import com.callcat.backend.util.Bulkhead;
+import com.callcat.backend.util.CircuitBreaker;
+import com.callcat.backend.util.RetryBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestClient;
 
-import java.util.Map;
+import java.net.ConnectException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,18 +48,14 @@ class RetellServiceTest {
     private CallService callService;
 
     @Mock
-    private RestClient restClient;
+    private HttpClient httpClient;
 
     @Mock
-    private RestClient.RequestBodyUriSpec requestBodyUriSpec;
+    private HttpResponse<byte[]> httpResponse;
 
-    @Mock
-    private RestClient.RequestBodySpec requestBodySpec;
-
-    @Mock
-    private RestClient.ResponseSpec responseSpec;
-
-    @InjectMocks
+    private Bulkhead retellBulkhead;
+    private CircuitBreaker circuitBreaker;
+    private RetryBudget retryBudget;
     private RetellService retellService;
 
     private CallRecord mockCallRecord;
@@ -47,11 +63,26 @@ class RetellServiceTest {
 
     @BeforeEach
     void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        retellBulkhead = new Bulkhead("retell", 2, Duration.ofSeconds(1), meterRegistry);
+        // Opens after 2 failures among the last 4 calls
+        circuitBreaker = new CircuitBreaker("retell", 0.5, 4, 2, Duration.ofSeconds(30), 1, meterRegistry);
+        retryBudget = new RetryBudget("retell", 0.2, 0, 10, meterRegistry);
+        retellService = new RetellService(userService, callService, httpClient, new ObjectMapper(),
+                Runnable::run, retellBulkhead, circuitBreaker, retryBudget, meterRegistry);
+
         // Set up test configuration values
         ReflectionTestUtils.setField(retellService, "apiKey", "test-api-key");
         ReflectionTestUtils.setField(retellService, "baseUrl", "https://api.retell.ai");
         ReflectionTestUtils.setField(retellService, "phoneNumber", "+1234567890");
-        ReflectionTestUtils.setField(retellService, "restClient", restClient);
+        ReflectionTestUtils.setField(retellService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retellService, "createCallDeadlineMs", 5000L);
+        ReflectionTestUtils.setField(retellService, "createCallAttemptTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(retellService, "getCallDeadlineMs", 5000L);
+        ReflectionTestUtils.setField(retellService, "getCallAttemptTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(retellService, "getCallHedgeDelayMs", 1000L);
+        ReflectionTestUtils.setField(retellService, "liveCallCacheTtlMs", 1500L);
+        ReflectionTestUtils.setField(retellService, "endedCallCacheTtlMs", 30000L);
 
         // Set up mock objects
         mockCallRecord = new CallRecord();
@@ -78,15 +109,12 @@ class RetellServiceTest {
             }
             """;
 
+        mockCallRecord.setScheduledFor(1_700_000_000_000L);
         when(callService.findCallByCallId(callId)).thenReturn(mockCallRecord);
         when(userService.getUserPreferences("user@example.com")).thenReturn(mockUserPreferences);
-
-        // Mock RestClient chain
-        when(restClient.post()).thenReturn(requestBodyUriSpec);
-        when(requestBodyUriSpec.uri("/create-phone-call")).thenReturn(requestBodySpec);
-        when(requestBodySpec.body(any(Map.class))).thenReturn(requestBodySpec);
-        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.body(String.class)).thenReturn(retellResponseJson);
+        respondWith(200, retellResponseJson);
+        when(callService.updateDialedCall(any(CallRecordUpdate.class), any(RetellCall.class)))
+                .thenReturn(Optional.of(mockCallRecord));
 
         // When
         CallResponse result = retellService.makeCall(callId);
@@ -97,10 +125,24 @@ class RetellServiceTest {
         assertEquals("retell-call-123", result.getProviderId());
         assertEquals("+1234567890", result.getCallerNumber());
 
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).sendAsync(request.capture(), any());
+        assertEquals("POST", request.getValue().method());
+        assertEquals("/create-phone-call", request.getValue().uri().getPath());
+        assertEquals("Bearer test-api-key", request.getValue().headers().firstValue("Authorization").orElse(null));
+
+        // The stored call only gets its providerId, with the response as received, not re-serialized
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        ArgumentCaptor<RetellCall> stored = ArgumentCaptor.forClass(RetellCall.class);
+        verify(callService).updateDialedCall(update.capture(), stored.capture());
+        assertEquals("retell-call-123", update.getValue().getChanges().get("providerId").s());
+        assertEquals(retellResponseJson, new String(stored.getValue().json(), StandardCharsets.UTF_8));
+
         // Verify service interactions
         verify(callService).findCallByCallId(callId);
         verify(userService).getUserPreferences("user@example.com");
-        verify(callService).saveCallRecord(any(CallRecord.class));
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        assertEquals(0, retellBulkhead.activeCount());
     }
 
     @Test
@@ -111,12 +153,9 @@ class RetellServiceTest {
         when(callService.findCallByCallId(callId)).thenReturn(mockCallRecord);
         when(userService.getUserPreferences("user@example.com")).thenReturn(mockUserPreferences);
 
-        // Mock RestClient to throw exception
-        when(restClient.post()).thenReturn(requestBodyUriSpec);
-        when(requestBodyUriSpec.uri("/create-phone-call")).thenReturn(requestBodySpec);
-        when(requestBodySpec.body(any(Map.class))).thenReturn(requestBodySpec);
-        when(requestBodySpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.body(String.class)).thenThrow(new RuntimeException("API call failed"));
+        // Mock the HTTP client to fail
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("API call failed")));
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -136,6 +175,94 @@ class RetellServiceTest {
         verify(callService).findCallByCallId(callId);
         verify(userService).getUserPreferences("user@example.com");
         verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        assertEquals(0, retellBulkhead.activeCount());
+    }
+
+    @Test
+    void testMakeCallAsync_ErrorStatus_ShouldFailWithoutSaving() {
+        // Given
+        respondWith(422, "{\"error_message\":\"Invalid number\"}");
+
+        // When
+        CompletableFuture<CallResponse> result = retellService.makeCallAsync(mockCallRecord, null);
+
+        // Then
+        Exception exception = assertThrows(Exception.class, result::join);
+        assertEquals("Failed to create call", exception.getCause().getMessage());
+        assertTrue(exception.getCause().getCause().getMessage().contains("422"));
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+    }
+
+    @Test
+    void testMakeCallAsync_WhenSavingFailsOnce_ShouldRetryTheSave() {
+        // Given
+        respondWith(200, "{\"call_id\":\"retell-call-123\"}");
+        doThrow(new RuntimeException("DynamoDB unavailable")).doNothing()
+                .when(callService).saveCallRecord(mockCallRecord);
+
+        // When
+        CallResponse result = retellService.makeCallAsync(mockCallRecord, null).join();
+
+        // Then
+        assertEquals("retell-call-123", result.getProviderId());
+        verify(callService, times(2)).saveCallRecord(mockCallRecord);
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testMakeCallAsync_WhenSavingKeepsFailing_ShouldReportThePlacedCall() {
+        // Given - Retell placed the call, so it must not look like a failed dial
+        respondWith(200, "{\"call_id\":\"retell-call-123\"}");
+        doThrow(new RuntimeException("DynamoDB unavailable")).when(callService).saveCallRecord(mockCallRecord);
+
+        // When
+        CompletableFuture<CallResponse> result = retellService.makeCallAsync(mockCallRecord, null);
+
+        // Then
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        RetellService.CallNotSavedException notSaved =
+                assertInstanceOf(RetellService.CallNotSavedException.class, exception.getCause());
+        assertEquals("test-call-id", notSaved.getCallId());
+        assertEquals("retell-call-123", notSaved.getProviderId());
+        verify(callService, times(3)).saveCallRecord(mockCallRecord);
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testMakeStoredCallAsync_ShouldOnlyUpdateTheProviderId() {
+        // Given
+        mockCallRecord.setScheduledFor(1_700_000_000_000L);
+        respondWith(200, "{\"call_id\":\"retell-call-123\"}");
+        when(callService.updateDialedCall(any(CallRecordUpdate.class), any(RetellCall.class)))
+                .thenReturn(Optional.of(mockCallRecord));
+
+        // When
+        CallResponse result = retellService.makeStoredCallAsync(mockCallRecord, null).join();
+
+        // Then
+        assertEquals("retell-call-123", result.getProviderId());
+        ArgumentCaptor<CallRecordUpdate> update = ArgumentCaptor.forClass(CallRecordUpdate.class);
+        verify(callService).updateDialedCall(update.capture(), any(RetellCall.class));
+        assertEquals("retell-call-123", update.getValue().getChanges().get("providerId").s());
+        assertFalse(update.getValue().getChanges().containsKey("status"));
+        verify(callService, never()).saveCallRecord(any());
+    }
+
+    @Test
+    void testMakeStoredCallAsync_WhenCallWasDeleted_ShouldNotStoreItAgain() {
+        // Given - the user deleted the call while Retell was dialing
+        mockCallRecord.setScheduledFor(1_700_000_000_000L);
+        respondWith(200, "{\"call_id\":\"retell-call-123\"}");
+        when(callService.updateDialedCall(any(CallRecordUpdate.class), any(RetellCall.class)))
+                .thenReturn(Optional.empty());
+
+        // When
+        CallResponse result = retellService.makeStoredCallAsync(mockCallRecord, null).join();
+
+        // Then
+        assertEquals("retell-call-123", result.getProviderId());
+        verify(callService, times(1)).updateDialedCall(any(CallRecordUpdate.class), any(RetellCall.class));
+        verify(callService, never()).saveCallRecord(any());
     }
 
     @Test
@@ -157,5 +284,258 @@ class RetellServiceTest {
         verify(callService).findCallByCallId(callId);
         verify(userService, never()).getUserPreferences(anyString());
         verify(callService, never()).saveCallRecord(any(CallRecord.class));
+        verifyNoInteractions(httpClient);
+    }
+
+    @Test
+    void testMakeCallAsync_WhenRetellIsOverloaded_ShouldRetry() {
+        // Given - a 503 means Retell turned the request away, so it is safe to send again
+        HttpResponse<byte[]> overloaded = response(503, "");
+        HttpResponse<byte[]> created = response(200, "{\"call_id\":\"retell-call-123\"}");
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(overloaded), CompletableFuture.completedFuture(created));
+
+        // When
+        CallResponse result = retellService.makeCallAsync(mockCallRecord, null).join();
+
+        // Then
+        assertEquals("retell-call-123", result.getProviderId());
+        verify(httpClient, times(2)).sendAsync(any(), any());
+        verify(callService).saveCallRecord(mockCallRecord);
+        assertEquals(0, retellBulkhead.activeCount());
+    }
+
+    @Test
+    void testMakeCallAsync_WhenConnectionFails_ShouldRetry() {
+        // Given
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body()).thenReturn("{\"call_id\":\"retell-call-123\"}".getBytes(StandardCharsets.UTF_8));
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")),
+                        CompletableFuture.completedFuture(httpResponse));
+
+        // When
+        CallResponse result = retellService.makeCallAsync(mockCallRecord, null).join();
+
+        // Then
+        assertEquals("retell-call-123", result.getProviderId());
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testMakeCallAsync_WhenRetellTimesOut_ShouldNotRetry() {
+        // Given - the call may have been placed, so sending again could dial twice
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.failedFuture(new HttpTimeoutException("request timed out")));
+
+        // When
+        CompletableFuture<CallResponse> result = retellService.makeCallAsync(mockCallRecord, null);
+
+        // Then
+        Exception exception = assertThrows(Exception.class, result::join);
+        assertEquals("Failed to create call", exception.getCause().getMessage());
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testMakeCallAsync_WhenRetryBudgetIsUsedUp_ShouldNotRetry() {
+        // Given
+        while (retryBudget.tryAcquire()) {
+            // drain it
+        }
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+
+        // When & Then
+        assertThrows(Exception.class, () -> retellService.makeCallAsync(mockCallRecord, null).join());
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testMakeCall_WhenCircuitIsOpen_ShouldFailFastWithoutCallingRetell() {
+        // Given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // When
+        ThrottledException exception = assertThrows(ThrottledException.class,
+                () -> retellService.makeCall(mockCallRecord, null));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertTrue(exception.getRetryAfterSeconds() > 0);
+        verifyNoInteractions(httpClient);
+        verify(callService, never()).saveCallRecord(any(CallRecord.class));
+    }
+
+    @Test
+    void testMakeCall_RepeatedServerErrors_ShouldOpenTheCircuit() {
+        // Given
+        when(httpResponse.statusCode()).thenReturn(500);
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(httpResponse));
+
+        // When - a 500 to create-phone-call is not retried, each call fails once
+        assertThrows(RuntimeException.class, () -> retellService.makeCall(mockCallRecord, null));
+        assertThrows(RuntimeException.class, () -> retellService.makeCall(mockCallRecord, null));
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(ThrottledException.class, () -> retellService.makeCall(mockCallRecord, null));
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testGetCall_WhenRetellErrors_ShouldRetry() {
+        // Given
+        HttpResponse<byte[]> badGateway = response(502, "");
+        HttpResponse<byte[]> found = response(200, "{\"call_id\":\"retell-call-123\"}");
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(badGateway), CompletableFuture.completedFuture(found));
+
+        // When
+        JsonNode call = retellService.getCall("retell-call-123");
+
+        // Then
+        assertEquals("retell-call-123", call.get("call_id").asText());
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testGetCall_WhenRetellIsSlow_ShouldHedgeAndCancelTheSlowRequest() {
+        // Given - the first request never answers, the hedged one does
+        ReflectionTestUtils.setField(retellService, "getCallHedgeDelayMs", 50L);
+        CompletableFuture<HttpResponse<byte[]>> slow = new CompletableFuture<>();
+        when(httpResponse.statusCode()).thenReturn(200);
+        when(httpResponse.body()).thenReturn("{\"call_id\":\"retell-call-123\"}".getBytes(StandardCharsets.UTF_8));
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(slow, CompletableFuture.completedFuture(httpResponse));
+
+        // When
+        JsonNode call = retellService.getCall("retell-call-123");
+
+        // Then
+        assertEquals("retell-call-123", call.get("call_id").asText());
+        verify(httpClient, times(2)).sendAsync(any(), any());
+        assertTrue(slow.isCancelled());
+        assertEquals(0, retellBulkhead.activeCount());
+    }
+
+    @Test
+    void testGetCall_ShouldReturnTheCallObject() {
+        // Given
+        respondWith(200, "{\"call_id\":\"retell-call-123\",\"transcript\":\"Agent: Hi\"}");
+
+        // When
+        JsonNode call = retellService.getCall("retell-call-123");
+
+        // Then
+        assertEquals("Agent: Hi", call.get("transcript").asText());
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).sendAsync(request.capture(), any());
+        assertEquals("/get-call/retell-call-123", request.getValue().uri().getPath());
+    }
+
+    @Test
+    void testGetCall_ConcurrentReads_ShouldShareOneRequest() {
+        // Given - Retell has not answered yet
+        CompletableFuture<HttpResponse<byte[]>> pending = new CompletableFuture<>();
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(pending);
+
+        // When
+        CompletableFuture<JsonNode> first = retellService.getCallAsync("retell-call-123");
+        CompletableFuture<JsonNode> second = retellService.getCallAsync("retell-call-123");
+        pending.complete(response(200, "{\"call_id\":\"retell-call-123\",\"call_status\":\"ongoing\"}"));
+
+        // Then - each reader gets its own copy
+        assertEquals("ongoing", first.join().get("call_status").asText());
+        assertEquals("ongoing", second.join().get("call_status").asText());
+        assertNotSame(first.join(), second.join());
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testGetCall_WithinTtl_ShouldBeAnsweredFromCache() {
+        // Given
+        respondWith(200, "{\"call_id\":\"retell-call-123\",\"call_status\":\"ongoing\"}");
+
+        // When
+        JsonNode first = retellService.getCall("retell-call-123");
+        ((ObjectNode) first).put("call_status", "changed by caller");
+        JsonNode second = retellService.getCall("retell-call-123");
+
+        // Then
+        assertEquals("ongoing", second.get("call_status").asText());
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testGetCall_LiveCall_ShouldOnlyBeCachedForTheLiveTtl() {
+        // Given - live calls not cached, ended calls are
+        ReflectionTestUtils.setField(retellService, "liveCallCacheTtlMs", 0L);
+        HttpResponse<byte[]> live = response(200, "{\"call_id\":\"retell-call-123\",\"call_status\":\"ongoing\"}");
+        HttpResponse<byte[]> ended = response(200, "{\"call_id\":\"retell-call-123\",\"call_status\":\"ended\"}");
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(live), CompletableFuture.completedFuture(ended));
+
+        // When
+        retellService.getCall("retell-call-123");
+        retellService.getCall("retell-call-123");
+        JsonNode call = retellService.getCall("retell-call-123");
+
+        // Then
+        assertEquals("ended", call.get("call_status").asText());
+        verify(httpClient, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void testGetCall_Failure_ShouldNotBeCached() {
+        // Given
+        HttpResponse<byte[]> notFound = response(404, "");
+        HttpResponse<byte[]> found = response(200, "{\"call_id\":\"retell-call-123\"}");
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(notFound), CompletableFuture.completedFuture(found));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> retellService.getCall("retell-call-123"));
+        assertEquals("Failed to get call details", exception.getMessage());
+        assertEquals("retell-call-123", retellService.getCall("retell-call-123").get("call_id").asText());
+    }
+
+    @Test
+    void testParseCall_ShouldReadTopLevelFieldsOnly() {
+        // Given - nested call_id and duration_ms values must not be picked up
+        String json = """
+            {"metadata":{"call_id":"ours","duration_ms":1},"transcript_object":[{"words":[]}],\
+            "call_id":"retell-call-123","duration_ms":61400}""";
+
+        // When
+        RetellCall call = retellService.parseCall(json.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals("retell-call-123", call.callId());
+        assertEquals(61400L, call.durationMs());
+    }
+
+    @Test
+    void testParseCall_WithoutCallId_ShouldFail() {
+        assertThrows(IllegalStateException.class,
+                () -> retellService.parseCall("{\"status\":\"error\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<byte[]> response(int status, String body) {
+        HttpResponse<byte[]> response = mock(HttpResponse.class);
+        lenient().when(response.statusCode()).thenReturn(status);
+        lenient().when(response.body()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+        return response;
+    }
+
+    private void respondWith(int status, String body) {
+        when(httpResponse.statusCode()).thenReturn(status);
+        lenient().when(httpResponse.body()).thenReturn(body.getBytes(StandardCharsets.UTF_8));
+        when(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .thenReturn(CompletableFuture.completedFuture(httpResponse));
     }
-}
\ No newline at end of file
+}
@@ -1,67 +1,202 @@
 package com.callcat.backend.service;
 
+import com.callcat.backend.entity.BlacklistedToken;
 import com.callcat.backend.repository.BlacklistedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TokenBlacklistServiceTest {
     
+    private static final String SECRET = "NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU1NTU=";
+    
     @Mock
     private BlacklistedTokenRepository blacklistedTokenRepository;
     
+    private JwtService jwtService;
     private TokenBlacklistService tokenBlacklistService;
     
     @BeforeEach
     void setUp() {
-        tokenBlacklistService = new TokenBlacklistService(blacklistedTokenRepository);
+        jwtService = createJwtService(86400000L);
+        tokenBlacklistService = new TokenBlacklistService(blacklistedTokenRepository, jwtService);
+    }
+    
+    private static JwtService createJwtService(long expirationMillis) {
+        JwtService service = new JwtService();
+        // Use reflection to set private fields for testing
+        try {
+            var secretField = JwtService.class.getDeclaredField("secretKey");
+            secretField.setAccessible(true);
+            secretField.set(service, SECRET);
+            
+            var expirationField = JwtService.class.getDeclaredField("jwtExpiration");
+            expirationField.setAccessible(true);
+            expirationField.set(service, expirationMillis);
+        } catch (Exception e) {
+            fail("Failed to setup test: " + e.getMessage());
+        }
+        return service;
+    }
+    
+    private String newToken() {
+        return jwtService.generateToken("test@example.com", null, "John Doe");
     }
     
     @Test
-    void blacklistToken_ShouldCallRepositorySave() {
+    void blacklistToken_ShouldSaveTokenIdWithTokenExpiry() {
         // Arrange
-        String token = "test.jwt.token";
+        String token = newToken();
+        Claims claims = jwtService.verifyToken(token);
         
         // Act
         tokenBlacklistService.blacklistToken(token);
         
         // Assert
-        verify(blacklistedTokenRepository, times(1)).save(any());
+        ArgumentCaptor<BlacklistedToken> saved = ArgumentCaptor.forClass(BlacklistedToken.class);
+        verify(blacklistedTokenRepository, times(1)).save(saved.capture());
+        assertEquals(claims.getId(), saved.getValue().getTokenId());
+        assertEquals(claims.getExpiration().toInstant().getEpochSecond(), saved.getValue().getExpiresAt());
+    }
+    
+    @Test
+    void blacklistToken_WithExpiredToken_ShouldNotSave() {
+        // Arrange
+        String expiredToken = createJwtService(-1000L).generateToken("test@example.com", null, "John Doe");
+        
+        // Act
+        tokenBlacklistService.blacklistToken(expiredToken);
+        
+        // Assert
+        verify(blacklistedTokenRepository, never()).save(any());
+    }
+    
+    @Test
+    void blacklistToken_WithInvalidToken_ShouldThrow() {
+        assertThrows(JwtException.class, () -> tokenBlacklistService.blacklistToken("test.jwt.token"));
+        verify(blacklistedTokenRepository, never()).save(any());
     }
     
     @Test
     void isTokenBlacklisted_WithNonBlacklistedToken_ShouldReturnFalse() {
         // Arrange
-        String token = "test.jwt.token";
+        String token = newToken();
+        Claims claims = jwtService.verifyToken(token);
         when(blacklistedTokenRepository.exists(anyString())).thenReturn(false);
         
         // Act
-        boolean isBlacklisted = tokenBlacklistService.isTokenBlacklisted(token);
+        boolean isBlacklisted = tokenBlacklistService.isTokenBlacklisted(claims, token);
         
         // Assert
         assertFalse(isBlacklisted);
-        verify(blacklistedTokenRepository, times(1)).exists(token);
+        verify(blacklistedTokenRepository, times(1)).exists(claims.getId());
     }
     
     @Test
     void isTokenBlacklisted_WithBlacklistedToken_ShouldReturnTrue() {
         // Arrange
-        String token = "test.jwt.token";
+        String token = newToken();
+        Claims claims = jwtService.verifyToken(token);
         when(blacklistedTokenRepository.exists(anyString())).thenReturn(true);
         
         // Act
-        boolean isBlacklisted = tokenBlacklistService.isTokenBlacklisted(token);
+        boolean isBlacklisted = tokenBlacklistService.isTokenBlacklisted(claims, token);
+        
+        // Assert
+        assertTrue(isBlacklisted);
+        verify(blacklistedTokenRepository, times(1)).exists(claims.getId());
+    }
+
+    @Test
+    void isRevoked_AfterLoad_WithUnknownToken_ShouldNotQueryDynamoDb() {
+        // Arrange
+        when(blacklistedTokenRepository.scanAllActiveRevocations(anyLong())).thenReturn(List.of());
+        tokenBlacklistService.initialize();
+        
+        // Act
+        boolean isBlacklisted = tokenBlacklistService.isRevoked("unknown-token-id");
+        
+        // Assert
+        assertFalse(isBlacklisted);
+        verify(blacklistedTokenRepository, never()).exists(anyString());
+    }
+    
+    @Test
+    void isRevoked_AfterLoad_WithRevokedToken_ShouldAnswerFromMemory() {
+        // Arrange
+        long expiresAt = Instant.now().plusSeconds(3600).getEpochSecond();
+        when(blacklistedTokenRepository.scanAllActiveRevocations(anyLong()))
+                .thenReturn(List.of(new BlacklistedToken("revoked-token-id", expiresAt)));
+        tokenBlacklistService.initialize();
+        
+        // Act
+        boolean isBlacklisted = tokenBlacklistService.isRevoked("revoked-token-id");
         
         // Assert
         assertTrue(isBlacklisted);
-        verify(blacklistedTokenRepository, times(1)).exists(token);
+        verify(blacklistedTokenRepository, never()).exists(anyString());
+    }
+    
+    @Test
+    void blacklistToken_AfterLoad_ShouldBeVisibleWithoutDynamoDbLookup() {
+        // Arrange
+        when(blacklistedTokenRepository.scanAllActiveRevocations(anyLong())).thenReturn(List.of());
+        tokenBlacklistService.initialize();
+        String token = newToken();
+        
+        // Act
+        tokenBlacklistService.blacklistToken(token);
+        
+        // Assert
+        assertTrue(tokenBlacklistService.isTokenBlacklisted(jwtService.verifyToken(token), token));
+        verify(blacklistedTokenRepository, never()).exists(anyString());
+    }
+    
+    @Test
+    void refreshRevocations_AfterLoad_ShouldQueryOnlyRecentRevocations() {
+        // Arrange
+        long expiresAt = Instant.now().plusSeconds(3600).getEpochSecond();
+        when(blacklistedTokenRepository.scanAllActiveRevocations(anyLong())).thenReturn(List.of());
+        when(blacklistedTokenRepository.findRevokedSince(anyLong(), anyLong()))
+                .thenReturn(List.of(new BlacklistedToken("revoked-elsewhere", expiresAt, Instant.now().getEpochSecond())));
+        tokenBlacklistService.initialize();
+
+        // Act
+        tokenBlacklistService.refreshRevocations();
+
+        // Assert
+        assertTrue(tokenBlacklistService.isRevoked("revoked-elsewhere"));
+        verify(blacklistedTokenRepository, times(1)).scanAllActiveRevocations(anyLong());
+        verify(blacklistedTokenRepository, never()).exists(anyString());
+    }
+
+    @Test
+    void initialize_WhenDynamoDbFails_ShouldFallBackToDynamoDbLookups() {
+        // Arrange
+        when(blacklistedTokenRepository.scanAllActiveRevocations(anyLong()))
+                .thenThrow(new RuntimeException("DynamoDB unavailable"));
+        when(blacklistedTokenRepository.exists("revoked-token-id")).thenReturn(true);
+        
+        // Act
+        tokenBlacklistService.initialize();
+        
+        // Assert
+        assertTrue(tokenBlacklistService.isRevoked("revoked-token-id"));
+        verify(blacklistedTokenRepository, times(1)).exists("revoked-token-id");
     }
-} 
\ No newline at end of file
+}
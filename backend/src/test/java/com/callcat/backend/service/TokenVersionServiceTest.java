@@ -0,0 +1,92 @@
+package com.callcat.backend.service;
+
+import com.callcat.backend.entity.dynamo.UserDynamoDb;
+import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionServiceTest {
+
+    @Mock
+    private UserRepositoryDynamoDb userRepository;
+
+    private TokenVersionService tokenVersionService;
+
+    private UserDynamoDb testUser;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionService(userRepository);
+
+        testUser = new UserDynamoDb();
+        testUser.setEmail("test@example.com");
+        testUser.setIsActive(true);
+        testUser.setTokenVersion(2L);
+    }
+
+    @Test
+    void isCurrent_WithCurrentVersion_ShouldReturnTrue() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        assertTrue(tokenVersionService.isCurrent("test@example.com", 2L));
+    }
+
+    @Test
+    void isCurrent_WithOlderVersion_ShouldReturnFalse() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        assertFalse(tokenVersionService.isCurrent("test@example.com", 1L));
+    }
+
+    @Test
+    void isCurrent_WithInactiveOrMissingUser_ShouldReturnFalse() {
+        testUser.setIsActive(false);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertFalse(tokenVersionService.isCurrent("test@example.com", 2L));
+        assertFalse(tokenVersionService.isCurrent("missing@example.com", 0L));
+    }
+
+    @Test
+    void isCurrent_CalledRepeatedly_ShouldReadUserOnce() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        tokenVersionService.isCurrent("test@example.com", 2L);
+        tokenVersionService.isCurrent("Test@Example.com", 2L);
+
+        verify(userRepository, times(1)).findByEmail(anyString());
+    }
+
+    @Test
+    void revokeIssuedTokens_ThenEvict_ShouldRejectOldTokens() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        assertTrue(tokenVersionService.isCurrent("test@example.com", 2L));
+
+        tokenVersionService.revokeIssuedTokens(testUser);
+        tokenVersionService.evict("test@example.com");
+
+        assertEquals(3L, testUser.getTokenVersion());
+        assertFalse(tokenVersionService.isCurrent("test@example.com", 2L));
+        assertTrue(tokenVersionService.isCurrent("test@example.com", 3L));
+    }
+
+    @Test
+    void revokeIssuedTokens_WithLegacyUser_ShouldStartFromZero() {
+        testUser.setTokenVersion(null);
+
+        tokenVersionService.revokeIssuedTokens(testUser);
+
+        assertEquals(1L, testUser.getTokenVersion());
+    }
+}
@@ -8,10 +8,10 @@ import com.callcat.backend.entity.dynamo.UserDynamoDb;
 import com.callcat.backend.entity.dynamo.UserPreferencesDynamoDb;
 import com.callcat.backend.repository.dynamo.UserPreferencesRepositoryDynamoDb;
 import com.callcat.backend.repository.dynamo.UserRepositoryDynamoDb;
+import com.callcat.backend.security.RequestUserContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -37,7 +37,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private TokenVersionService tokenVersionService;
+
     private UserService userService;
 
     private UserDynamoDb testUser;
@@ -45,6 +47,10 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        // No request is bound in unit tests, so the context reads straight from the mocked repositories
+        userService = new UserService(userRepository, userPreferencesRepository, passwordEncoder, tokenVersionService,
+                new RequestUserContext(userRepository, userPreferencesRepository));
+
         testUser = new UserDynamoDb();
         testUser.setEmail("test@example.com");
         testUser.setFirstName("John");
@@ -163,6 +169,8 @@ class UserServiceTest {
         verify(passwordEncoder).encode(newPassword);
         verify(userRepository).save(testUser);
         assertEquals(encodedNewPassword, testUser.getPassword());
+        verify(tokenVersionService).revokeIssuedTokens(testUser);
+        verify(tokenVersionService).evict(email);
     }
 
     // Tests password change failure with incorrect current password
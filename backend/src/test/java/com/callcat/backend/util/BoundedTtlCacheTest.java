@@ -0,0 +1,83 @@
+package com.callcat.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void get_BeforeExpiry_ShouldReturnValue() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, now::get);
+        cache.put("a", "value", now.get() + 1000);
+
+        assertEquals("value", cache.get("a"));
+    }
+
+    @Test
+    void get_AfterExpiry_ShouldReturnNullAndDropEntry() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, now::get);
+        cache.put("a", "value", Duration.ofSeconds(1));
+
+        now.addAndGet(1000);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_AlreadyExpired_ShouldNotCache() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, now::get);
+        cache.put("a", "value", now.get() - 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_OverCapacity_ShouldEvictLeastRecentlyUsed() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, now::get);
+        cache.put("a", "1", Duration.ofMinutes(1));
+        cache.put("b", "2", Duration.ofMinutes(1));
+        cache.get("a"); // "b" is now the least recently used entry
+        cache.put("c", "3", Duration.ofMinutes(1));
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEntry() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, now::get);
+        cache.put("a", "value", Duration.ofMinutes(1));
+
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void get_ShouldCountHitsAndMisses() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, now::get);
+        cache.get("a");
+        cache.put("a", "value", Duration.ofSeconds(1));
+        cache.get("a");
+        now.addAndGet(1000);
+        cache.get("a"); // expired
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void constructor_WithNonPositiveSize_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlCache<String, String>(0));
+    }
+}
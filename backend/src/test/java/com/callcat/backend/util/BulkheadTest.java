@@ -0,0 +1,68 @@
+package com.callcat.backend.util;
+
+import com.callcat.backend.exception.ThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("retell", 1, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    void call_ShouldReturnResultAndFreeThePermit() {
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+        assertEquals(0, bulkhead.activeCount());
+    }
+
+    @Test
+    void call_WhenTheCallFails_ShouldStillFreeThePermit() {
+        assertThrows(IllegalStateException.class, () -> bulkhead.run(() -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, bulkhead.activeCount());
+    }
+
+    @Test
+    void call_WhenFull_ShouldRejectAfterTheWaitLimit() throws Exception {
+        // Arrange - another thread holds the only permit
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> bulkhead.run(() -> {
+            holding.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // Act
+        ThrottledException e = assertThrows(ThrottledException.class, () -> bulkhead.call(() -> "late"));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(1, bulkhead.activeCount());
+        assertEquals(1.0, meterRegistry.get("callcat.bulkhead.rejected").tag("downstream", "retell").counter().count());
+
+        done.countDown();
+        holder.join();
+        assertEquals(0, bulkhead.activeCount());
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+}
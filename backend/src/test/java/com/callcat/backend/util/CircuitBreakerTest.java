@@ -0,0 +1,144 @@
+package com.callcat.backend.util;
+
+import com.callcat.backend.exception.ThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Opens at 50% failures once 4 of the last 10 calls are in, for 30 s; 2 trial calls
+        breaker = new CircuitBreaker("retell", 0.5, 10, 4, Duration.ofSeconds(30), 2, meterRegistry, now::get);
+    }
+
+    @Test
+    void failures_BelowMinimumCalls_ShouldNotOpen() {
+        failedCall();
+        failedCall();
+        failedCall();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failures_AtTheThreshold_ShouldOpenAndFailFast() {
+        // Arrange
+        succeededCall();
+        succeededCall();
+        failedCall();
+
+        // Act
+        failedCall();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now.addAndGet(10_000);
+        ThrottledException e = assertThrows(ThrottledException.class, breaker::acquirePermission);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(20, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("callcat.circuitbreaker.rejected").tag("downstream", "retell").counter().count());
+        assertEquals(1.0, meterRegistry.get("callcat.circuitbreaker.transitions")
+                .tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    void window_ShouldOnlyCountTheLastCalls() {
+        // Arrange - 3 early failures followed by 10 successes push them out of the window
+        for (int i = 0; i < 3; i++) {
+            failedCall();
+        }
+        for (int i = 0; i < 10; i++) {
+            succeededCall();
+        }
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            failedCall();
+        }
+
+        // Assert - 4 of 10
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        failedCall();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void afterOpenDuration_SuccessfulTrialCalls_ShouldClose() {
+        // Arrange
+        open();
+        now.addAndGet(30_000);
+
+        // Act
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+        assertThrows(ThrottledException.class, breaker::acquirePermission);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, meterRegistry.get("callcat.circuitbreaker.state").tag("downstream", "retell").gauge().value());
+    }
+
+    @Test
+    void halfOpen_FailedTrialCall_ShouldReopen() {
+        // Arrange
+        open();
+        now.addAndGet(30_000);
+        breaker.acquirePermission();
+
+        // Act
+        breaker.onFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(ThrottledException.class, breaker::acquirePermission);
+    }
+
+    @Test
+    void halfOpen_ReleasedTrialCall_ShouldFreeItsSlot() {
+        // Arrange
+        open();
+        now.addAndGet(30_000);
+        breaker.acquirePermission();
+        breaker.acquirePermission();
+
+        // Act
+        breaker.releasePermission();
+
+        // Assert
+        breaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            failedCall();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void succeededCall() {
+        breaker.acquirePermission();
+        breaker.onSuccess();
+    }
+
+    private void failedCall() {
+        breaker.acquirePermission();
+        breaker.onFailure();
+    }
+}
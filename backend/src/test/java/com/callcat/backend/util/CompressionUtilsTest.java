@@ -0,0 +1,37 @@
+package com.callcat.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionUtilsTest {
+
+    @Test
+    void inflate_ShouldRestoreDeflatedText() {
+        String json = "{\"call_id\":\"abc\",\"transcript\":\"Agent: Hello, ¿qué tal? 👋\\nUser: Bien\"}";
+
+        assertEquals(json, CompressionUtils.inflate(CompressionUtils.deflate(json)));
+    }
+
+    @Test
+    void deflate_ShouldShrinkRepetitivePayloads() {
+        String transcript = "Agent: Can you confirm the appointment?\nUser: Yes, that works.\n".repeat(200);
+
+        byte[] compressed = CompressionUtils.deflate(transcript);
+
+        assertTrue(compressed.length * 5 < transcript.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(transcript, CompressionUtils.inflate(compressed));
+    }
+
+    @Test
+    void inflate_WithCorruptData_ShouldThrow() {
+        byte[] compressed = CompressionUtils.deflate("some payload that is long enough to truncate");
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        assertThrows(IllegalArgumentException.class, () -> CompressionUtils.inflate(new byte[]{1, 2, 3, 4}));
+        assertThrows(IllegalArgumentException.class, () -> CompressionUtils.inflate(truncated));
+    }
+}
@@ -0,0 +1,40 @@
+package com.callcat.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readRecord_ShouldSplitPlainFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b,c\n1,,3\n"));
+
+        assertEquals(List.of("a", "b", "c"), csv.readRecord());
+        assertEquals(List.of("1", "", "3"), csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void readRecord_ShouldHandleQuotedCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"Doe, Jane\",\"Say \"\"hi\"\"\",\"line one\r\nline two\"\r\nlast,row"));
+
+        assertEquals(List.of("Doe, Jane", "Say \"hi\"", "line one\r\nline two"), csv.readRecord());
+        assertEquals(3, csv.getLine());
+        assertEquals(List.of("last", "row"), csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void readRecord_WithUnterminatedQuote_ShouldThrow() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("ok\n\"never closed,1\n"));
+
+        assertEquals(List.of("ok"), csv.readRecord());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, csv::readRecord);
+        assertEquals("Unterminated quoted field starting on line 2", exception.getMessage());
+    }
+}
@@ -0,0 +1,34 @@
+package com.callcat.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void weak_ShouldBeStableForEqualValues() {
+        assertEquals(ETags.weak("call-1", 3L, 1_700_000_000_000L), ETags.weak("call-1", 3L, 1_700_000_000_000L));
+    }
+
+    @Test
+    void weak_ShouldBeAQuotedWeakTag() {
+        assertTrue(ETags.weak("call-1").matches("W/\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void weak_ShouldChangeWithAnyValue() {
+        String tag = ETags.weak("call-1", 3L, 1_700_000_000_000L);
+
+        assertNotEquals(tag, ETags.weak("call-1", 4L, 1_700_000_000_000L));
+        assertNotEquals(tag, ETags.weak("call-1", 3L, 1_700_000_000_001L));
+        assertNotEquals(tag, ETags.weak("call-2", 3L, 1_700_000_000_000L));
+    }
+
+    @Test
+    void weak_ShouldNotConfuseBoundariesOrNulls() {
+        assertNotEquals(ETags.weak("ab", "c"), ETags.weak("a", "bc"));
+        assertNotEquals(ETags.weak((Object) null), ETags.weak(""));
+        assertNotEquals(ETags.weak("a", null), ETags.weak(null, "a"));
+    }
+}
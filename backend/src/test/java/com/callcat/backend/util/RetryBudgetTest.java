@@ -0,0 +1,79 @@
+package com.callcat.backend.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private RetryBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One retry per 4 calls, 1 token per second regardless, at most 2 saved up
+        budget = new RetryBudget("retell", 0.25, 1, 2, meterRegistry, now::get);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowUpToTheSavedUpBurst() {
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        assertEquals(1.0, meterRegistry.get("callcat.retry.budget.exhausted").tag("downstream", "retell").counter().count());
+    }
+
+    @Test
+    void onCall_ShouldEarnRetriesInProportion() {
+        // Arrange
+        drain();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            budget.onCall();
+        }
+
+        // Assert
+        assertFalse(budget.tryAcquire());
+        budget.onCall();
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void tokens_ShouldTrickleInOverTime() {
+        // Arrange
+        drain();
+
+        // Act
+        now.addAndGet(1_000);
+
+        // Assert
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void tokens_ShouldNotExceedTheMaximum() {
+        // Act
+        now.addAndGet(60_000);
+        for (int i = 0; i < 100; i++) {
+            budget.onCall();
+        }
+
+        // Assert
+        assertEquals(2.0, budget.available());
+    }
+
+    private void drain() {
+        while (budget.tryAcquire()) {
+            // use up the initial burst
+        }
+    }
+}
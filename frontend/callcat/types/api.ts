@@ -90,7 +90,7 @@ export interface CallResponse {
   dialSuccessful?: boolean | null;
   callAnalyzed?: boolean;
   durationSec?: number | null; // Call duration in seconds (available for completed calls)
-  retellCallData?: string; // JSON string containing Retell AI response data with transcript
+  retellCallData?: string; // JSON string containing Retell AI response data with transcript (single-call endpoint only)
 }
 
 export interface CallListResponse {
@@ -103,6 +103,11 @@ export function parseTranscript(transcriptText: string): TranscriptMessage[] {
  * @returns true if transcript is available
  */
 export function hasAvailableTranscript(call: CallResponse): boolean {
+  // Call lists don't include retellCallData; the transcript arrives with the call_analyzed event
+  if (call.status === 'COMPLETED' && call.callAnalyzed && call.dialSuccessful === true) {
+    return true;
+  }
+
   const transcript = extractTranscriptFromCall(call);
   return transcript !== null && transcript.length > 0;
 }